@@ -0,0 +1,29 @@
+package com.ts.platform.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * runs the benchmarks with the {@link GCProfiler}, reporting the allocation rate and the allocated bytes per operation
+ * along with the throughput, so that allocation regressions show as well.
+ * <p>takes the usual jmh options, for instance
+ * <pre>
+ *     java -jar ts-benchmarks/target/benchmarks.jar ReflectionsBenchmark -p classes=1000
+ * </pre>
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
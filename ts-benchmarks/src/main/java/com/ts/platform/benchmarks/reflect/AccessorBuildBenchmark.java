@@ -0,0 +1,53 @@
+package com.ts.platform.benchmarks.reflect;
+
+import com.ts.platform.benchmarks.reflect.Beans.Bean0;
+import com.ts.platform.utils.reflect.TSLField;
+import com.ts.platform.utils.reflect.TSLGetterBuilder;
+import com.ts.platform.utils.reflect.TSLLambdaGetterBuilder;
+import com.ts.platform.utils.reflect.TSLLambdaSetterBuilder;
+import com.ts.platform.utils.reflect.TSLSetterBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * the cost of building the getter and setter of a property, the first use cost of an object proxy per property:
+ * javassist compiling and defining a class of each, against {@link java.lang.invoke.LambdaMetafactory} defining a
+ * hidden class of each. every invocation defines two new classes
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-opens=java.base/java.lang=ALL-UNNAMED")
+@State(Scope.Thread)
+public class AccessorBuildBenchmark {
+    private TSLField field;
+
+    @Setup
+    public void setup() {
+        field = Accessors.field(Bean0.class, "name");
+    }
+
+    @Benchmark
+    public void buildJavassist(Blackhole blackhole) {
+        blackhole.consume(new TSLGetterBuilder().field(field).build());
+        blackhole.consume(new TSLSetterBuilder().field(field).build());
+    }
+
+    @Benchmark
+    public void buildLambda(Blackhole blackhole) {
+        blackhole.consume(new TSLLambdaGetterBuilder().field(field).build());
+        blackhole.consume(new TSLLambdaSetterBuilder().field(field).build());
+    }
+}
@@ -0,0 +1,86 @@
+package com.ts.platform.benchmarks.reflect;
+
+import com.ts.platform.utils.reflect.TSLField;
+import com.ts.platform.utils.reflect.TSLFields;
+import com.ts.platform.utils.reflect.TSLMethod;
+import com.ts.platform.utils.reflect.TSLMethods;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * the accessors of a bean property compared by the benchmarks, each built the way a framework would build it once per
+ * property: reflective {@link TSLField} and {@link TSLMethod}, {@link MethodHandle}s adapted to {@code Object}, and
+ * {@link LambdaMetafactory} functions
+ */
+final class Accessors {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private Accessors() {
+    }
+
+    static TSLField field(Class<?> type, String property) {
+        TSLField field = new TSLField(TSLFields.getField(type, property));
+        field.setAccessible(true);
+        return field;
+    }
+
+    static TSLMethod getterMethod(Class<?> type, String property) {
+        return new TSLMethod(TSLMethods.getMethod(type, getter(property)));
+    }
+
+    static TSLMethod setterMethod(Class<?> type, String property, Class<?> propertyType) {
+        return new TSLMethod(TSLMethods.getMethod(type, setter(property), propertyType));
+    }
+
+    /** the getter as a {@code (Object)Object} method handle */
+    static MethodHandle getterHandle(Class<?> type, String property, Class<?> propertyType) throws ReflectiveOperationException {
+        return LOOKUP.findVirtual(type, getter(property), MethodType.methodType(propertyType))
+                .asType(MethodType.methodType(Object.class, Object.class));
+    }
+
+    /** the setter as a {@code (Object,Object)void} method handle */
+    static MethodHandle setterHandle(Class<?> type, String property, Class<?> propertyType) throws ReflectiveOperationException {
+        return LOOKUP.findVirtual(type, setter(property), MethodType.methodType(void.class, propertyType))
+                .asType(MethodType.methodType(void.class, Object.class, Object.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    static Function<Object, Object> getterLambda(Class<?> type, String property, Class<?> propertyType) throws Throwable {
+        MethodHandle getter = LOOKUP.findVirtual(type, getter(property), MethodType.methodType(propertyType));
+        CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply",
+                MethodType.methodType(Function.class),
+                MethodType.methodType(Object.class, Object.class),
+                getter,
+                MethodType.methodType(wrap(propertyType), type));
+        return (Function<Object, Object>) site.getTarget().invokeExact();
+    }
+
+    @SuppressWarnings("unchecked")
+    static BiConsumer<Object, Object> setterLambda(Class<?> type, String property, Class<?> propertyType) throws Throwable {
+        MethodHandle setter = LOOKUP.findVirtual(type, setter(property), MethodType.methodType(void.class, propertyType));
+        CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept",
+                MethodType.methodType(BiConsumer.class),
+                MethodType.methodType(void.class, Object.class, Object.class),
+                setter,
+                MethodType.methodType(void.class, type, wrap(propertyType)));
+        return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+    }
+
+    private static String getter(String property) {
+        return "get" + Character.toUpperCase(property.charAt(0)) + property.substring(1);
+    }
+
+    private static String setter(String property) {
+        return "set" + Character.toUpperCase(property.charAt(0)) + property.substring(1);
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        return type == int.class ? Integer.class : type;
+    }
+}
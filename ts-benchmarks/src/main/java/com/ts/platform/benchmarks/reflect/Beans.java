@@ -0,0 +1,62 @@
+package com.ts.platform.benchmarks.reflect;
+
+/**
+ * the beans whose properties are accessed by the benchmarks. four types of the same shape, so that a call site fed with
+ * all of them is megamorphic, see {@link MegamorphicAccessBenchmark}
+ */
+public final class Beans {
+
+    private Beans() {
+    }
+
+    public interface Named {
+        String getName();
+
+        void setName(String name);
+    }
+
+    public static class Bean0 implements Named {
+        private int id;
+        private String name = "bean0";
+
+        public int getId() { return id; }
+        public void setId(int id) { this.id = id; }
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+    }
+
+    public static class Bean1 implements Named {
+        private int id;
+        private String name = "bean1";
+
+        public int getId() { return id; }
+        public void setId(int id) { this.id = id; }
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+    }
+
+    public static class Bean2 implements Named {
+        private int id;
+        private String name = "bean2";
+
+        public int getId() { return id; }
+        public void setId(int id) { this.id = id; }
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+    }
+
+    public static class Bean3 implements Named {
+        private int id;
+        private String name = "bean3";
+
+        public int getId() { return id; }
+        public void setId(int id) { this.id = id; }
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+    }
+
+    /** one instance of each bean type */
+    public static Object[] newBeans() {
+        return new Object[] {new Bean0(), new Bean1(), new Bean2(), new Bean3()};
+    }
+}
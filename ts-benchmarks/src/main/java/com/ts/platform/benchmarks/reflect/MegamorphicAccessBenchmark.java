@@ -0,0 +1,173 @@
+package com.ts.platform.benchmarks.reflect;
+
+import com.ts.platform.benchmarks.reflect.Beans.Named;
+import com.ts.platform.utils.reflect.TSLField;
+import com.ts.platform.utils.reflect.TSLMethod;
+import com.ts.platform.utils.reflect.TSLObjectProxy;
+import com.ts.platform.utils.reflect.TSLObjectProxyProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * the get and set of the same property of four bean types through each access path of {@link PropertyAccessBenchmark},
+ * each path used for the four types at a single call site, which is then megamorphic, as in a framework handling
+ * many entity types. the direct baseline is an interface call. scores are per access
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-opens=java.base/java.lang=ALL-UNNAMED")
+@State(Scope.Thread)
+public class MegamorphicAccessBenchmark {
+    private static final int TYPES = 4;
+
+    private Object[] beans;
+    private String value;
+    private TSLObjectProxy[] proxies;
+    private TSLField[] fields;
+    private TSLMethod[] getterMethods;
+    private TSLMethod[] setterMethods;
+    private MethodHandle[] getterHandles;
+    private MethodHandle[] setterHandles;
+    private Function<Object, Object>[] getterLambdas;
+    private BiConsumer<Object, Object>[] setterLambdas;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() throws Throwable {
+        beans = Beans.newBeans();
+        value = "value";
+        TSLObjectProxyProvider provider = new TSLObjectProxyProvider();
+        proxies = new TSLObjectProxy[TYPES];
+        fields = new TSLField[TYPES];
+        getterMethods = new TSLMethod[TYPES];
+        setterMethods = new TSLMethod[TYPES];
+        getterHandles = new MethodHandle[TYPES];
+        setterHandles = new MethodHandle[TYPES];
+        getterLambdas = (Function<Object, Object>[]) new Function<?, ?>[TYPES];
+        setterLambdas = (BiConsumer<Object, Object>[]) new BiConsumer<?, ?>[TYPES];
+        for (int i = 0; i < TYPES; i++) {
+            Class<?> type = beans[i].getClass();
+            proxies[i] = provider.getObjectProxy(type);
+            fields[i] = Accessors.field(type, "name");
+            getterMethods[i] = Accessors.getterMethod(type, "name");
+            setterMethods[i] = Accessors.setterMethod(type, "name", String.class);
+            getterHandles[i] = Accessors.getterHandle(type, "name", String.class);
+            setterHandles[i] = Accessors.setterHandle(type, "name", String.class);
+            getterLambdas[i] = Accessors.getterLambda(type, "name", String.class);
+            setterLambdas[i] = Accessors.setterLambda(type, "name", String.class);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TYPES)
+    public void getDirect(Blackhole blackhole) {
+        for (int i = 0; i < TYPES; i++) {
+            blackhole.consume(((Named) beans[i]).getName());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TYPES)
+    public void getProxy(Blackhole blackhole) {
+        for (int i = 0; i < TYPES; i++) {
+            blackhole.consume(proxies[i].getProperty(beans[i], "name"));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TYPES)
+    public void getTSLField(Blackhole blackhole) {
+        for (int i = 0; i < TYPES; i++) {
+            blackhole.consume(fields[i].get(beans[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TYPES)
+    public void getTSLMethod(Blackhole blackhole) {
+        for (int i = 0; i < TYPES; i++) {
+            blackhole.consume(getterMethods[i].invoke(beans[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TYPES)
+    public void getMethodHandle(Blackhole blackhole) throws Throwable {
+        for (int i = 0; i < TYPES; i++) {
+            blackhole.consume((Object) getterHandles[i].invokeExact(beans[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TYPES)
+    public void getLambda(Blackhole blackhole) {
+        for (int i = 0; i < TYPES; i++) {
+            blackhole.consume(getterLambdas[i].apply(beans[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TYPES)
+    public void setDirect() {
+        for (int i = 0; i < TYPES; i++) {
+            ((Named) beans[i]).setName(value);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TYPES)
+    public void setProxy() {
+        for (int i = 0; i < TYPES; i++) {
+            proxies[i].setProperty(beans[i], "name", value);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TYPES)
+    public void setTSLField() {
+        for (int i = 0; i < TYPES; i++) {
+            fields[i].set(beans[i], value);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TYPES)
+    public void setTSLMethod() {
+        for (int i = 0; i < TYPES; i++) {
+            setterMethods[i].invoke(beans[i], value);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TYPES)
+    public void setMethodHandle() throws Throwable {
+        for (int i = 0; i < TYPES; i++) {
+            setterHandles[i].invokeExact(beans[i], (Object) value);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TYPES)
+    public void setLambda() {
+        for (int i = 0; i < TYPES; i++) {
+            setterLambdas[i].accept(beans[i], value);
+        }
+    }
+}
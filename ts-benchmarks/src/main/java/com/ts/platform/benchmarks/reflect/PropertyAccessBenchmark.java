@@ -0,0 +1,192 @@
+package com.ts.platform.benchmarks.reflect;
+
+import com.ts.platform.benchmarks.reflect.Beans.Bean0;
+import com.ts.platform.utils.reflect.TSLField;
+import com.ts.platform.utils.reflect.TSLGetterBuilder;
+import com.ts.platform.utils.reflect.TSLMethod;
+import com.ts.platform.utils.reflect.TSLObjectProxy;
+import com.ts.platform.utils.reflect.TSLObjectProxyProvider;
+import com.ts.platform.utils.reflect.TSLSetterBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * the get and set of a bean property through each access path, at a monomorphic call site, a single bean type:
+ * <ul>
+ *     <li>direct calls of the getter and setter, the baseline</li>
+ *     <li>{@link TSLObjectProxy#getProperty} and {@link TSLObjectProxy#setProperty}, a map lookup and a lambda accessor,
+ *     or a javassist accessor with {@code new TSLObjectProxyProvider(false)}</li>
+ *     <li>the javassist accessors of {@link TSLGetterBuilder} and {@link TSLSetterBuilder} on their own</li>
+ *     <li>{@link TSLField} get and set, and {@link TSLMethod} invoke of the getter and setter, plain reflection</li>
+ *     <li>method handles adapted to {@code Object}, held in a field as a framework would, and a constant one</li>
+ *     <li>{@link java.lang.invoke.LambdaMetafactory} functions</li>
+ * </ul>
+ * the {@code int} property, out of the range of the cached boxes, shows the boxing of the {@code Object} based paths.
+ * the generated accessors are defined with {@code ClassLoader.defineClass}, hence the forks open {@code java.lang}.
+ * run with {@link com.ts.platform.benchmarks.BenchmarkRunner} for the allocation per call
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-opens=java.base/java.lang=ALL-UNNAMED")
+@State(Scope.Thread)
+public class PropertyAccessBenchmark {
+    private static final MethodHandle CONSTANT_GETTER;
+
+    static {
+        try {
+            CONSTANT_GETTER = Accessors.getterHandle(Bean0.class, "name", String.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private Bean0 bean;
+    private String value;
+    private int intValue;
+    private TSLObjectProxy proxy;
+    private TSLObjectProxy javassistProxy;
+    private Function<Object, Object> generatedGetter;
+    private BiConsumer<Object, Object> generatedSetter;
+    private TSLField field;
+    private TSLMethod getterMethod;
+    private TSLMethod setterMethod;
+    private MethodHandle getterHandle;
+    private MethodHandle setterHandle;
+    private Function<Object, Object> getterLambda;
+    private BiConsumer<Object, Object> setterLambda;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() throws Throwable {
+        bean = new Bean0();
+        value = "value";
+        intValue = 100000;
+        bean.setId(intValue);
+        proxy = new TSLObjectProxyProvider().getObjectProxy(Bean0.class);
+        javassistProxy = new TSLObjectProxyProvider(false).getObjectProxy(Bean0.class);
+        field = Accessors.field(Bean0.class, "name");
+        generatedGetter = new TSLGetterBuilder().field(field).build();
+        generatedSetter = new TSLSetterBuilder().field(field).build();
+        getterMethod = Accessors.getterMethod(Bean0.class, "name");
+        setterMethod = Accessors.setterMethod(Bean0.class, "name", String.class);
+        getterHandle = Accessors.getterHandle(Bean0.class, "name", String.class);
+        setterHandle = Accessors.setterHandle(Bean0.class, "name", String.class);
+        getterLambda = Accessors.getterLambda(Bean0.class, "name", String.class);
+        setterLambda = Accessors.setterLambda(Bean0.class, "name", String.class);
+    }
+
+    @Benchmark
+    public Object getDirect() {
+        return bean.getName();
+    }
+
+    @Benchmark
+    public Object getProxy() {
+        return proxy.getProperty(bean, "name");
+    }
+
+    @Benchmark
+    public Object getJavassistProxy() {
+        return javassistProxy.getProperty(bean, "name");
+    }
+
+    @Benchmark
+    public Object getGenerated() {
+        return generatedGetter.apply(bean);
+    }
+
+    @Benchmark
+    public Object getTSLField() {
+        return field.get(bean);
+    }
+
+    @Benchmark
+    public Object getTSLMethod() {
+        return getterMethod.invoke(bean);
+    }
+
+    @Benchmark
+    public Object getMethodHandle() throws Throwable {
+        return (Object) getterHandle.invokeExact((Object) bean);
+    }
+
+    @Benchmark
+    public Object getConstantMethodHandle() throws Throwable {
+        return (Object) CONSTANT_GETTER.invokeExact((Object) bean);
+    }
+
+    @Benchmark
+    public Object getLambda() {
+        return getterLambda.apply(bean);
+    }
+
+    @Benchmark
+    public int getIntDirect() {
+        return bean.getId();
+    }
+
+    @Benchmark
+    public Object getIntProxy() {
+        return proxy.getProperty(bean, "id");
+    }
+
+    @Benchmark
+    public void setDirect() {
+        bean.setName(value);
+    }
+
+    @Benchmark
+    public void setProxy() {
+        proxy.setProperty(bean, "name", value);
+    }
+
+    @Benchmark
+    public void setJavassistProxy() {
+        javassistProxy.setProperty(bean, "name", value);
+    }
+
+    @Benchmark
+    public void setGenerated() {
+        generatedSetter.accept(bean, value);
+    }
+
+    @Benchmark
+    public void setTSLField() {
+        field.set(bean, value);
+    }
+
+    @Benchmark
+    public void setTSLMethod() {
+        setterMethod.invoke(bean, value);
+    }
+
+    @Benchmark
+    public void setMethodHandle() throws Throwable {
+        setterHandle.invokeExact((Object) bean, (Object) value);
+    }
+
+    @Benchmark
+    public void setLambda() {
+        setterLambda.accept(bean, value);
+    }
+
+    @Benchmark
+    public void setIntProxy() {
+        proxy.setProperty(bean, "id", intValue);
+    }
+}
@@ -0,0 +1,83 @@
+package com.ts.platform.benchmarks.reflection;
+
+import com.ts.platform.reflection.Reflections;
+import com.ts.platform.reflection.scanners.FieldAnnotationsScanner;
+import com.ts.platform.reflection.scanners.MemberUsageScanner;
+import com.ts.platform.reflection.scanners.MethodAnnotationsScanner;
+import com.ts.platform.reflection.scanners.MethodParameterNamesScanner;
+import com.ts.platform.reflection.scanners.MethodParameterScanner;
+import com.ts.platform.reflection.scanners.ResourcesScanner;
+import com.ts.platform.reflection.scanners.SubTypesScanner;
+import com.ts.platform.reflection.scanners.TypeAnnotationsScanner;
+import com.ts.platform.reflection.scanners.TypeElementsScanner;
+import com.ts.platform.reflection.util.ConfigurationBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * the construction of {@link Reflections} over a {@link SyntheticClasspath}, with the default scanners, with every scanner,
+ * and with every scanner on the parallel executor, on virtual threads and with interned names
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReflectionsBenchmark {
+
+    @Param({"100", "1000", "5000"})
+    public int classes;
+
+    private URL url;
+
+    @Setup
+    public void setup() {
+        Reflections.log = null;
+        url = SyntheticClasspath.url(classes);
+    }
+
+    @Benchmark
+    public Reflections defaultScanners() {
+        return new Reflections(new ConfigurationBuilder().setUrls(url));
+    }
+
+    @Benchmark
+    public Reflections allScanners() {
+        return new Reflections(allScanners(new ConfigurationBuilder().setUrls(url)));
+    }
+
+    @Benchmark
+    public Reflections allScannersParallel() {
+        return new Reflections(allScanners(new ConfigurationBuilder().setUrls(url)).useParallelExecutor());
+    }
+
+    @Benchmark
+    public Reflections allScannersVirtualThreads() {
+        return new Reflections(allScanners(new ConfigurationBuilder().setUrls(url)).useVirtualThreads());
+    }
+
+    @Benchmark
+    public Reflections allScannersInterned() {
+        return new Reflections(allScanners(new ConfigurationBuilder().setUrls(url)).setInternNames(true));
+    }
+
+    static ConfigurationBuilder allScanners(ConfigurationBuilder configuration) {
+        return configuration.setScanners(
+                new SubTypesScanner(), new TypeAnnotationsScanner(), new MethodAnnotationsScanner(),
+                new FieldAnnotationsScanner(), new MethodParameterScanner(), new MethodParameterNamesScanner(),
+                new MemberUsageScanner(), new TypeElementsScanner(), new ResourcesScanner());
+    }
+}
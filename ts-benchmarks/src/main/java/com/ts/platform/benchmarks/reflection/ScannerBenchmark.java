@@ -0,0 +1,67 @@
+package com.ts.platform.benchmarks.reflection;
+
+import com.ts.platform.reflection.Reflections;
+import com.ts.platform.reflection.ReflectionsException;
+import com.ts.platform.reflection.scanners.Scanner;
+import com.ts.platform.reflection.util.ConfigurationBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * each scanner in isolation over a {@link SyntheticClasspath}, without expanding super types.
+ * the reading of the jar and of the class files is part of each run, as it is of a real scan
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScannerBenchmark {
+
+    @Param({"1000"})
+    public int classes;
+
+    @Param({"SubTypesScanner", "TypeAnnotationsScanner", "MethodAnnotationsScanner", "FieldAnnotationsScanner",
+            "MethodParameterScanner", "MethodParameterNamesScanner", "MemberUsageScanner", "TypeElementsScanner",
+            "ResourcesScanner"})
+    public String scanner;
+
+    private URL url;
+    private Class<? extends Scanner> scannerClass;
+
+    @Setup
+    public void setup() throws ClassNotFoundException {
+        Reflections.log = null;
+        url = SyntheticClasspath.url(classes);
+        scannerClass = Class.forName("com.ts.platform.reflection.scanners." + scanner).asSubclass(Scanner.class);
+    }
+
+    @Benchmark
+    public Reflections scan() {
+        return new Reflections(new ConfigurationBuilder()
+                .setUrls(url)
+                .setScanners(newScanner())
+                .setExpandSuperTypes(false));
+    }
+
+    private Scanner newScanner() {
+        try {
+            return scannerClass.getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new ReflectionsException("could not create " + scanner, e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.ts.platform.benchmarks.reflection;
+
+import com.ts.platform.reflection.Reflections;
+import com.ts.platform.reflection.ReflectionsException;
+import com.ts.platform.reflection.serializers.BinarySerializer;
+import com.ts.platform.reflection.serializers.JavaCodeSerializer;
+import com.ts.platform.reflection.serializers.JsonSerializer;
+import com.ts.platform.reflection.serializers.Serializer;
+import com.ts.platform.reflection.serializers.XmlSerializer;
+import com.ts.platform.reflection.util.ConfigurationBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * the write and read of each {@link Serializer}, in memory, of the store of a {@link SyntheticClasspath} scanned with
+ * every scanner. {@link JavaCodeSerializer} only writes, it has a benchmark of its own
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SerializerBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Serialized {
+        @Param({"1000"})
+        public int classes;
+
+        @Param({"xml", "json", "binary"})
+        public String serializer;
+
+        private Serializer instance;
+        private Reflections reflections;
+        private byte[] bytes;
+
+        @Setup
+        public void setup() {
+            Reflections.log = null;
+            if (serializer.equals("xml")) {
+                instance = new XmlSerializer();
+            } else if (serializer.equals("json")) {
+                instance = new JsonSerializer();
+            } else {
+                instance = new BinarySerializer();
+            }
+            reflections = scan(classes);
+            bytes = new SerializerBenchmark().write(this);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class JavaCode {
+        @Param({"1000"})
+        public int classes;
+
+        private final JavaCodeSerializer serializer = new JavaCodeSerializer();
+        private Reflections reflections;
+
+        @Setup
+        public void setup() {
+            Reflections.log = null;
+            reflections = scan(classes);
+        }
+    }
+
+    @Benchmark
+    public byte[] write(Serialized state) {
+        if (state.instance instanceof BinarySerializer) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            try {
+                ((BinarySerializer) state.instance).write(state.reflections, outputStream);
+            } catch (IOException e) {
+                throw new ReflectionsException("could not serialize", e);
+            }
+            return outputStream.toByteArray();
+        }
+        return state.instance.toString(state.reflections).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Reflections read(Serialized state) {
+        return state.instance.read(new ByteArrayInputStream(state.bytes));
+    }
+
+    @Benchmark
+    public String writeJavaCode(JavaCode state) {
+        return state.serializer.toString(state.reflections);
+    }
+
+    private static Reflections scan(int classes) {
+        return new Reflections(ReflectionsBenchmark.allScanners(new ConfigurationBuilder()
+                .setUrls(SyntheticClasspath.url(classes))));
+    }
+}
@@ -0,0 +1,92 @@
+package com.ts.platform.benchmarks.reflection;
+
+import com.ts.platform.reflection.Reflections;
+import com.ts.platform.reflection.Store;
+import com.ts.platform.reflection.scanners.SubTypesScanner;
+import com.ts.platform.reflection.scanners.TypeAnnotationsScanner;
+import com.ts.platform.reflection.util.ConfigurationBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.ts.platform.reflection.util.Utils.index;
+
+/**
+ * {@link Store#getAll} queries over the store of a {@link SyntheticClasspath}: the sub types of {@code java.io.Serializable},
+ * which are all the generated types, memoized or computed again, the sub types of each generated interface at once,
+ * and the direct lookup of the types annotated with a generated annotation
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StoreBenchmark {
+
+    @Param({"1000", "5000"})
+    public int classes;
+
+    @Param({"false", "true"})
+    public boolean internNames;
+
+    private Store store;
+    private List<String> interfaces;
+    private String subTypes;
+    private String typeAnnotations;
+
+    @Setup
+    public void setup() {
+        Reflections.log = null;
+        store = new Reflections(new ConfigurationBuilder()
+                .setUrls(SyntheticClasspath.url(classes))
+                .setScanners(new SubTypesScanner(), new TypeAnnotationsScanner())
+                .setInternNames(internNames)).getStore();
+        interfaces = new ArrayList<String>();
+        for (int i = 0; i < SyntheticClasspath.INTERFACES; i++) {
+            interfaces.add(SyntheticClasspath.PACKAGE + ".AutoGenContract" + i);
+        }
+        subTypes = index(SubTypesScanner.class);
+        typeAnnotations = index(TypeAnnotationsScanner.class);
+    }
+
+    @Benchmark
+    public void getAllMemoized(Blackhole blackhole) {
+        consume(store.getAll(subTypes, "java.io.Serializable"), blackhole);
+    }
+
+    @Benchmark
+    public void getAllComputed(Blackhole blackhole) {
+        store.invalidate();
+        consume(store.getAll(subTypes, "java.io.Serializable"), blackhole);
+    }
+
+    @Benchmark
+    public void getAllOfKeys(Blackhole blackhole) {
+        consume(store.getAll(subTypes, interfaces), blackhole);
+    }
+
+    @Benchmark
+    public void get(Blackhole blackhole) {
+        consume(store.get(typeAnnotations, SyntheticClasspath.PACKAGE + ".AutoGenMarker0"), blackhole);
+    }
+
+    private static void consume(Iterable<String> values, Blackhole blackhole) {
+        for (String value : values) {
+            blackhole.consume(value);
+        }
+    }
+}
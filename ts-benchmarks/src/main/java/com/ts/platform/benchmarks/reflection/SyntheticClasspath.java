@@ -0,0 +1,181 @@
+package com.ts.platform.benchmarks.reflection;
+
+import com.ts.platform.reflection.ReflectionsException;
+import javassist.CannotCompileException;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.CtMethod;
+import javassist.CtNewConstructor;
+import javassist.CtNewMethod;
+import javassist.NotFoundException;
+import javassist.bytecode.AnnotationsAttribute;
+import javassist.bytecode.ConstPool;
+import javassist.bytecode.annotation.Annotation;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Random;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+/**
+ * jars of generated classes shaped like the {@code com.ts.platform.generated.AutoGen*} classes, a default constructor,
+ * a {@code GENERATED_AT} constant and numbered methods doing some arithmetic, to scan at a given size.
+ * <p>unlike those, the generated classes also have something for every scanner to index:
+ * <ul>
+ *     <li>they extend each other in chains of {@value #DEPTH} and implement one of {@value #INTERFACES} interfaces</li>
+ *     <li>types, fields and methods are annotated with some of {@value #ANNOTATIONS} annotations</li>
+ *     <li>methods take parameters and call the methods of the previous class</li>
+ *     <li>a properties resource comes with every tenth class</li>
+ * </ul>
+ * the classes are spread over {@value #PACKAGES} packages. a jar is generated once per size, the same for a given size,
+ * and kept in {@code java.io.tmpdir/ts-benchmarks}.
+ */
+public final class SyntheticClasspath {
+    public static final String PACKAGE = "com.ts.platform.generated";
+    public static final int PACKAGES = 10;
+    public static final int DEPTH = 4;
+    public static final int INTERFACES = 16;
+    public static final int ANNOTATIONS = 8;
+    public static final int METHODS = 12;
+    public static final int FIELDS = 4;
+
+    private SyntheticClasspath() {
+    }
+
+    /** the url of the jar of the given number of generated classes */
+    public static URL url(int classes) {
+        try {
+            return jar(classes).toURI().toURL();
+        } catch (MalformedURLException e) {
+            throw new ReflectionsException("could not get url of synthetic classpath", e);
+        }
+    }
+
+    /** the jar of the given number of generated classes, generated if missing */
+    public static synchronized File jar(int classes) {
+        File directory = new File(System.getProperty("java.io.tmpdir"), "ts-benchmarks");
+        File jar = new File(directory, "autogen-" + classes + ".jar");
+        if (jar.isFile()) {
+            return jar;
+        }
+        File temp = null;
+        try {
+            //noinspection ResultOfMethodCallIgnored
+            directory.mkdirs();
+            temp = Files.createTempFile(directory.toPath(), "autogen-" + classes, ".tmp").toFile();
+            OutputStream outputStream = new FileOutputStream(temp);
+            try {
+                write(classes, outputStream);
+            } finally {
+                outputStream.close();
+            }
+            try {
+                Files.move(temp.toPath(), jar.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), jar.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            return jar;
+        } catch (Exception e) {
+            if (temp != null) {
+                //noinspection ResultOfMethodCallIgnored
+                temp.delete();
+            }
+            throw new ReflectionsException("could not generate synthetic classpath of " + classes + " classes", e);
+        }
+    }
+
+    /** writes a jar of the given number of generated classes, along with their interfaces and annotations */
+    public static void write(int classes, OutputStream outputStream) throws IOException, CannotCompileException, NotFoundException {
+        ClassPool pool = new ClassPool(true);
+        Random random = new Random(classes);
+        JarOutputStream jar = new JarOutputStream(outputStream);
+
+        String[] annotations = new String[ANNOTATIONS];
+        for (int i = 0; i < ANNOTATIONS; i++) {
+            annotations[i] = PACKAGE + ".AutoGenMarker" + i;
+            write(jar, pool.makeAnnotation(annotations[i]));
+        }
+        CtClass[] interfaces = new CtClass[INTERFACES];
+        for (int i = 0; i < INTERFACES; i++) {
+            interfaces[i] = pool.makeInterface(PACKAGE + ".AutoGenContract" + i, pool.get("java.io.Serializable"));
+            write(jar, interfaces[i]);
+        }
+
+        CtClass previous = null;
+        for (int i = 0; i < classes; i++) {
+            String name = PACKAGE + ".p" + (i % PACKAGES) + ".AutoGen" + String.format("%06d", i) + "_" + suffix(random);
+            CtClass superclass = i % DEPTH == 0 ? null : previous;
+            CtClass cls = pool.makeClass(name, superclass);
+            cls.addInterface(interfaces[i % INTERFACES]);
+            ConstPool constPool = cls.getClassFile().getConstPool();
+            if (i % 2 == 0) {
+                cls.getClassFile().addAttribute(annotation(constPool, annotations[i % ANNOTATIONS]));
+            }
+
+            cls.addField(CtField.make("private static final long GENERATED_AT = " + (1761709972140L + i) + "L;", cls));
+            for (int f = 0; f < FIELDS; f++) {
+                CtField field = CtField.make("protected int field_" + f + ";", cls);
+                if (f == 0) {
+                    field.getFieldInfo().addAttribute(annotation(constPool, annotations[(i + f) % ANNOTATIONS]));
+                }
+                cls.addField(field);
+            }
+            cls.addConstructor(CtNewConstructor.defaultConstructor(cls));
+
+            for (int m = 1; m <= METHODS; m++) {
+                StringBuilder body = new StringBuilder()
+                        .append("public int method_").append(m).append("(int a, String s) {\n")
+                        .append("    int v = a * ").append(m).append(" % 9973 + field_").append(m % FIELDS).append(";\n");
+                if (previous != null && m % 3 == 0) {
+                    body.append("    v += new ").append(previous.getName()).append("().method_").append(m).append("(v, s);\n");
+                }
+                body.append("    return v + s.length();\n}");
+                CtMethod method = CtNewMethod.make(body.toString(), cls);
+                if (m % 3 == 1) {
+                    method.getMethodInfo().addAttribute(annotation(constPool, annotations[(i + m) % ANNOTATIONS]));
+                }
+                cls.addMethod(method);
+            }
+            write(jar, cls);
+
+            if (i % 10 == 0) {
+                jar.putNextEntry(new JarEntry(name.substring(0, name.lastIndexOf('.')).replace('.', '/') + "/autogen-" + i + ".properties"));
+                jar.write(("generated.at=" + (1761709972140L + i) + "\n").getBytes(StandardCharsets.UTF_8));
+                jar.closeEntry();
+            }
+            previous = cls;
+        }
+        jar.finish();
+    }
+
+    private static void write(JarOutputStream jar, CtClass cls) throws IOException, CannotCompileException {
+        jar.putNextEntry(new JarEntry(cls.getName().replace('.', '/') + ".class"));
+        jar.write(cls.toBytecode());
+        jar.closeEntry();
+    }
+
+    private static AnnotationsAttribute annotation(ConstPool constPool, String annotation) {
+        AnnotationsAttribute attribute = new AnnotationsAttribute(constPool, AnnotationsAttribute.visibleTag);
+        attribute.addAnnotation(new Annotation(annotation, constPool));
+        return attribute;
+    }
+
+    private static String suffix(Random random) {
+        String chars = "abcdefghijklmnopqrstuvwxyz0123456789";
+        char[] suffix = new char[4];
+        for (int i = 0; i < suffix.length; i++) {
+            suffix[i] = chars.charAt(random.nextInt(chars.length()));
+        }
+        return new String(suffix);
+    }
+}
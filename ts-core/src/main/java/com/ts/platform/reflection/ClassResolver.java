@@ -0,0 +1,140 @@
+package com.ts.platform.reflection;
+
+import com.ts.platform.reflection.jfr.ForNameMissEvent;
+import com.ts.platform.reflection.util.ClasspathHelper;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * resolves type names to classes like {@link ReflectionUtils#forName(String, ClassLoader...)}, remembering both
+ * the classes found and the names no class loader has.
+ * <p>each {@link Reflections} has its own resolver, see {@link Reflections#getClassResolver()}.
+ * results are cached per effective set of class loaders, so with no class loaders configured a change of the
+ * context class loader gets a cache of its own. only the {@value #MAX_LOADER_SETS} most recently used sets of
+ * class loaders keep their cache, older ones are dropped together with the classes they hold. failures of loaders tried before the one that has the class are
+ * not wrapped nor logged, a name no loader has is logged once.
+ * <p>members not found on a class by {@link com.ts.platform.reflection.util.Utils#getMemberFromDescriptor(String, ClassResolver)}
+ * are remembered here as well, as whether a member resolves depends on the class loaders of its parameter types.
+ */
+public class ClassResolver {
+    static final int MAX_LOADER_SETS = 8;
+    private static final Object MISSING = new Object();
+
+    @Nullable private final ClassLoader[] classLoaders;
+    private final ConcurrentMap<String, Object> cache; //for configured class loaders
+    private final Map<List<ClassLoader>, ConcurrentMap<String, Object>> caches; //guarded by itself, in access order
+    private final ConcurrentMap<Class<?>, Set<String>> missingMembers = new ConcurrentHashMap<Class<?>, Set<String>>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ClassResolver(@Nullable ClassLoader... classLoaders) {
+        boolean configured = classLoaders != null && classLoaders.length != 0;
+        this.classLoaders = configured ? classLoaders.clone() : null;
+        this.cache = configured ? new ConcurrentHashMap<String, Object>() : null;
+        this.caches = configured ? null : new LinkedHashMap<List<ClassLoader>, ConcurrentMap<String, Object>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<ClassLoader>, ConcurrentMap<String, Object>> eldest) {
+                return size() > MAX_LOADER_SETS;
+            }
+        };
+    }
+
+    /** returns the class of the given name, or null if none of the class loaders has it */
+    public Class<?> forName(String typeName) {
+        ClassLoader[] loaders = ClasspathHelper.classLoaders(classLoaders);
+        ConcurrentMap<String, Object> cache = cacheOf(loaders);
+        Object cached = cache.get(typeName);
+        if (cached != null) {
+            hits.increment();
+            return cached != MISSING ? (Class<?>) cached : null;
+        }
+        misses.increment();
+        ForNameMissEvent event = new ForNameMissEvent();
+        event.begin();
+        List<Throwable> failures = Reflections.log != null ? new ArrayList<Throwable>() : null;
+        Class<?> type = ReflectionUtils.loadClass(typeName, loaders, failures);
+        event.complete(typeName, loaders.length, type == null);
+        if (type == null && failures != null && !failures.isEmpty()) {
+            Reflections.log.warn("could not get type for name {} from any class loader", typeName,
+                    new ReflectionsException("could not get type for name " + typeName, failures.get(failures.size() - 1)));
+        }
+        cache.put(typeName, type != null ? type : MISSING);
+        return type;
+    }
+
+    /** resolves all given names, skipping the ones not found */
+    @SuppressWarnings("unchecked")
+    public <T> List<Class<? extends T>> forNames(Iterable<String> typeNames) {
+        List<Class<? extends T>> result = new ArrayList<Class<? extends T>>();
+        for (String typeName : typeNames) {
+            Class<?> type = forName(typeName);
+            if (type != null) {
+                result.add((Class<? extends T>) type);
+            }
+        }
+        return result;
+    }
+
+    /** whether the member of the given descriptor was looked for on the given class before and not found */
+    public boolean isMissingMember(Class<?> type, String descriptor) {
+        Set<String> missing = missingMembers.get(type);
+        return missing != null && missing.contains(descriptor);
+    }
+
+    /** remembers that the member of the given descriptor is not on the given class, until {@link #clear()} */
+    public void addMissingMember(Class<?> type, String descriptor) {
+        Set<String> missing = missingMembers.get(type);
+        if (missing == null) {
+            missing = ConcurrentHashMap.newKeySet();
+            Set<String> existing = missingMembers.putIfAbsent(type, missing);
+            if (existing != null) missing = existing;
+        }
+        missing.add(descriptor);
+    }
+
+    /** the number of lookups answered from the cache, found or not */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /** the number of lookups that went to the class loaders */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /** forgets all resolved and missing names and members, for example after the classpath changed */
+    public void clear() {
+        missingMembers.clear();
+        if (cache != null) {
+            cache.clear();
+        } else {
+            synchronized (caches) {
+                caches.clear();
+            }
+        }
+    }
+
+    private ConcurrentMap<String, Object> cacheOf(ClassLoader[] loaders) {
+        if (cache != null) {
+            return cache;
+        }
+        List<ClassLoader> key = Arrays.asList(loaders);
+        synchronized (caches) {
+            ConcurrentMap<String, Object> result = caches.get(key);
+            if (result == null) {
+                result = new ConcurrentHashMap<String, Object>();
+                caches.put(key, result);
+            }
+            return result;
+        }
+    }
+}
@@ -7,12 +7,19 @@ import com.ts.platform.reflection.scanners.Scanner;
 import com.ts.platform.reflection.serializers.Serializer;
 
 
+import javax.annotation.Nullable;
 import java.net.URL;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Predicate;
 
 
+/**
+ * the configuration of a {@link Reflections}, see {@link com.ts.platform.reflection.util.ConfigurationBuilder}.
+ * the settings added after the first ones have defaults, so that other implementations keep their behavior
+ */
 public interface Configuration {
     Set<Scanner> getScanners();
 
@@ -25,10 +32,53 @@ public interface Configuration {
 
     ExecutorService getExecutorService();
 
+    /** whether to shut down the executor service once the scan is done, true by default */
+    default boolean shouldShutdownExecutorService() {
+        return true;
+    }
+
+    default boolean shouldUseVirtualThreads() {
+        return false;
+    }
+
     Serializer getSerializer();
 
 
     ClassLoader[] getClassLoaders();
 
     boolean shouldExpandSuperTypes();
+
+    /** the cache of scanned urls, or null if none */
+    @Nullable
+    default ScanIndexCache getScanIndexCache() {
+        return null;
+    }
+
+    default boolean shouldInternNames() {
+        return false;
+    }
+
+    default boolean shouldShardStores() {
+        return false;
+    }
+
+    default boolean shouldTrackUrls() {
+        return false;
+    }
+
+    default boolean shouldSketchUrls() {
+        return false;
+    }
+
+    default boolean shouldWatchDirectories() {
+        return false;
+    }
+
+    default long getWatchDebounceMillis() {
+        return DirectoryWatcher.DEFAULT_DEBOUNCE_MILLIS;
+    }
+
+    default List<ScanListener> getScanListeners() {
+        return Collections.emptyList();
+    }
 }
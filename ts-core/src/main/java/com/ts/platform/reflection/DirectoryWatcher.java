@@ -0,0 +1,229 @@
+package com.ts.platform.reflection;
+
+import com.ts.platform.reflection.vfs.Vfs;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * watches the scanned directories of a {@link Reflections} instance, and rescans the files of a directory that changed.
+ * <p>every directory of the tree is registered with a {@link WatchService}, new sub directories as they are created.
+ * events are collected until no event came for the debounce period, then the changed and removed files of each root
+ * directory are passed to {@link Reflections#rescanFiles(URL, Collection, Collection)} on the watcher thread. a root
+ * directory which is gone is passed to {@link Reflections#rescan(Collection, Collection)} as removed, and one whose events
+ * overflowed as changed. queries keep reading the previous store until the rescan publishes the new one.
+ * <p>started by {@link Reflections} when {@link com.ts.platform.reflection.util.ConfigurationBuilder#setWatchDirectories(boolean)}
+ * is set, stopped by {@link Reflections#stopWatching()}.
+ */
+public class DirectoryWatcher {
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 200;
+
+    private final Reflections reflections;
+    private final long debounceMillis;
+    private final WatchService watchService;
+    private final Map<WatchKey, URL> roots = new ConcurrentHashMap<WatchKey, URL>();
+    private final Map<URL, Path> rootPaths = new ConcurrentHashMap<URL, Path>();
+    private final AtomicLong updates = new AtomicLong();
+    private Thread thread;
+
+    private DirectoryWatcher(Reflections reflections, long debounceMillis) throws IOException {
+        this.reflections = reflections;
+        this.debounceMillis = debounceMillis;
+        this.watchService = FileSystems.getDefault().newWatchService();
+    }
+
+    /** watches the directories among the given urls, returns null if there is none */
+    public static DirectoryWatcher start(Reflections reflections, Collection<URL> urls, long debounceMillis) {
+        try {
+            final DirectoryWatcher watcher = new DirectoryWatcher(reflections, debounceMillis);
+            for (URL url : urls) {
+                File file = Vfs.getFile(url);
+                if (file != null && file.isDirectory()) {
+                    watcher.rootPaths.put(url, file.toPath());
+                    watcher.register(file.toPath(), url, null);
+                }
+            }
+            if (watcher.roots.isEmpty()) {
+                watcher.watchService.close();
+                return null;
+            }
+            watcher.thread = new Thread(new Runnable() {
+                public void run() {
+                    watcher.watch();
+                }
+            }, "reflections-watcher");
+            watcher.thread.setDaemon(true);
+            watcher.thread.start();
+            return watcher;
+        } catch (IOException e) {
+            throw new ReflectionsException("could not watch scanned directories", e);
+        }
+    }
+
+    /** the number of rescans applied so far */
+    public long getUpdates() {
+        return updates.get();
+    }
+
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            if (Reflections.log != null) {
+                Reflections.log.warn("could not close watch service", e);
+            }
+        }
+    }
+
+    /** registers the given directory and its sub directories, adding their files to {@code changes} if given */
+    private void register(Path directory, final URL root, @Nullable final Changes changes) throws IOException {
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) throws IOException {
+                roots.put(dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY), root);
+                return FileVisitResult.CONTINUE;
+            }
+
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                if (changes != null && attributes.isRegularFile()) {
+                    changes.changed(relativePath(root, file));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                Map<URL, Changes> changes = new LinkedHashMap<URL, Changes>();
+                collect(watchService.take(), changes);
+                WatchKey key;
+                while ((key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    collect(key, changes);
+                }
+                apply(changes);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            //closed
+        }
+    }
+
+    private void collect(WatchKey key, Map<URL, Changes> changes) {
+        URL root = roots.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (root == null) continue;
+            Changes rootChanges = changes.get(root);
+            if (rootChanges == null) {
+                rootChanges = new Changes();
+                changes.put(root, rootChanges);
+            }
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                rootChanges.overflow = true;
+                continue;
+            }
+            Path path = ((Path) key.watchable()).resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                rootChanges.removed(relativePath(root, path));
+            } else if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                    try {
+                        //files created before the directory was registered have no event of their own
+                        register(path, root, rootChanges);
+                    } catch (IOException e) {
+                        if (Reflections.log != null) {
+                            Reflections.log.debug("could not watch directory {}", path, e);
+                        }
+                    }
+                }
+            } else {
+                rootChanges.changed(relativePath(root, path));
+            }
+        }
+        if (!key.reset()) {
+            roots.remove(key);
+        }
+    }
+
+    private String relativePath(URL root, Path path) {
+        return rootPaths.get(root).relativize(path).toString().replace(File.separatorChar, '/');
+    }
+
+    private void apply(Map<URL, Changes> changes) {
+        Set<URL> changed = new LinkedHashSet<URL>();
+        Set<URL> removed = new LinkedHashSet<URL>();
+        for (Map.Entry<URL, Changes> entry : changes.entrySet()) {
+            URL root = entry.getKey();
+            Changes rootChanges = entry.getValue();
+            File file = Vfs.getFile(root);
+            if (file == null || !file.isDirectory()) {
+                removed.add(root);
+            } else if (rootChanges.overflow) {
+                changed.add(root);
+            } else if (!rootChanges.changed.isEmpty() || !rootChanges.removed.isEmpty()) {
+                try {
+                    reflections.rescanFiles(root, rootChanges.changed, rootChanges.removed);
+                    updates.incrementAndGet();
+                } catch (RuntimeException e) {
+                    if (Reflections.log != null) {
+                        Reflections.log.warn("could not rescan changed files of {}", root, e);
+                    }
+                }
+            }
+        }
+        if (changed.isEmpty() && removed.isEmpty()) return;
+        try {
+            reflections.rescan(changed, removed);
+            updates.incrementAndGet();
+        } catch (RuntimeException e) {
+            if (Reflections.log != null) {
+                Reflections.log.warn("could not rescan changed directories {}", changed, e);
+            }
+        }
+    }
+
+    /** the files of a root directory changed and removed since the last update, by relative path */
+    private static class Changes {
+        private final Set<String> changed = new LinkedHashSet<String>();
+        private final Set<String> removed = new LinkedHashSet<String>();
+        private boolean overflow;
+
+        private void changed(String path) {
+            removed.remove(path);
+            changed.add(path);
+        }
+
+        private void removed(String path) {
+            changed.remove(path);
+            removed.add(path);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.ts.platform.reflection;
+
+import com.ts.platform.reflection.util.IntSetMultimap;
+import com.ts.platform.reflection.util.NameTable;
+import com.ts.platform.reflection.util.SetMultimap;
+import com.ts.platform.reflection.util.StripedSetMultimap;
+
+import java.util.function.Supplier;
+
+/**
+ * a {@link Store} interning every key and value into a {@link NameTable}, with {@link IntSetMultimap} indices.
+ * <p>each class or member name is held once, however many indices refer to it, and the indices hold int ids
+ * instead of strings and hash sets. stores created with the same name table merge by id, without decoding names.
+ * <p>use {@link com.ts.platform.reflection.util.ConfigurationBuilder#setInternNames(boolean)} to have Reflections
+ * scan into an interned store.
+ */
+public class InternedStore extends Store {
+    private static final int STRIPES = 4 * Runtime.getRuntime().availableProcessors();
+
+    private final NameTable names;
+
+    public InternedStore(Configuration configuration) {
+        this(configuration, new NameTable());
+    }
+
+    public InternedStore(Configuration configuration, NameTable names) {
+        super(configuration);
+        this.names = names;
+    }
+
+    public InternedStore(Configuration configuration, NameTable names, boolean concurrent) {
+        super(configuration, concurrent);
+        this.names = names;
+    }
+
+    public NameTable getNames() {
+        return names;
+    }
+
+    @Override
+    protected SetMultimap<String, String> newMultimap() {
+        return new IntSetMultimap(names);
+    }
+
+    /** a striped multimap of {@link IntSetMultimap}s, so that scanner threads putting different keys do not contend */
+    @Override
+    protected SetMultimap<String, String> newConcurrentMultimap() {
+        return new StripedSetMultimap<String, String>(STRIPES, new Supplier<SetMultimap<String, String>>() {
+            public SetMultimap<String, String> get() {
+                return new IntSetMultimap(names);
+            }
+        });
+    }
+
+    @Override
+    protected void merge(String indexName, Store other) {
+        getOrCreate(indexName).putAll(other.get(indexName));
+    }
+}
@@ -0,0 +1,86 @@
+package com.ts.platform.reflection;
+
+import com.ts.platform.reflection.util.ParsedDescriptor;
+import com.ts.platform.reflection.util.Utils;
+
+import java.lang.reflect.Member;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * a scanned method, constructor or field known by its descriptor only, returned by the descriptor queries of {@link Reflections}.
+ * <p>descriptors have the form stored by the scanners, {@code com.acme.Foo.bar(java.lang.String, int)} for methods,
+ * {@code com.acme.Foo.<init>()} for constructors and {@code com.acme.Foo.baz} for fields.
+ * the declaring class is loaded only when {@link #resolve()} is called.
+ */
+public class MemberDescriptor {
+    private final String descriptor;
+    private final Reflections reflections;
+
+    MemberDescriptor(String descriptor, Reflections reflections) {
+        this.descriptor = descriptor;
+        this.reflections = reflections;
+    }
+
+    public String getDescriptor() {
+        return descriptor;
+    }
+
+    public String getDeclaringClassName() {
+        return parsed().getClassName();
+    }
+
+    /** the member name, {@code <init>} for constructors */
+    public String getName() {
+        return parsed().getMemberName();
+    }
+
+    /** the parameter type names, empty for fields */
+    public List<String> getParameterTypeNames() {
+        return parsed().getParameterTypeNames();
+    }
+
+    public boolean isField() {
+        return parsed().getKind() == ParsedDescriptor.Kind.FIELD;
+    }
+
+    public boolean isConstructor() {
+        return parsed().getKind() == ParsedDescriptor.Kind.CONSTRUCTOR;
+    }
+
+    public boolean isMethod() {
+        return parsed().getKind() == ParsedDescriptor.Kind.METHOD;
+    }
+
+    /**
+     * the names of the annotations on this member.
+     * <p>depends on MethodAnnotationsScanner configured for methods and constructors, FieldAnnotationsScanner for fields
+     */
+    public Set<String> getAnnotationNames() {
+        return reflections.getMemberAnnotationNames(this);
+    }
+
+    /** loads the declaring class and returns the {@link java.lang.reflect.Method}, {@link java.lang.reflect.Constructor} or {@link java.lang.reflect.Field} */
+    public Member resolve() {
+        return Utils.getMemberFromDescriptor(descriptor, reflections.getClassResolver());
+    }
+
+    private ParsedDescriptor parsed() {
+        return ParsedDescriptor.parse(descriptor);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof MemberDescriptor && descriptor.equals(((MemberDescriptor) o).descriptor);
+    }
+
+    @Override
+    public int hashCode() {
+        return descriptor.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return descriptor;
+    }
+}
@@ -1,8 +1,10 @@
 package com.ts.platform.reflection;
 
 
+import com.ts.platform.reflection.jfr.ForNameMissEvent;
 import com.ts.platform.reflection.util.*;
 
+import javax.annotation.Nullable;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.*;
 import java.util.*;
@@ -232,48 +234,46 @@ public abstract class ReflectionUtils {
 
 
     public static Class<?> forName(String typeName, ClassLoader... classLoaders) {
-        if (getPrimitiveNames().contains(typeName)) {
-            return getPrimitiveTypes().get(getPrimitiveNames().indexOf(typeName));
-        } else {
-            String type;
-            if (typeName.contains("[")) {
-                int i = typeName.indexOf("[");
-                type = typeName.substring(0, i);
-                String array = typeName.substring(i).replace("]", "");
-
-                if (getPrimitiveNames().contains(type)) {
-                    type = getPrimitiveDescriptors().get(getPrimitiveNames().indexOf(type));
-                } else {
-                    type = "L" + type + ";";
-                }
-
-                type = array + type;
-            } else {
-                type = typeName;
-            }
-
-            List<ReflectionsException> reflectionsExceptions = Lists.newArrayList();
-            for (ClassLoader classLoader : ClasspathHelper.classLoaders(classLoaders)) {
-                if (type.contains("[")) {
-                    try { return Class.forName(type, false, classLoader); }
-                    catch (Throwable e) {
-                        reflectionsExceptions.add(new ReflectionsException("could not get type for name " + typeName, e));
-                    }
-                }
-                try { return classLoader.loadClass(type); }
-                catch (Throwable e) {
-                    reflectionsExceptions.add(new ReflectionsException("could not get type for name " + typeName, e));
-                }
+        ForNameMissEvent event = new ForNameMissEvent();
+        event.begin();
+        List<Throwable> failures = Reflections.log != null ? new ArrayList<Throwable>() : null;
+        ClassLoader[] loaders = ClasspathHelper.classLoaders(classLoaders);
+        Class<?> type = loadClass(typeName, loaders, failures);
+        event.complete(typeName, loaders.length, type == null);
+        if (type == null && failures != null) {
+            for (Throwable failure : failures) {
+                Reflections.log.warn("could not get type for name {} from any class loader", typeName,
+                        new ReflectionsException("could not get type for name " + typeName, failure));
             }
+        }
+        return type;
+    }
 
-            if (Reflections.log != null) {
-                for (ReflectionsException reflectionsException : reflectionsExceptions) {
-                    Reflections.log.warn("could not get type for name {} from any class loader", typeName, reflectionsException);
-                }
+    /**
+     * resolves a type name, primitive and array names included, from the first of the given class loaders that has it.
+     * <p>the failures of the loaders tried are added to {@code failures} if not null, and never wrapped here
+     */
+    static Class<?> loadClass(String typeName, ClassLoader[] classLoaders, @Nullable List<Throwable> failures) {
+        Class<?> primitive = getPrimitiveTypes().get(typeName);
+        if (primitive != null) {
+            return primitive;
+        }
+        String type = typeName;
+        int i = typeName.indexOf('[');
+        boolean array = i != -1;
+        if (array) {
+            String componentType = typeName.substring(0, i);
+            String descriptor = getPrimitiveDescriptors().get(componentType);
+            type = typeName.substring(i).replace("]", "") + (descriptor != null ? descriptor : "L" + componentType + ";");
+        }
+        for (ClassLoader classLoader : classLoaders) {
+            try {
+                return array ? Class.forName(type, false, classLoader) : classLoader.loadClass(type);
+            } catch (Throwable e) {
+                if (failures != null) failures.add(e);
             }
-
-            return null;
         }
+        return null;
     }
 
     /** try to resolve all given string representation of types to a list of java types */
@@ -316,21 +316,21 @@ public abstract class ReflectionUtils {
     }
 
     //
-    private static List<String> primitiveNames;
-    private static List<Class> primitiveTypes;
-    private static List<String> primitiveDescriptors;
-
-    private static void initPrimitives() {
-        if (primitiveNames == null) {
-            primitiveNames = Lists.newArrayList("boolean", "char", "byte", "short", "int", "long", "float", "double", "void");
-            primitiveTypes = Lists.<Class>newArrayList(boolean.class, char.class, byte.class, short.class, int.class, long.class, float.class, double.class, void.class);
-            primitiveDescriptors = Lists.newArrayList("Z", "C", "B", "S", "I", "J", "F", "D", "V");
+    private static final Map<String, Class<?>> primitiveTypes = new HashMap<String, Class<?>>();
+    private static final Map<String, String> primitiveDescriptors = new HashMap<String, String>();
+
+    static {
+        List<String> names = Lists.newArrayList("boolean", "char", "byte", "short", "int", "long", "float", "double", "void");
+        List<Class<?>> types = Lists.<Class<?>>newArrayList(boolean.class, char.class, byte.class, short.class, int.class, long.class, float.class, double.class, void.class);
+        List<String> descriptors = Lists.newArrayList("Z", "C", "B", "S", "I", "J", "F", "D", "V");
+        for (int i = 0; i < names.size(); i++) {
+            primitiveTypes.put(names.get(i), types.get(i));
+            primitiveDescriptors.put(names.get(i), descriptors.get(i));
         }
     }
 
-    private static List<String> getPrimitiveNames() { initPrimitives(); return primitiveNames; }
-    private static List<Class> getPrimitiveTypes() { initPrimitives(); return primitiveTypes; }
-    private static List<String> getPrimitiveDescriptors() { initPrimitives(); return primitiveDescriptors; }
+    private static Map<String, Class<?>> getPrimitiveTypes() { return primitiveTypes; }
+    private static Map<String, String> getPrimitiveDescriptors() { return primitiveDescriptors; }
 
     //
     static <T> Set<T> filter(final T[] elements, Predicate<? super T>... predicates) {
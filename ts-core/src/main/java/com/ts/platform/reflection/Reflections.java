@@ -1,13 +1,14 @@
 package com.ts.platform.reflection;
 
 
-import com.ts.platform.reflection.scanners.Scanner;
+import com.ts.platform.reflection.adapters.MetadataAdapter;
+import com.ts.platform.reflection.jfr.ScanEvent;
+import com.ts.platform.reflection.jfr.ScanEvents;
+import com.ts.platform.reflection.scanners.*;
 import com.ts.platform.reflection.serializers.Serializer;
 import com.ts.platform.reflection.serializers.XmlSerializer;
-import com.ts.platform.reflection.util.ClasspathHelper;
-import com.ts.platform.reflection.util.ConfigurationBuilder;
-import com.ts.platform.reflection.util.FilterBuilder;
-import com.ts.platform.reflection.util.Multimap;
+import com.ts.platform.reflection.util.*;
+import com.ts.platform.reflection.vfs.BufferedFile;
 import com.ts.platform.reflection.vfs.Vfs;
 import org.slf4j.Logger;
 
@@ -17,35 +18,84 @@ import java.lang.annotation.Annotation;
 import java.lang.annotation.Inherited;
 import java.lang.reflect.*;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
-import static com.ts.platform.reflection.util.Utils.findLogger;
+import static com.ts.platform.reflection.ReflectionUtils.*;
+import static com.ts.platform.reflection.util.Iterables.concat;
+import static com.ts.platform.reflection.util.Predicates.in;
+import static com.ts.platform.reflection.util.Predicates.not;
+import static com.ts.platform.reflection.util.Utils.*;
+import static java.lang.String.format;
 
 @SuppressWarnings({"rawtypes", "unchecked"})
 public class Reflections {
      public static Logger log = findLogger(Reflections.class);
 
     protected final transient Configuration configuration;
-    protected Store store;
+    /** the published store. updates of tracked urls build a new store and replace it as a whole, see {@link #rescan} */
+    protected volatile Store store;
+    /** the scanned urls, an immutable snapshot replaced along with the store, see {@link #rescan} */
+    private transient volatile Set<URL> urls = Collections.emptySet();
+    /** stores of the urls whose contributions are tracked separately while scanning, see {@link #scanFile(URL, Vfs.File)} */
+    private final transient Map<URL, Store> urlStores = new ConcurrentHashMap<URL, Store>();
+    private final transient ThreadLocal<Store> scope = new ThreadLocal<Store>();
+    /** the per thread stores of the parallel scan in progress, if sharding stores, see {@link #scanFile(URL, Vfs.File)} */
+    private transient volatile StoreShards shards;
+    /** the metrics of the scan in progress, if collected, see {@link ScanListener} */
+    private transient volatile ScanMetrics metrics;
+    /** the contributions of each scanned url, kept when tracking urls, see {@link #rescan(Collection, Collection)} */
+    private final transient Map<URL, Store> urlContributions = new ConcurrentHashMap<URL, Store>();
+    /** stores of the files of the watched directories scanned in progress, by relative path, see {@link #rescanFiles} */
+    private final transient Map<URL, Map<String, Store>> fileStores = new ConcurrentHashMap<URL, Map<String, Store>>();
+    /** the contributions of each file of the watched directories, by relative path, kept in place of their url's */
+    private final transient Map<URL, Map<String, Store>> fileContributions = new ConcurrentHashMap<URL, Map<String, Store>>();
+    /** the number of tracked urls or files contributing each entry, per index, see {@link #retract(Store, Map)} */
+    private final transient Map<String, Map<Map.Entry<String, String>, Integer>> contributorCounts =
+            new HashMap<String, Map<Map.Entry<String, String>, Integer>>();
+    /** the sketch of each scanned url, kept when sketching urls, see {@link UrlSketch} */
+    private final transient Map<URL, UrlSketch> urlSketches = new ConcurrentHashMap<URL, UrlSketch>();
+    /** the sub types entries added by expanding each type, and the number of expanded types adding each entry */
+    private final transient Map<String, List<Map.Entry<String, String>>> expansions = new HashMap<String, List<Map.Entry<String, String>>>();
+    private final transient Map<Map.Entry<String, String>, Integer> expansionCounts = new HashMap<Map.Entry<String, String>, Integer>();
+    private final transient ClassResolver classResolver;
+    /** the scanners walking each class together, see {@link ClassWalker} */
+    private final transient Set<Scanner> fusedScanners = Collections.newSetFromMap(new IdentityHashMap<Scanner, Boolean>());
+    private final transient Object updateLock = new Object();
+    private transient DirectoryWatcher watcher;
 
 
     public Reflections(final Configuration configuration) {
         this.configuration = configuration;
-        store = new Store(configuration);
+        classResolver = new ClassResolver(configuration.getClassLoaders());
+        store = newStore();
 
         if (configuration.getScanners() != null && !configuration.getScanners().isEmpty()) {
             //inject to scanners
             for (Scanner scanner : configuration.getScanners()) {
                 scanner.setConfiguration(configuration);
-                scanner.setStore(store.getOrCreate(index(scanner.getClass())));
+                store.getOrCreate(index(scanner.getClass()));
+                scanner.setStore(new ScopedMultimap(index(scanner.getClass())));
+                if (ClassWalker.isFusable(scanner)) {
+                    fusedScanners.add(scanner);
+                }
             }
 
             scan();
@@ -53,6 +103,10 @@ public class Reflections {
             if (configuration.shouldExpandSuperTypes()) {
                 expandSuperTypes();
             }
+
+            if (configuration.shouldWatchDirectories()) {
+                watcher = DirectoryWatcher.start(this, configuration.getUrls(), configuration.getWatchDebounceMillis());
+            }
         }
     }
 
@@ -68,9 +122,15 @@ public class Reflections {
 
     protected Reflections() {
         configuration = new ConfigurationBuilder();
+        classResolver = new ClassResolver(configuration.getClassLoaders());
         store = new Store(configuration);
     }
 
+    /** an empty reflections, nothing scanned, for instance to fill with the store read by a {@link Serializer} */
+    public static Reflections empty() {
+        return new Reflections();
+    }
+
 
     protected void scan() {
         if (configuration.getUrls() == null || configuration.getUrls().isEmpty()) {
@@ -81,90 +141,708 @@ public class Reflections {
         if (log != null && log.isDebugEnabled()) {
             log.debug("going to scan these urls:\n{}", Joiner.on("\n").join(configuration.getUrls()));
         }
+        urls = Collections.unmodifiableSet(new LinkedHashSet<URL>(configuration.getUrls()));
 
         long time = System.currentTimeMillis();
+        ScanPipeline pipeline = newScanPipeline();
+        int scannedUrls;
+        try {
+            scannedUrls = scan(configuration.getUrls(), pipeline, store);
+        } finally {
+            if (pipeline != null) pipeline.close();
+            //gracefully shutdown the parallel scanner executor service, unless owned by the caller
+            ExecutorService executorService = configuration.getExecutorService();
+            if (executorService != null && configuration.shouldShutdownExecutorService()) {
+                executorService.shutdown();
+            }
+        }
+        time = System.currentTimeMillis() - time;
+
+        if (log != null) {
+            int keys = 0;
+            int values = 0;
+            for (String index : store.keySet()) {
+                keys += store.get(index).keySet().size();
+                values += store.get(index).size();
+            }
+
+            log.debug(format("Reflections took %d ms to scan %d urls, producing %d keys and %d values %s",
+                    time, scannedUrls, keys, values,
+                    pipeline != null ? format("[using %d cores]", pipeline.getParallelism()) : ""));
+        }
+    }
+
+    /**
+     * scans the given urls into the target store, with the given pipeline or on the calling thread, returns the number of
+     * urls scanned. urls are merged from the scan index cache when possible, and their contributions kept apart when tracked
+     */
+    private int scan(Collection<URL> urls, @Nullable ScanPipeline pipeline, Store target) {
+        List<ScanListener> listeners = configuration.getScanListeners();
+        boolean events = ScanEvents.isEnabled();
+        ScanMetrics metrics = listeners.isEmpty() && !events ? null : new ScanMetrics(urls, configuration.getScanners());
+        ScanEvent event = metrics != null ? ScanEvents.begin() : null;
+        this.metrics = metrics;
+        try {
+            int scannedUrls = scan(urls, pipeline, target, metrics);
+            if (metrics != null) {
+                metrics.finish();
+                notifyFinished(listeners, metrics);
+                ScanEvents.commit(event, metrics);
+            }
+            return scannedUrls;
+        } finally {
+            this.metrics = null;
+        }
+    }
+
+    private int scan(Collection<URL> urls, @Nullable ScanPipeline pipeline, Store target, @Nullable ScanMetrics metrics) {
         int scannedUrls = 0;
-        ExecutorService executorService = configuration.getExecutorService();
-        List<Future<?>> futures = Lists.newArrayList();
+        ScanIndexCache cache = configuration.getScanIndexCache();
+        boolean trackUrls = configuration.shouldTrackUrls();
+        boolean sketchUrls = configuration.shouldSketchUrls();
+        Map<URL, String> cacheKeys = new HashMap<URL, String>();
+        List<URL> scan = Lists.newArrayList();
+
+        for (URL url : urls) {
+            long start = metrics != null ? System.nanoTime() : 0;
+            String key = cache != null ? cache.keyOf(url, configuration) : null;
+            Reflections cached = key != null ? cache.load(key, configuration) : null;
+            if (cached != null) {
+                if (metrics != null) metrics.url(url).cached(System.nanoTime() - start);
+                target.merge(cached.store);
+                if (trackUrls) track(url, cached.store);
+                if (sketchUrls) urlSketches.put(url, cachedSketch(cache, key, cached.store));
+                scannedUrls++;
+            } else {
+                if (key != null) cacheKeys.put(url, key);
+                if (key != null || trackUrls || sketchUrls) urlStores.put(url, newUrlStore());
+                if (trackUrls && configuration.shouldWatchDirectories() && isDirectory(url)) {
+                    fileStores.put(url, new ConcurrentHashMap<String, Store>());
+                }
+                scan.add(url);
+            }
+        }
 
-        for (final URL url : configuration.getUrls()) {
+        if (pipeline != null) {
+            StoreShards shards = configuration.shouldShardStores() ? newStoreShards() : null;
+            this.shards = shards;
             try {
-                if (executorService != null) {
-                    futures.add(executorService.submit(new Runnable() {
-                        public void run() {
-                            if (log != null) {
-                                log.debug("[{}] scanning {}", Thread.currentThread().toString(), url);
-                            }
-                            scan(url);
-                        }
-                    }));
-                } else {
+                scannedUrls += pipeline.scan(scan);
+            } finally {
+                this.shards = null;
+            }
+            if (shards != null) {
+                shards.mergeInto(target, urlStores, pipeline.getExecutorService());
+            }
+        } else {
+            for (final URL url : scan) {
+                try {
                     scan(url);
+                    scannedUrls++;
+                } catch (ReflectionsException e) {
+                    if (log != null) {
+                        log.debug("could not create Vfs.Dir from url. ignoring the exception and continuing", e);
+                    }
                 }
-                scannedUrls++;
-            } catch (ReflectionsException e) {
-                if (log != null) {
-                    log.debug("could not create Vfs.Dir from url. ignoring the exception and continuing", e);
+            }
+        }
+
+        for (URL url : scan) {
+            Store urlStore = urlStores.remove(url);
+            Map<String, Store> files = fileStores.remove(url);
+            if (urlStore == null) continue;
+            if (files != null) {
+                for (Store fileStore : files.values()) {
+                    for (String index : fileStore.keySet()) urlStore.merge(index, fileStore);
+                }
+            }
+            target.merge(urlStore);
+            String key = cacheKeys.get(url);
+            if (key != null) cache.save(key, urlStore, configuration);
+            if (trackUrls) {
+                if (files != null) {
+                    track(url, files);
+                } else {
+                    track(url, urlStore);
                 }
             }
+            if (sketchUrls) {
+                UrlSketch sketch = UrlSketch.of(urlStore);
+                urlSketches.put(url, sketch);
+                if (key != null) cache.saveSketch(key, sketch);
+            }
         }
 
-        //todo use CompletionService
-        if (executorService != null) {
-            for (Future future : futures) {
-                try { future.get(); } catch (Exception e) { throw new RuntimeException(e); }
+        target.invalidate();
+        return scannedUrls;
+    }
+
+    private static boolean isDirectory(URL url) {
+        File file = Vfs.getFile(url);
+        return file != null && file.isDirectory();
+    }
+
+    /** the sketch saved along with the cached snapshot of the given key, or a new sketch of the snapshot, saved for next time */
+    private static UrlSketch cachedSketch(ScanIndexCache cache, String key, Store cached) {
+        UrlSketch sketch = cache.loadSketch(key);
+        if (sketch == null) {
+            sketch = UrlSketch.of(cached);
+            cache.saveSketch(key, sketch);
+        }
+        return sketch;
+    }
+
+    private static void notifyFinished(List<ScanListener> listeners, ScanMetrics metrics) {
+        for (ScanListener listener : listeners) {
+            try {
+                for (ScanMetrics.UrlMetrics urlMetrics : metrics.getUrls()) {
+                    listener.onUrlScanned(urlMetrics);
+                }
+                listener.onScanFinished(metrics);
+            } catch (Exception e) {
+                if (log != null) log.warn("scan listener " + listener + " failed", e);
             }
         }
+    }
 
-        time = System.currentTimeMillis() - time;
+    /** the metrics of the given url in the scan in progress, or null if metrics are not collected */
+    @Nullable
+    ScanMetrics.UrlMetrics urlMetrics(URL url) {
+        ScanMetrics metrics = this.metrics;
+        return metrics != null ? metrics.url(url) : null;
+    }
+
+    /** logs a file of the given url which could not be read, and reports it if collecting metrics. the scan goes on */
+    void readFailed(URL url, Vfs.File file, Exception e) {
+        if (log != null) {
+            log.debug("could not read file {} in url {}", file.getRelativePath(), url.toExternalForm(), e);
+        }
+        ScanMetrics.UrlMetrics urlMetrics = urlMetrics(url);
+        if (urlMetrics != null) failed(urlMetrics, url, file, null, e);
+    }
+
+    /** counts the failure of the given scanner, or of reading the class file if null, and notifies the listeners */
+    private void failed(ScanMetrics.UrlMetrics urlMetrics, URL url, Vfs.File file, @Nullable Scanner scanner, Exception e) {
+        urlMetrics.failed(scanner);
+        for (ScanListener listener : configuration.getScanListeners()) {
+            try {
+                listener.onScanFailure(url, file.getRelativePath(), scanner, e);
+            } catch (Exception listenerException) {
+                if (log != null) log.warn("scan listener " + listener + " failed", listenerException);
+            }
+        }
+    }
+
+    /**
+     * returns the scanned urls whose {@link UrlSketch} matches the given predicate, along with the urls without a sketch,
+     * for instance the urls which may have types annotated with a given annotation, to scan them only with another configuration.
+     * <p>requires {@link com.ts.platform.reflection.util.ConfigurationBuilder#setSketchUrls(boolean)}, all urls match otherwise
+     */
+    public Set<URL> getUrlsMatching(Predicate<UrlSketch> predicate) {
+        Set<URL> result = new LinkedHashSet<URL>();
+        for (URL url : urls) {
+            UrlSketch sketch = urlSketches.get(url);
+            if (sketch == null || predicate.test(sketch)) {
+                result.add(url);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * updates the store after some urls changed, without scanning the others again.
+     * the contributions of the {@code changed} and {@code removed} urls are retracted, unless another url contributes
+     * them as well, the {@code changed} urls are scanned again, and super types are expanded for the types that need it only.
+     * <p>the urls of the configuration are updated accordingly.
+     * requires {@link com.ts.platform.reflection.util.ConfigurationBuilder#setTrackUrls(boolean)},
+     * entries merged from elsewhere, for instance with {@link #merge(Reflections)}, are not tracked and may be retracted.
+     * <p>the update is applied to a new store, which copies the indices the update writes to and shares the others with
+     * the published one, and then replaces it. queries are not blocked, and see either the store and urls before or the
+     * store and urls after the update. rescans are serialized.
+     * if the update fails, the store, the tracked contributions and the urls are left as they were
+     */
+    public void rescan(Collection<URL> changed, Collection<URL> removed) {
+        if (!configuration.shouldTrackUrls()) {
+            throw new ReflectionsException("url contributions are not tracked, rescan needs ConfigurationBuilder.setTrackUrls(true)");
+        }
+        long time = System.currentTimeMillis();
+        int scannedUrls;
+
+        synchronized (updateLock) {
+            //the tracking state as before the update, restored if it fails
+            Map<URL, Store> contributions = new HashMap<URL, Store>(urlContributions);
+            Map<URL, Map<String, Store>> files = new HashMap<URL, Map<String, Store>>(fileContributions);
+            Map<URL, UrlSketch> sketches = new HashMap<URL, UrlSketch>(urlSketches);
+            Map<String, List<Map.Entry<String, String>>> expanded = new HashMap<String, List<Map.Entry<String, String>>>(expansions);
+            Map<Map.Entry<String, String>, Integer> counts = new HashMap<Map.Entry<String, String>, Integer>(expansionCounts);
+            boolean updated = false;
+            try {
+                //the entries that no url contributes anymore, unless contributed again by the changed urls
+                Map<String, List<Map.Entry<String, String>>> uncontributed = new HashMap<String, List<Map.Entry<String, String>>>();
+                for (URL url : concat(removed, changed)) {
+                    untrack(url, uncontributed);
+                    urlSketches.remove(url);
+                }
+
+                classResolver.clear();
+                Store delta = newStore();
+                ScanPipeline pipeline = newScanPipeline();
+                try {
+                    scannedUrls = scan(changed, pipeline, delta);
+                } finally {
+                    if (pipeline != null) pipeline.close();
+                }
 
-        //gracefully shutdown the parallel scanner executor service.
-        if (executorService != null) {
-            executorService.shutdown();
+                Set<URL> nextUrls = new LinkedHashSet<URL>(urls);
+                nextUrls.removeAll(removed);
+                nextUrls.addAll(changed);
+                update(uncontributed, delta, nextUrls);
+                configuration.getUrls().removeAll(removed);
+                configuration.getUrls().addAll(changed);
+                updated = true;
+            } finally {
+                if (!updated) {
+                    recount(contributions, files);
+                    restore(urlContributions, contributions);
+                    restore(fileContributions, files);
+                    restore(urlSketches, sketches);
+                    restore(expansions, expanded);
+                    restore(expansionCounts, counts);
+                }
+            }
+        }
+        if (log != null) {
+            log.debug(format("Reflections took %d ms to rescan %d urls and remove %d urls",
+                    System.currentTimeMillis() - time, scannedUrls, removed.size()));
         }
+    }
 
+    /**
+     * updates the store after some files of a scanned directory changed, scanning these files only.
+     * {@code changed} and {@code removed} are paths relative to the directory, separated with {@code /}. a removed
+     * directory removes the files under it.
+     * <p>the contributions of each file of a directory are tracked apart when watching directories, see
+     * {@link com.ts.platform.reflection.util.ConfigurationBuilder#setWatchDirectories(boolean)}, the whole directory
+     * is scanned again with {@link #rescan(Collection, Collection)} otherwise. the sketch of the directory is dropped,
+     * so that it matches any predicate of {@link #getUrlsMatching(Predicate)}.
+     * <p>the update is published as by {@link #rescan(Collection, Collection)}
+     */
+    public void rescanFiles(URL root, Collection<String> changed, Collection<String> removed) {
+        if (!configuration.shouldTrackUrls()) {
+            throw new ReflectionsException("url contributions are not tracked, rescan needs ConfigurationBuilder.setTrackUrls(true)");
+        }
+        long time = System.currentTimeMillis();
+        int scannedFiles = 0;
+
+        synchronized (updateLock) {
+            Map<String, Store> rootFiles = fileContributions.get(root);
+            File directory = Vfs.getFile(root);
+            if (rootFiles == null || directory == null) {
+                rescan(Collections.singleton(root), Collections.<URL>emptySet());
+                return;
+            }
+            //the tracking state as before the update, restored if it fails
+            Map<URL, Store> contributions = new HashMap<URL, Store>(urlContributions);
+            Map<URL, Map<String, Store>> files = new HashMap<URL, Map<String, Store>>(fileContributions);
+            UrlSketch sketch = urlSketches.get(root);
+            Map<String, List<Map.Entry<String, String>>> expanded = new HashMap<String, List<Map.Entry<String, String>>>(expansions);
+            Map<Map.Entry<String, String>, Integer> counts = new HashMap<Map.Entry<String, String>, Integer>(expansionCounts);
+            boolean updated = false;
+            try {
+                Map<String, Store> nextFiles = new HashMap<String, Store>(rootFiles);
+                fileContributions.put(root, nextFiles);
+                urlSketches.remove(root);
+
+                //the entries that no file contributes anymore, unless contributed again by the changed files
+                Map<String, List<Map.Entry<String, String>>> uncontributed = new HashMap<String, List<Map.Entry<String, String>>>();
+                for (String path : concat(removed, changed)) {
+                    Store fileStore = nextFiles.remove(path);
+                    if (fileStore != null) uncount(fileStore, uncontributed);
+                }
+                for (String path : removed) {
+                    if (rootFiles.containsKey(path)) continue;
+                    String prefix = path + "/";
+                    for (Iterator<Map.Entry<String, Store>> iterator = nextFiles.entrySet().iterator(); iterator.hasNext(); ) {
+                        Map.Entry<String, Store> file = iterator.next();
+                        if (file.getKey().startsWith(prefix)) {
+                            uncount(file.getValue(), uncontributed);
+                            iterator.remove();
+                        }
+                    }
+                }
+
+                classResolver.clear();
+                Store delta = newStore();
+                Map<String, Store> scanned = new ConcurrentHashMap<String, Store>();
+                fileStores.put(root, scanned);
+                try {
+                    for (String path : changed) {
+                        Path file = directory.toPath().resolve(path);
+                        if (!Files.isRegularFile(file)) continue;
+                        Vfs.File vfsFile = new BufferedFile(file.getFileName().toString(), path, Files.readAllBytes(file));
+                        if (acceptsInput(vfsFile)) {
+                            scanFile(root, vfsFile);
+                            scannedFiles++;
+                        }
+                    }
+                } finally {
+                    fileStores.remove(root);
+                }
+                for (Map.Entry<String, Store> file : scanned.entrySet()) {
+                    Store fileStore = file.getValue();
+                    nextFiles.put(file.getKey(), fileStore);
+                    count(fileStore);
+                    for (String index : fileStore.keySet()) delta.merge(index, fileStore);
+                }
+
+                update(uncontributed, delta, urls);
+                updated = true;
+            } catch (IOException e) {
+                throw new ReflectionsException("could not rescan files of " + root, e);
+            } finally {
+                if (!updated) {
+                    recount(contributions, files);
+                    restore(urlContributions, contributions);
+                    restore(fileContributions, files);
+                    if (sketch != null) urlSketches.put(root, sketch);
+                    restore(expansions, expanded);
+                    restore(expansionCounts, counts);
+                }
+            }
+        }
         if (log != null) {
-            int keys = 0;
-            int values = 0;
-            for (String index : store.keySet()) {
-                keys += store.get(index).keySet().size();
-                values += store.get(index).size();
+            log.debug(format("Reflections took %d ms to rescan %d files of %s",
+                    System.currentTimeMillis() - time, scannedFiles, root));
+        }
+    }
+
+    /**
+     * builds the store of an update and publishes it along with the given urls. the indices the update writes to are
+     * copied from the published store, the others are shared with it
+     */
+    private void update(Map<String, List<Map.Entry<String, String>>> uncontributed, Store delta, Set<URL> nextUrls) {
+        boolean expand = configuration.shouldExpandSuperTypes();
+        Set<String> written = new HashSet<String>(uncontributed.keySet());
+        for (String index : delta.keySet()) {
+            if (!delta.get(index).isEmpty()) written.add(index);
+        }
+        if (expand) written.add(index(SubTypesScanner.class));
+        Store next = newStore();
+        for (String index : store.keySet()) {
+            if (written.contains(index)) {
+                next.merge(index, store);
+            } else {
+                next.share(index, store);
             }
+        }
+        retract(next, uncontributed);
+        next.merge(delta);
 
-            log.debug(format("Reflections took %d ms to scan %d urls, producing %d keys and %d values %s",
-                    time, scannedUrls, keys, values,
-                    executorService != null && executorService instanceof ThreadPoolExecutor ?
-                            format("[using %d cores]", ((ThreadPoolExecutor) executorService).getMaximumPoolSize()) : ""));
+        if (expand) {
+            expandTrackedSuperTypes(next);
+        }
+        store = next;
+        urls = Collections.unmodifiableSet(nextUrls);
+    }
+
+    private static <K, V> void restore(Map<K, V> map, Map<K, V> snapshot) {
+        map.clear();
+        map.putAll(snapshot);
+    }
+
+    /** keeps the contributions of the given url, counted for each of their entries */
+    private void track(URL url, Store urlStore) {
+        untrack(url, null);
+        urlContributions.put(url, urlStore);
+        count(urlStore);
+    }
+
+    /** keeps the contributions of each file of the given url, counted for each of their entries */
+    private void track(URL url, Map<String, Store> files) {
+        untrack(url, null);
+        fileContributions.put(url, files);
+        for (Store fileStore : files.values()) count(fileStore);
+    }
+
+    /** uncounts the contributions of the given url, or of its files, adding the entries no url contributes anymore to {@code uncontributed} */
+    private void untrack(URL url, @Nullable Map<String, List<Map.Entry<String, String>>> uncontributed) {
+        Store urlStore = urlContributions.remove(url);
+        if (urlStore != null) uncount(urlStore, uncontributed);
+        Map<String, Store> files = fileContributions.remove(url);
+        if (files != null) {
+            for (Store fileStore : files.values()) uncount(fileStore, uncontributed);
         }
     }
 
+    private void count(Store urlStore) {
+        for (String index : urlStore.keySet()) {
+            Multimap<String, String> mmap = urlStore.get(index);
+            if (mmap.isEmpty()) continue;
+            Map<Map.Entry<String, String>, Integer> counts = contributorCounts.get(index);
+            if (counts == null) {
+                counts = new HashMap<Map.Entry<String, String>, Integer>();
+                contributorCounts.put(index, counts);
+            }
+            for (String key : mmap.keySet()) {
+                for (String value : mmap.get(key)) {
+                    Map.Entry<String, String> pair = pair(key, value);
+                    Integer count = counts.get(pair);
+                    counts.put(pair, count != null ? count + 1 : 1);
+                }
+            }
+        }
+    }
+
+    /** uncounts the contributions of the given url store, adding the entries no url contributes anymore to {@code uncontributed} */
+    private void uncount(Store urlStore, @Nullable Map<String, List<Map.Entry<String, String>>> uncontributed) {
+        for (String index : urlStore.keySet()) {
+            Map<Map.Entry<String, String>, Integer> counts = contributorCounts.get(index);
+            if (counts == null) continue;
+            Multimap<String, String> mmap = urlStore.get(index);
+            for (String key : mmap.keySet()) {
+                for (String value : mmap.get(key)) {
+                    Map.Entry<String, String> pair = pair(key, value);
+                    Integer count = counts.remove(pair);
+                    if (count == null) continue;
+                    if (count > 1) {
+                        counts.put(pair, count - 1);
+                    } else if (uncontributed != null) {
+                        List<Map.Entry<String, String>> pairs = uncontributed.get(index);
+                        if (pairs == null) {
+                            pairs = Lists.newArrayList();
+                            uncontributed.put(index, pairs);
+                        }
+                        pairs.add(pair);
+                    }
+                }
+            }
+        }
+    }
+
+    /** counts the given contributions again in place of the tracked ones, when an update fails */
+    private void recount(Map<URL, Store> contributions, Map<URL, Map<String, Store>> files) {
+        Set<Store> before = contributors(contributions, files);
+        Set<Store> after = contributors(urlContributions, fileContributions);
+        for (Store contributor : after) {
+            if (!before.contains(contributor)) uncount(contributor, null);
+        }
+        for (Store contributor : before) {
+            if (!after.contains(contributor)) count(contributor);
+        }
+    }
+
+    private static Set<Store> contributors(Map<URL, Store> contributions, Map<URL, Map<String, Store>> files) {
+        Set<Store> result = Collections.newSetFromMap(new IdentityHashMap<Store, Boolean>());
+        result.addAll(contributions.values());
+        for (Map<String, Store> fileStores : files.values()) {
+            result.addAll(fileStores.values());
+        }
+        return result;
+    }
+
+    /** removes the given entries which no tracked url contributed anymore, unless contributed again or by a super type expansion */
+    private void retract(Store target, Map<String, List<Map.Entry<String, String>>> uncontributed) {
+        String subTypes = index(SubTypesScanner.class);
+        for (Map.Entry<String, List<Map.Entry<String, String>>> entry : uncontributed.entrySet()) {
+            String index = entry.getKey();
+            if (!target.keySet().contains(index)) continue;
+            Multimap<String, String> mmap = target.get(index);
+            for (Map.Entry<String, String> pair : entry.getValue()) {
+                if (!isContributed(index, pair.getKey(), pair.getValue()) &&
+                        !(index.equals(subTypes) && expansionCounts.containsKey(pair))) {
+                    mmap.remove(pair.getKey(), pair.getValue());
+                }
+            }
+        }
+        target.invalidate();
+    }
+
+    /** true if a tracked url contributes the given entry */
+    private boolean isContributed(String index, String key, String value) {
+        Map<Map.Entry<String, String>, Integer> counts = contributorCounts.get(index);
+        return counts != null && counts.containsKey(pair(key, value));
+    }
+
+    private static Map.Entry<String, String> pair(String key, String value) {
+        return new AbstractMap.SimpleImmutableEntry<String, String>(key, value);
+    }
+
     protected void scan(URL url) {
+        ScanMetrics.UrlMetrics urlMetrics = urlMetrics(url);
+        long start = urlMetrics != null ? System.nanoTime() : 0;
         Vfs.Dir dir = Vfs.fromURL(url);
+        if (urlMetrics != null) urlMetrics.opened(System.nanoTime() - start);
         try {
             for (final Vfs.File file : dir.getFiles()) {
-                // scan if inputs filter accepts file relative path or fqn
-                Predicate<String> inputsFilter = configuration.getInputsFilter();
-                String path = file.getRelativePath();
-                String fqn = path.replace('/', '.');
-                if (inputsFilter == null || inputsFilter.test(path) || inputsFilter.test(fqn)) {
-                    Object classObject = null;
-                    for (Scanner scanner : configuration.getScanners()) {
-                        try {
-                            if (scanner.acceptsInput(path) || scanner.acceptsInput(fqn)) {
-                                classObject = scanner.scan(file, classObject);
-                            }
-                        } catch (Exception e) {
-                            if (log != null) {
-                                // SLF4J will filter out Throwables from the format string arguments.
-                                log.debug("could not scan file {} in url {} with scanner {}", file.getRelativePath(), url.toExternalForm(), scanner.getClass().getSimpleName(), e);
-                            }
+                if (urlMetrics != null) urlMetrics.enumerated();
+                if (acceptsInput(file)) {
+                    scanFile(url, file);
+                }
+            }
+        } finally {
+            dir.close();
+        }
+    }
+
+    /** scan if inputs filter accepts file relative path or fqn */
+    protected boolean acceptsInput(Vfs.File file) {
+        Predicate<String> inputsFilter = configuration.getInputsFilter();
+        String path = file.getRelativePath();
+        return inputsFilter == null || inputsFilter.test(path) || inputsFilter.test(path.replace('/', '.'));
+    }
+
+    /**
+     * scans a single file of the given url with every scanner accepting it, sharing the class object between them.
+     * the fusable scanners are fed by a single walk of the class.
+     * <p>when collecting {@link ScanMetrics}, a class file is read and parsed upfront, so that reading, parsing and each
+     * scanner are timed apart
+     */
+    protected void scanFile(URL url, Vfs.File file) {
+        String path = file.getRelativePath();
+        String fqn = path.replace('/', '.');
+        Object classObject = null;
+        List<ScanVisitor> visitors = null;
+        ScanMetrics.UrlMetrics urlMetrics = urlMetrics(url);
+        Store urlStore = urlStores.isEmpty() ? null : urlStores.get(url);
+        Map<String, Store> files = fileStores.isEmpty() ? null : fileStores.get(url);
+        StoreShards shards = this.shards;
+        if (files != null) {
+            urlStore = newSingleThreadedStore();
+        } else if (shards != null) {
+            urlStore = shards.get(urlStore != null ? url : null);
+        }
+        if (urlStore != null) scope.set(urlStore);
+        try {
+            if (urlMetrics != null && configuration.getMetadataAdapter().acceptsInput(path)) {
+                try {
+                    if (!(file instanceof BufferedFile)) {
+                        long start = System.nanoTime();
+                        file = BufferedFile.of(file);
+                        urlMetrics.read(((BufferedFile) file).getBytes().length, System.nanoTime() - start);
+                    }
+                    long start = System.nanoTime();
+                    classObject = configuration.getMetadataAdapter().getOrCreateClassObject(file);
+                    urlMetrics.parsed(System.nanoTime() - start);
+                } catch (Exception e) {
+                    if (log != null) {
+                        log.debug("could not scan file {} in url {}", file.getRelativePath(), url.toExternalForm(), e);
+                    }
+                    failed(urlMetrics, url, file, null, e);
+                    return;
+                }
+            }
+            for (Scanner scanner : configuration.getScanners()) {
+                try {
+                    if (scanner.acceptsInput(path) || scanner.acceptsInput(fqn)) {
+                        if (fusedScanners.contains(scanner)) {
+                            if (visitors == null) visitors = Lists.newArrayList();
+                            visitors.add((ScanVisitor) scanner);
+                        } else if (urlMetrics != null) {
+                            long start = System.nanoTime();
+                            classObject = scanner.scan(file, classObject);
+                            urlMetrics.scanned(scanner, System.nanoTime() - start);
+                        } else {
+                            classObject = scanner.scan(file, classObject);
                         }
                     }
+                } catch (Exception e) {
+                    if (log != null) {
+                        // SLF4J will filter out Throwables from the format string arguments.
+                        log.debug("could not scan file {} in url {} with scanner {}", file.getRelativePath(), url.toExternalForm(), scanner.getClass().getSimpleName(), e);
+                    }
+                    if (urlMetrics != null) failed(urlMetrics, url, file, scanner, e);
                 }
             }
+            if (visitors != null) {
+                walk(url, file, classObject, visitors, urlMetrics);
+            }
         } finally {
-            dir.close();
+            if (urlStore != null) scope.remove();
+            if (files != null && !urlStore.keySet().isEmpty()) files.put(path, urlStore);
+        }
+    }
+
+    /** walks the class of the given file once for all the given visitors, timing each visitor if collecting metrics */
+    private void walk(URL url, Vfs.File file, @Nullable Object classObject, List<ScanVisitor> visitors,
+                      @Nullable ScanMetrics.UrlMetrics urlMetrics) {
+        MetadataAdapter metadataAdapter = configuration.getMetadataAdapter();
+        long[] nanos = urlMetrics != null ? new long[visitors.size()] : null;
+        RuntimeException[] failures;
+        try {
+            if (classObject == null) {
+                classObject = metadataAdapter.getOrCreateClassObject(file);
+            }
+            failures = ClassWalker.walk(metadataAdapter, classObject, visitors, nanos);
+        } catch (Exception e) {
+            if (log != null) {
+                log.debug("could not scan file {} in url {}", file.getRelativePath(), url.toExternalForm(), e);
+            }
+            if (urlMetrics != null) failed(urlMetrics, url, file, null, e);
+            return;
+        }
+        if (nanos != null) {
+            for (int i = 0; i < nanos.length; i++) {
+                urlMetrics.scanned((Scanner) visitors.get(i), nanos[i]);
+            }
+        }
+        if (failures != null) {
+            for (int i = 0; i < failures.length; i++) {
+                if (failures[i] != null) {
+                    if (log != null) {
+                        log.debug("could not scan file {} in url {} with scanner {}", file.getRelativePath(), url.toExternalForm(), visitors.get(i).getClass().getSimpleName(), failures[i]);
+                    }
+                    if (urlMetrics != null) failed(urlMetrics, url, file, (Scanner) visitors.get(i), failures[i]);
+                }
+            }
+        }
+    }
+
+    /** creates an empty store of the kind configured, an interned store shares the name table of the main store */
+    private Store newStore() {
+        if (!configuration.shouldInternNames()) {
+            return new Store(configuration);
+        }
+        return store instanceof InternedStore ?
+                new InternedStore(configuration, ((InternedStore) store).getNames()) :
+                new InternedStore(configuration);
+    }
+
+    /** creates the pipeline of a parallel scan as configured, or returns null to scan on the calling thread */
+    @Nullable
+    private ScanPipeline newScanPipeline() {
+        ExecutorService executorService = configuration.getExecutorService();
+        if (executorService != null && executorService.isShutdown()) {
+            executorService = null;
+        }
+        if (configuration.shouldUseVirtualThreads()) {
+            return ScanPipeline.withVirtualThreads(this, executorService);
         }
+        return executorService != null ? new ScanPipeline(this, executorService) : null;
+    }
+
+    /** creates the per thread stores of a parallel scan, single threaded stores of the kind configured */
+    private StoreShards newStoreShards() {
+        return new StoreShards(new Supplier<Store>() {
+            public Store get() {
+                return newSingleThreadedStore();
+            }
+        });
+    }
+
+    /** creates an empty store of the kind configured, written by a single thread */
+    private Store newSingleThreadedStore() {
+        return store instanceof InternedStore ?
+                new InternedStore(configuration, ((InternedStore) store).getNames(), false) :
+                new Store(configuration, false);
+    }
+
+    /** creates an empty store for tracking the contributions of a single url, with an index per configured scanner */
+    private Store newUrlStore() {
+        Store urlStore = newStore();
+        for (Scanner scanner : configuration.getScanners()) {
+            urlStore.getOrCreate(index(scanner.getClass()));
+        }
+        return urlStore;
     }
 
 
@@ -174,13 +852,25 @@ public class Reflections {
 
 
     public static Reflections collect(final String packagePrefix, final Predicate<String> resourceNameFilter,  Serializer... optionalSerializer) {
+        return collect(packagePrefix, resourceNameFilter, null, optionalSerializer);
+    }
+
+    /**
+     * collects saved Reflections resources as {@link #collect(String, Predicate, Serializer...)} does, skipping the resources
+     * whose {@link UrlSketch}, saved next to them by {@link #save(String)} when sketching urls, does not match the given
+     * sketch filter, without reading them. resources without a sketch are always collected
+     */
+    public static Reflections collect(final String packagePrefix, final Predicate<String> resourceNameFilter,
+                                      @Nullable final Predicate<UrlSketch> sketchFilter, Serializer... optionalSerializer) {
         Serializer serializer = optionalSerializer != null && optionalSerializer.length == 1 ? optionalSerializer[0] : new XmlSerializer();
 
         Collection<URL> urls = ClasspathHelper.forPackage(packagePrefix);
         if (urls.isEmpty()) return null;
         long start = System.currentTimeMillis();
         final Reflections reflections = new Reflections();
-        Iterable<Vfs.File> files = Vfs.findFiles(urls, packagePrefix, resourceNameFilter);
+        Iterable<Vfs.File> files = sketchFilter != null ?
+                findMatchingFiles(urls, packagePrefix, resourceNameFilter, sketchFilter) :
+                Vfs.findFiles(urls, packagePrefix, resourceNameFilter);
         for (final Vfs.File file : files) {
             InputStream inputStream = null;
             try {
@@ -209,6 +899,40 @@ public class Reflections {
     }
 
 
+    /** the resources of each url accepted by the given name filter, unless their sketch does not match the given sketch filter */
+    private static Iterable<Vfs.File> findMatchingFiles(Collection<URL> urls, String packagePrefix,
+                                                        Predicate<String> resourceNameFilter, final Predicate<UrlSketch> sketchFilter) {
+        Iterable<Vfs.File> result = Lists.newArrayList();
+        for (URL url : urls) {
+            final Set<String> rejected = new HashSet<String>();
+            for (Vfs.File file : Vfs.findFiles(Collections.singleton(url), packagePrefix, new Predicate<String>() {
+                public boolean test(String name) {
+                    return name.endsWith(UrlSketch.SUFFIX);
+                }
+            })) {
+                InputStream inputStream = null;
+                try {
+                    inputStream = file.openInputStream();
+                    if (!sketchFilter.test(UrlSketch.read(new BufferedInputStream(inputStream)))) {
+                        String path = file.getRelativePath();
+                        rejected.add(path.substring(0, path.length() - UrlSketch.SUFFIX.length()));
+                    }
+                } catch (IOException e) {
+                    if (log != null) log.debug("could not read url sketch " + file + ", ignoring it", e);
+                } finally {
+                    close(inputStream);
+                }
+            }
+            result = concat(result, Iterables.filter(Vfs.findFiles(Collections.singleton(url), packagePrefix, resourceNameFilter),
+                    new Predicate<Vfs.File>() {
+                        public boolean test(Vfs.File file) {
+                            return !rejected.contains(file.getRelativePath());
+                        }
+                    }));
+        }
+        return result;
+    }
+
     public Reflections collect(final InputStream inputStream) {
         try {
             merge(configuration.getSerializer().read(inputStream));
@@ -240,18 +964,15 @@ public class Reflections {
      */
     public Reflections merge(final Reflections reflections) {
         if (reflections.store != null) {
-            for (String indexName : reflections.store.keySet()) {
-                Multimap<String, String> index = reflections.store.get(indexName);
-                for (String key : index.keySet()) {
-                    for (String string : index.get(key)) {
-                        store.getOrCreate(indexName).put(key, string);
-                    }
-                }
-            }
+            merge(reflections.store);
         }
         return this;
     }
 
+    private void merge(final Store other) {
+        store.merge(other);
+    }
+
     /**
      * expand super types after scanning, for super types that were not scanned.
      * this is helpful in finding the transitive closure without scanning all 3rd party dependencies.
@@ -264,18 +985,78 @@ public class Reflections {
      * </ul>
      */
     public void expandSuperTypes() {
-        if (store.keySet().contains(index(SubTypesScanner.class))) {
+        if (configuration.shouldTrackUrls()) {
+            synchronized (updateLock) {
+                expandTrackedSuperTypes(store);
+            }
+        } else if (store.keySet().contains(index(SubTypesScanner.class))) {
             Multimap<String, String> mmap = store.get(index(SubTypesScanner.class));
             Sets.SetView<String> keys = Sets.difference(mmap.keySet(), Sets.newHashSet(mmap.values()));
             Multimap<String, String> expand = HashMultimap.create();
             for (String key : keys) {
-                final Class<?> type = forName(key, loaders());
+                final Class<?> type = classResolver.forName(key);
                 if (type != null) {
                     expandSupertypes(expand, key, type);
                 }
             }
             mmap.putAll(expand);
+            store.invalidate();
+        }
+    }
+
+    /**
+     * expands super types incrementally, keeping the entries added for each expanded type.
+     * the expansions of types that are not roots anymore are retracted, only new roots are expanded
+     */
+    private void expandTrackedSuperTypes(Store target) {
+        String index = index(SubTypesScanner.class);
+        if (!target.keySet().contains(index)) return;
+        Multimap<String, String> mmap = target.get(index);
+
+        //roots are computed over the scanned entries, ignoring the ones only added by expansion
+        Set<String> keys = Sets.newHashSet();
+        Set<String> values = Sets.newHashSet();
+        for (String key : mmap.keySet()) {
+            for (String value : mmap.get(key)) {
+                if (!expansionCounts.containsKey(pair(key, value)) || isContributed(index, key, value)) {
+                    keys.add(key);
+                    values.add(value);
+                }
+            }
+        }
+        keys.removeAll(values);
+
+        for (Iterator<Map.Entry<String, List<Map.Entry<String, String>>>> iterator = expansions.entrySet().iterator(); iterator.hasNext(); ) {
+            Map.Entry<String, List<Map.Entry<String, String>>> expansion = iterator.next();
+            if (keys.contains(expansion.getKey())) continue;
+            for (Map.Entry<String, String> pair : expansion.getValue()) {
+                int count = expansionCounts.remove(pair) - 1;
+                if (count > 0) {
+                    expansionCounts.put(pair, count);
+                } else if (!isContributed(index, pair.getKey(), pair.getValue())) {
+                    mmap.remove(pair.getKey(), pair.getValue());
+                }
+            }
+            iterator.remove();
+        }
+
+        for (String key : keys) {
+            if (expansions.containsKey(key)) continue;
+            final Class<?> type = classResolver.forName(key);
+            if (type == null) continue;
+            Multimap<String, String> expand = HashMultimap.create();
+            expandSupertypes(expand, key, type);
+            List<Map.Entry<String, String>> pairs = Lists.newArrayList();
+            for (Map.Entry<String, String> entry : expand.entries()) {
+                Map.Entry<String, String> pair = pair(entry.getKey(), entry.getValue());
+                Integer count = expansionCounts.get(pair);
+                expansionCounts.put(pair, count != null ? count + 1 : 1);
+                mmap.put(pair.getKey(), pair.getValue());
+                pairs.add(pair);
+            }
+            expansions.put(key, pairs);
         }
+        target.invalidate();
     }
 
     private void expandSupertypes(Multimap<String, String> mmap, String key, Class<?> type) {
@@ -296,8 +1077,7 @@ public class Reflections {
     		String index = index(SubTypesScanner.class);
     		List<String> typeNames = Arrays.asList(type.getName());
     		Iterable<String> all = store.getAll(index, typeNames);
-    		ClassLoader[] loaders = loaders();
-    		List<Class<? extends T>> classes = ReflectionUtils.<T>forNames(all, loaders);
+    		List<Class<? extends T>> classes = classResolver.<T>forNames(all);
         return Sets.newHashSet(classes);
     }
 
@@ -325,7 +1105,7 @@ public class Reflections {
     public Set<Class<?>> getTypesAnnotatedWith(final Class<? extends Annotation> annotation, boolean honorInherited) {
         Iterable<String> annotated = store.get(index(TypeAnnotationsScanner.class), annotation.getName());
         Iterable<String> classes = getAllAnnotated(annotated, annotation.isAnnotationPresent(Inherited.class), honorInherited);
-        return Sets.newHashSet(Iterables.concat(forNames(annotated, loaders()), forNames(classes, loaders())));
+        return Sets.newHashSet(Iterables.concat(classResolver.<Object>forNames(annotated), classResolver.<Object>forNames(classes)));
     }
 
     /**
@@ -344,17 +1124,18 @@ public class Reflections {
      */
     public Set<Class<?>> getTypesAnnotatedWith(final Annotation annotation, boolean honorInherited) {
         Iterable<String> annotated = store.get(index(TypeAnnotationsScanner.class), annotation.annotationType().getName());
-        Iterable<Class<?>> filter = Iterables.filter(forNames(annotated, loaders()), withAnnotation(annotation));
+        Iterable<Class<?>> filter = Iterables.filter(classResolver.<Object>forNames(annotated), withAnnotation(annotation));
         Iterable<String> classes = getAllAnnotated(names(filter), annotation.annotationType().isAnnotationPresent(Inherited.class), honorInherited);
-        return Sets.newHashSet(concat(filter, forNames(filter(classes, not(in(Sets.newHashSet(annotated)))), loaders())));
+        return Sets.newHashSet(concat(filter, classResolver.<Object>forNames(Iterables.filter(classes, not(in(Sets.newHashSet(annotated)))))));
     }
 
     protected Iterable<String> getAllAnnotated(Iterable<String> annotated, boolean inherited, boolean honorInherited) {
+        Store store = this.store;
         if (honorInherited) {
             if (inherited) {
                 Iterable<String> subTypes = store.get(index(SubTypesScanner.class), filter(annotated, new Predicate<String>() {
                     public boolean test(@Nullable String input) {
-                        final Class<?> type = forName(input, loaders());
+                        final Class<?> type = classResolver.forName(input);
                         return type != null && !type.isInterface();
                     }
                 }));
@@ -374,7 +1155,7 @@ public class Reflections {
      */
     public Set<Method> getMethodsAnnotatedWith(final Class<? extends Annotation> annotation) {
         Iterable<String> methods = store.get(index(MethodAnnotationsScanner.class), annotation.getName());
-        return getMethodsFromDescriptors(methods, loaders());
+        return getMethodsFromDescriptors(methods, classResolver);
     }
 
     /**
@@ -390,17 +1171,17 @@ public class Reflections {
 
     /** get methods with parameter types matching given {@code types}*/
     public Set<Method> getMethodsMatchParams(Class<?>... types) {
-        return getMethodsFromDescriptors(store.get(index(MethodParameterScanner.class), names(types).toString()), loaders());
+        return getMethodsFromDescriptors(store.get(index(MethodParameterScanner.class), names(types).toString()), classResolver);
     }
 
     /** get methods with return type match given type */
     public Set<Method> getMethodsReturn(Class returnType) {
-        return getMethodsFromDescriptors(store.get(index(MethodParameterScanner.class), names(returnType)), loaders());
+        return getMethodsFromDescriptors(store.get(index(MethodParameterScanner.class), names(returnType)), classResolver);
     }
 
     /** get methods with any parameter annotated with given annotation */
     public Set<Method> getMethodsWithAnyParamAnnotated(Class<? extends Annotation> annotation) {
-        return getMethodsFromDescriptors(store.get(index(MethodParameterScanner.class), annotation.getName()), loaders());
+        return getMethodsFromDescriptors(store.get(index(MethodParameterScanner.class), annotation.getName()), classResolver);
 
     }
 
@@ -415,7 +1196,7 @@ public class Reflections {
      */
     public Set<Constructor> getConstructorsAnnotatedWith(final Class<? extends Annotation> annotation) {
         Iterable<String> methods = store.get(index(MethodAnnotationsScanner.class), annotation.getName());
-        return getConstructorsFromDescriptors(methods, loaders());
+        return getConstructorsFromDescriptors(methods, classResolver);
     }
 
     /**
@@ -431,12 +1212,12 @@ public class Reflections {
 
     /** get constructors with parameter types matching given {@code types}*/
     public Set<Constructor> getConstructorsMatchParams(Class<?>... types) {
-        return getConstructorsFromDescriptors(store.get(index(MethodParameterScanner.class), names(types).toString()), loaders());
+        return getConstructorsFromDescriptors(store.get(index(MethodParameterScanner.class), names(types).toString()), classResolver);
     }
 
     /** get constructors with any parameter annotated with given annotation */
     public Set<Constructor> getConstructorsWithAnyParamAnnotated(Class<? extends Annotation> annotation) {
-        return getConstructorsFromDescriptors(store.get(index(MethodParameterScanner.class), annotation.getName()), loaders());
+        return getConstructorsFromDescriptors(store.get(index(MethodParameterScanner.class), annotation.getName()), classResolver);
     }
 
     /** get constructors with any parameter annotated with given annotation, including annotation member values matching */
@@ -451,7 +1232,7 @@ public class Reflections {
     public Set<Field> getFieldsAnnotatedWith(final Class<? extends Annotation> annotation) {
         final Set<Field> result = Sets.newHashSet();
         for (String annotated : store.get(index(FieldAnnotationsScanner.class), annotation.getName())) {
-            result.add(getFieldFromString(annotated, loaders()));
+            result.add(getFieldFromString(annotated, classResolver));
         }
         return result;
     }
@@ -470,6 +1251,7 @@ public class Reflections {
      * <p>depends on ResourcesScanner configured
      * */
     public Set<String> getResources(final Predicate<String> namePredicate) {
+        Store store = this.store;
         Iterable<String> resources = Iterables.filter(store.get(index(ResourcesScanner.class)).keySet(), namePredicate);
         return Sets.newHashSet(store.get(index(ResourcesScanner.class), resources));
     }
@@ -506,21 +1288,124 @@ public class Reflections {
      * <p>depends on MemberUsageScanner configured
      */
     public Set<Member> getFieldUsage(Field field) {
-        return getMembersFromDescriptors(store.get(index(MemberUsageScanner.class), name(field)));
+        return getMembersFromDescriptors(store.get(index(MemberUsageScanner.class), name(field)), classResolver);
     }
 
     /** get all given {@code method} usages in methods and constructors
      * <p>depends on MemberUsageScanner configured
      */
     public Set<Member> getMethodUsage(Method method) {
-        return getMembersFromDescriptors(store.get(index(MemberUsageScanner.class), name(method)));
+        return getMembersFromDescriptors(store.get(index(MemberUsageScanner.class), name(method)), classResolver);
     }
 
     /** get all given {@code constructors} usages in methods and constructors
      * <p>depends on MemberUsageScanner configured
      */
     public Set<Member> getConstructorUsage(Constructor constructor) {
-        return getMembersFromDescriptors(store.get(index(MemberUsageScanner.class), name(constructor)));
+        return getMembersFromDescriptors(store.get(index(MemberUsageScanner.class), name(constructor)), classResolver);
+    }
+
+    //descriptor queries
+    /**
+     * gets all sub types in hierarchy of the given type, by name and without loading any class
+     * <p/>depends on SubTypesScanner configured
+     */
+    public Set<TypeDescriptor> getSubTypeDescriptorsOf(final String typeName) {
+        return typeDescriptors(store.getAll(index(SubTypesScanner.class), typeName));
+    }
+
+    /**
+     * get types annotated with the given annotation, both classes and annotations, by name and without loading any class
+     * <p>{@link Inherited} is not honored, as in {@link #getTypesAnnotatedWith(Class)}
+     * <p/>depends on TypeAnnotationsScanner and SubTypesScanner configured
+     */
+    public Set<TypeDescriptor> getTypeDescriptorsAnnotatedWith(final String annotationName) {
+        Iterable<String> annotated = store.get(index(TypeAnnotationsScanner.class), annotationName);
+        return typeDescriptors(Iterables.concat(annotated, getAllAnnotated(annotated, false, false)));
+    }
+
+    /**
+     * get all methods annotated with the given annotation, by descriptor and without loading any class
+     * <p/>depends on MethodAnnotationsScanner configured
+     */
+    public Set<MemberDescriptor> getMethodDescriptorsAnnotatedWith(final String annotationName) {
+        Set<MemberDescriptor> result = new LinkedHashSet<MemberDescriptor>();
+        for (String descriptor : store.get(index(MethodAnnotationsScanner.class), annotationName)) {
+            if (!isConstructor(descriptor)) result.add(new MemberDescriptor(descriptor, this));
+        }
+        return result;
+    }
+
+    /**
+     * get all constructors annotated with the given annotation, by descriptor and without loading any class
+     * <p/>depends on MethodAnnotationsScanner configured
+     */
+    public Set<MemberDescriptor> getConstructorDescriptorsAnnotatedWith(final String annotationName) {
+        Set<MemberDescriptor> result = new LinkedHashSet<MemberDescriptor>();
+        for (String descriptor : store.get(index(MethodAnnotationsScanner.class), annotationName)) {
+            if (isConstructor(descriptor)) result.add(new MemberDescriptor(descriptor, this));
+        }
+        return result;
+    }
+
+    /**
+     * get all fields annotated with the given annotation, by descriptor and without loading any class
+     * <p/>depends on FieldAnnotationsScanner configured
+     */
+    public Set<MemberDescriptor> getFieldDescriptorsAnnotatedWith(final String annotationName) {
+        Set<MemberDescriptor> result = new LinkedHashSet<MemberDescriptor>();
+        for (String descriptor : store.get(index(FieldAnnotationsScanner.class), annotationName)) {
+            result.add(new MemberDescriptor(descriptor, this));
+        }
+        return result;
+    }
+
+    /**
+     * get methods with parameter types matching the given type names, by descriptor and without loading any class
+     * <p/>depends on MethodParameterScanner configured
+     */
+    public Set<MemberDescriptor> getMethodDescriptorsMatchParams(final String... typeNames) {
+        Set<MemberDescriptor> result = new LinkedHashSet<MemberDescriptor>();
+        for (String descriptor : store.get(index(MethodParameterScanner.class), Arrays.asList(typeNames).toString())) {
+            if (!isConstructor(descriptor)) result.add(new MemberDescriptor(descriptor, this));
+        }
+        return result;
+    }
+
+    private Set<TypeDescriptor> typeDescriptors(Iterable<String> names) {
+        Set<TypeDescriptor> result = new LinkedHashSet<TypeDescriptor>();
+        for (String name : names) {
+            result.add(new TypeDescriptor(name, this));
+        }
+        return result;
+    }
+
+    /** annotation names of a type, from the type elements if scanned, else from the type annotations index */
+    Set<String> getAnnotationNames(String typeName) {
+        Set<String> result = new LinkedHashSet<String>();
+        Store store = this.store;
+        if (store.keySet().contains(index(TypeElementsScanner.class))) {
+            for (String element : store.get(index(TypeElementsScanner.class), typeName)) {
+                if (element.startsWith("@")) result.add(element.substring(1));
+            }
+        } else {
+            collectKeysOf(index(TypeAnnotationsScanner.class), typeName, result);
+        }
+        return result;
+    }
+
+    Set<String> getMemberAnnotationNames(MemberDescriptor member) {
+        Set<String> result = new LinkedHashSet<String>();
+        collectKeysOf(index(member.isField() ? FieldAnnotationsScanner.class : MethodAnnotationsScanner.class),
+                member.getDescriptor(), result);
+        return result;
+    }
+
+    private void collectKeysOf(String index, String value, Set<String> result) {
+        Store store = this.store;
+        if (store.keySet().contains(index)) {
+            result.addAll(store.getKeysOf(index, value));
+        }
     }
 
     /** get all types scanned. this is effectively similar to getting all subtypes of Object.
@@ -538,11 +1423,23 @@ public class Reflections {
         return allTypes;
     }
 
+    /** stops watching the scanned directories, see {@link com.ts.platform.reflection.util.ConfigurationBuilder#setWatchDirectories(boolean)} */
+    public void stopWatching() {
+        if (watcher != null) {
+            watcher.close();
+        }
+    }
+
     /** returns the {@link com.tvd12.reflections.Store} used for storing and querying the metadata */
     public Store getStore() {
         return store;
     }
 
+    /** returns the cache used for resolving type names to classes, with its hit and miss counters */
+    public ClassResolver getClassResolver() {
+        return classResolver;
+    }
+
     /** returns the {@link com.tvd12.reflections.Configuration} object of this instance */
     public Configuration getConfiguration() {
         return configuration;
@@ -567,8 +1464,64 @@ public class Reflections {
         File file = serializer.save(this, filename);
         if (log != null) //noinspection ConstantConditions
             log.debug("Reflections successfully saved in " + file.getAbsolutePath() + " using " + serializer.getClass().getSimpleName());
+        if (configuration.shouldSketchUrls()) {
+            saveSketch(new File(file.getPath() + UrlSketch.SUFFIX));
+        }
         return file;
     }
 
-    private ClassLoader[] loaders() { return configuration.getClassLoaders(); }
+    /** saves the sketch of the whole store to the given file, read by {@link #collect(String, Predicate, Predicate, Serializer...)} */
+    private void saveSketch(File file) {
+        try {
+            OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file));
+            try {
+                UrlSketch.of(store).write(outputStream);
+            } finally {
+                outputStream.close();
+            }
+        } catch (IOException e) {
+            throw new ReflectionsException("could not save url sketch " + file, e);
+        }
+    }
+
+    /**
+     * the multimap given to scanners. puts go to the shard of the current thread when sharding stores, else to the store of
+     * the url scanned by the current thread, if tracked, and to the index of this instance otherwise
+     */
+    private class ScopedMultimap implements Multimap<String, String> {
+        private final String index;
+
+        private ScopedMultimap(String index) {
+            this.index = index;
+        }
+
+        private Multimap<String, String> delegate() {
+            return store.get(index);
+        }
+
+        private Multimap<String, String> target() {
+            Store urlStore = scope.get();
+            return urlStore != null ? urlStore.getOrCreate(index) : delegate();
+        }
+
+        public boolean put(String key, String item) { return target().put(key, item); }
+
+        public boolean putAll(Multimap<String, String> multimap) { return target().putAll(multimap); }
+
+        public boolean remove(String key, String item) { return target().remove(key, item); }
+
+        public Collection<String> get(String key) { return delegate().get(key); }
+
+        public Set<String> keySet() { return delegate().keySet(); }
+
+        public Collection<String> values() { return delegate().values(); }
+
+        public Iterable<Map.Entry<String, String>> entries() { return delegate().entries(); }
+
+        public int size() { return delegate().size(); }
+
+        public boolean isEmpty() { return delegate().isEmpty(); }
+
+        public Map<String, Collection<String>> asMap() { return delegate().asMap(); }
+    }
 }
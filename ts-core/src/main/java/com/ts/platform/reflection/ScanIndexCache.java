@@ -0,0 +1,287 @@
+package com.ts.platform.reflection;
+
+import com.ts.platform.reflection.scanners.Scanner;
+import com.ts.platform.reflection.serializers.BinarySerializer;
+import com.ts.platform.reflection.serializers.Serializer;
+import com.ts.platform.reflection.util.FilterBuilder;
+import com.ts.platform.reflection.util.Utils;
+import com.ts.platform.reflection.vfs.Vfs;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * an on-disk cache of the {@link Store} contributions of each scanned jar.
+ * <p>a jar is keyed by its path, size and last modified time (and optionally a CRC32 of its content),
+ * together with the configured scanners and inputs filter, so that an unchanged jar scanned with the same configuration
+ * is merged from its snapshot instead of being scanned again. directories are never cached.
+ * <p>usage:
+ * <pre>
+ *     new Reflections(new ConfigurationBuilder()
+ *          .setUrls(ClasspathHelper.forClassLoader())
+ *          .setScanIndexCache(new ScanIndexCache(new File("target/reflections-cache"))));
+ * </pre>
+ * <p>snapshots are written with {@link BinarySerializer} by default, or with the serializer given to this cache.
+ * <p>the configuration part of the key relies on the {@code toString()} of the inputs and result filters and on
+ * {@link Scanner#getSignature()}. if a filter has no stable {@code toString()}, such as a lambda, or a scanner no
+ * signature, nothing is cached, unless the caller identifies the configuration with {@link #setConfigurationKey(String)}.
+ * <p>with {@link com.ts.platform.reflection.util.ConfigurationBuilder#setSketchUrls(boolean)}, the {@link UrlSketch} of
+ * each jar is saved next to its snapshot, so that a cached jar is sketched without reading its snapshot back.
+ */
+public class ScanIndexCache {
+    private static final String SUFFIX = ".idx";
+
+    private final File directory;
+    private final Serializer serializer;
+    private boolean checksum;
+    @Nullable private String configurationKey;
+    private volatile boolean unstableLogged;
+
+    public ScanIndexCache(File directory) {
+        this(directory, new BinarySerializer());
+    }
+
+    public ScanIndexCache(File directory, Serializer serializer) {
+        this.directory = directory;
+        this.serializer = serializer;
+    }
+
+    /** if set to true, the CRC32 of the jar content is part of the key. slower, but safe when mtimes are not reliable */
+    public ScanIndexCache setChecksum(boolean checksum) {
+        this.checksum = checksum;
+        return this;
+    }
+
+    /**
+     * identifies the inputs filter, the scanners and their options in the keys, in place of their {@code toString()} and
+     * signatures, for filters without a stable {@code toString()}. to be changed whenever any of them changes
+     */
+    public ScanIndexCache setConfigurationKey(@Nullable String configurationKey) {
+        this.configurationKey = configurationKey;
+        return this;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /** returns the cache key of the given url, or null if the url can not be cached */
+    public String keyOf(URL url, Configuration configuration) {
+        File file = Vfs.getFile(url);
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+        String configurationSignature = configurationSignature(configuration);
+        if (configurationSignature == null) {
+            if (!unstableLogged && Reflections.log != null) {
+                unstableLogged = true;
+                Reflections.log.warn("scan index cache disabled, the inputs filter or a scanner has no stable signature. " +
+                        "set a configuration key on the cache to enable it");
+            }
+            return null;
+        }
+        try {
+            String signature = configurationSignature + "|" + serializer(configuration).getClass().getName();
+            String version = file.length() + "|" + file.lastModified() + "|" + (checksum ? crc(file) : 0);
+            return hash(file.getCanonicalPath()) + "-" + hash(signature) + "-" + hash(version);
+        } catch (IOException e) {
+            if (Reflections.log != null) {
+                Reflections.log.debug("could not compute scan index key of {}", url, e);
+            }
+            return null;
+        }
+    }
+
+    /** returns the cached snapshot for the given key, or null if there is none */
+    public Reflections load(String key, Configuration configuration) {
+        File file = new File(directory, key + SUFFIX);
+        if (!file.isFile()) {
+            return null;
+        }
+        InputStream inputStream = null;
+        try {
+            Serializer serializer = serializer(configuration);
+            if (serializer instanceof BinarySerializer) {
+                return ((BinarySerializer) serializer).read(file);
+            }
+            inputStream = new FileInputStream(file);
+            return serializer.read(inputStream);
+        } catch (Exception e) {
+            if (Reflections.log != null) {
+                Reflections.log.warn("could not read scan index {}, rescanning", file, e);
+            }
+            return null;
+        } finally {
+            Utils.close(inputStream);
+        }
+    }
+
+    /** saves the given store under the given key, replacing outdated snapshots of the same jar */
+    public void save(String key, Store store, Configuration configuration) {
+        File file = new File(directory, key + SUFFIX);
+        File temp = null;
+        try {
+            //noinspection ResultOfMethodCallIgnored
+            directory.mkdirs();
+            temp = Files.createTempFile(directory.toPath(), key, ".tmp").toFile();
+            Reflections snapshot = new Reflections();
+            snapshot.store = store;
+            serializer(configuration).save(snapshot, temp.getPath());
+            try {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            removeOutdated(key);
+        } catch (Exception e) {
+            if (temp != null) {
+                //noinspection ResultOfMethodCallIgnored
+                temp.delete();
+            }
+            if (Reflections.log != null) {
+                Reflections.log.warn("could not save scan index {}", file, e);
+            }
+        }
+    }
+
+    /** returns the cached sketch for the given key, or null if there is none */
+    public UrlSketch loadSketch(String key) {
+        File file = new File(directory, key + UrlSketch.SUFFIX);
+        if (!file.isFile()) {
+            return null;
+        }
+        InputStream inputStream = null;
+        try {
+            inputStream = Files.newInputStream(file.toPath());
+            return UrlSketch.read(new BufferedInputStream(inputStream));
+        } catch (IOException e) {
+            if (Reflections.log != null) {
+                Reflections.log.debug("could not read url sketch {}", file, e);
+            }
+            return null;
+        } finally {
+            Utils.close(inputStream);
+        }
+    }
+
+    /** saves the given sketch under the given key, along with the snapshot saved under the same key */
+    public void saveSketch(String key, UrlSketch sketch) {
+        File file = new File(directory, key + UrlSketch.SUFFIX);
+        File temp = null;
+        try {
+            //noinspection ResultOfMethodCallIgnored
+            directory.mkdirs();
+            temp = Files.createTempFile(directory.toPath(), key, ".tmp").toFile();
+            OutputStream outputStream = new FileOutputStream(temp);
+            try {
+                sketch.write(outputStream);
+            } finally {
+                outputStream.close();
+            }
+            try {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            if (temp != null) {
+                //noinspection ResultOfMethodCallIgnored
+                temp.delete();
+            }
+            if (Reflections.log != null) {
+                Reflections.log.warn("could not save url sketch {}", file, e);
+            }
+        }
+    }
+
+    /**
+     * removes the snapshots of former versions of the jar of the given key, scanned with the same configuration.
+     * keys are {@code path-configuration-version}, so the snapshots of other configurations sharing the directory are kept
+     */
+    private void removeOutdated(String key) {
+        String prefix = key.substring(0, key.lastIndexOf('-') + 1);
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                if (name.startsWith(prefix) && (name.endsWith(SUFFIX) || name.endsWith(UrlSketch.SUFFIX)) &&
+                        !name.equals(key + SUFFIX) && !name.equals(key + UrlSketch.SUFFIX)) {
+                    //noinspection ResultOfMethodCallIgnored
+                    file.delete();
+                }
+            }
+        }
+    }
+
+    private Serializer serializer(Configuration configuration) {
+        return serializer != null ? serializer : configuration.getSerializer();
+    }
+
+    /** the inputs filter and the scanner signatures, the configuration key if set, or null if any is not stable */
+    @Nullable
+    private String configurationSignature(Configuration configuration) {
+        if (configurationKey != null) {
+            return configurationKey;
+        }
+        if (!FilterBuilder.hasStableToString(configuration.getInputsFilter())) {
+            return null;
+        }
+        List<String> scanners = new ArrayList<String>();
+        for (Scanner scanner : configuration.getScanners()) {
+            String signature = scanner.getSignature();
+            if (signature == null) return null;
+            scanners.add(signature);
+        }
+        Collections.sort(scanners);
+        StringBuilder result = new StringBuilder().append(configuration.getInputsFilter());
+        for (String scanner : scanners) {
+            result.append('|').append(scanner);
+        }
+        return result.toString();
+    }
+
+    private static long crc(File file) throws IOException {
+        CRC32 crc = new CRC32();
+        InputStream inputStream = new FileInputStream(file);
+        try {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+            }
+        } finally {
+            Utils.close(inputStream);
+        }
+        return crc.getValue();
+    }
+
+    private static String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < 10; i++) {
+                builder.append(String.format("%02x", digest[i]));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new ReflectionsException("could not hash scan index key", e);
+        }
+    }
+}
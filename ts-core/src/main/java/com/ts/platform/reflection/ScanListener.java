@@ -0,0 +1,28 @@
+package com.ts.platform.reflection;
+
+import com.ts.platform.reflection.scanners.Scanner;
+
+import javax.annotation.Nullable;
+import java.net.URL;
+
+/**
+ * notified of the progress of the scans of a {@link Reflections}, such as the scan of its urls on construction and
+ * {@link Reflections#rescan}, with the timings and counters of {@link ScanMetrics}.
+ * <p>set with {@link com.ts.platform.reflection.util.ConfigurationBuilder#addScanListeners(ScanListener...)}.
+ * {@link #onScanFailure} is called on the scanning threads as failures happen, the other methods once the scan is done,
+ * on the thread which started it. an exception thrown by a listener is logged and ignored.
+ */
+public interface ScanListener {
+
+    /**
+     * a scanner failed on a file, or the class file could not be read at all if the scanner is null.
+     * the file is skipped by that scanner and the scan goes on
+     */
+    void onScanFailure(URL url, String path, @Nullable Scanner scanner, Exception e);
+
+    /** the metrics of a url, once all its files were scanned */
+    void onUrlScanned(ScanMetrics.UrlMetrics metrics);
+
+    /** the metrics of the whole scan */
+    void onScanFinished(ScanMetrics metrics);
+}
@@ -0,0 +1,224 @@
+package com.ts.platform.reflection;
+
+import com.ts.platform.reflection.scanners.Scanner;
+
+import javax.annotation.Nullable;
+import java.net.URL;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * the timings and counters of a scan, per url and per scanner, reported to the {@link ScanListener}s and as
+ * {@link com.ts.platform.reflection.jfr.UrlScanEvent JFR events}.
+ * <p>collected only when a listener is configured or a scan event is enabled in a recording. the scan then reads each
+ * class file in full before parsing it, so that reading and parsing are timed apart, and times each scanner on each file.
+ * counters are updated from all scanning threads. times are in nanoseconds.
+ */
+public class ScanMetrics {
+    private final Map<URL, UrlMetrics> urls;
+    private final Map<Scanner, ScannerMetrics> scanners;
+    private long startNanos;
+    private long nanos;
+
+    ScanMetrics(Collection<URL> urls, Collection<Scanner> scanners) {
+        this.scanners = new IdentityHashMap<Scanner, ScannerMetrics>();
+        for (Scanner scanner : scanners) {
+            this.scanners.put(scanner, new ScannerMetrics(scanner));
+        }
+        this.urls = new LinkedHashMap<URL, UrlMetrics>();
+        for (URL url : urls) {
+            this.urls.put(url, new UrlMetrics(url, this.scanners));
+        }
+        this.startNanos = System.nanoTime();
+    }
+
+    /** the metrics of each url scanned, in scan order */
+    public Collection<UrlMetrics> getUrls() {
+        return Collections.unmodifiableCollection(urls.values());
+    }
+
+    /** the metrics of each scanner */
+    public Collection<ScannerMetrics> getScanners() {
+        return Collections.unmodifiableCollection(scanners.values());
+    }
+
+    /** the wall time of the whole scan */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /** the number of failures of all scanners on all urls */
+    public long getFailures() {
+        long failures = 0;
+        for (UrlMetrics url : urls.values()) {
+            failures += url.getFailures();
+        }
+        return failures;
+    }
+
+    UrlMetrics url(URL url) {
+        return urls.get(url);
+    }
+
+    void finish() {
+        nanos = System.nanoTime() - startNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "ScanMetrics{urls=" + urls.size() + ", nanos=" + nanos + ", failures=" + getFailures() + "}";
+    }
+
+    /** the metrics of a single url */
+    public static class UrlMetrics {
+        private final URL url;
+        private final Map<Scanner, ScannerMetrics> scanners;
+        private volatile boolean cached;
+        private final LongAdder openNanos = new LongAdder();
+        private final LongAdder files = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder readNanos = new LongAdder();
+        private final LongAdder parseNanos = new LongAdder();
+        private final LongAdder scanNanos = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+
+        UrlMetrics(URL url, Map<Scanner, ScannerMetrics> scanners) {
+            this.url = url;
+            this.scanners = scanners;
+        }
+
+        public URL getUrl() {
+            return url;
+        }
+
+        /** true if the url was merged from the {@link ScanIndexCache} rather than scanned, its open time is then the load time */
+        public boolean isCached() {
+            return cached;
+        }
+
+        /** the time to open the url, or to load it from the cache */
+        public long getOpenNanos() {
+            return openNanos.sum();
+        }
+
+        /** the number of files enumerated, accepted by the inputs filter or not */
+        public long getFiles() {
+            return files.sum();
+        }
+
+        /** the number of bytes of class files read */
+        public long getBytes() {
+            return bytes.sum();
+        }
+
+        /** the time to read class files */
+        public long getReadNanos() {
+            return readNanos.sum();
+        }
+
+        /** the time to parse class files into class objects */
+        public long getParseNanos() {
+            return parseNanos.sum();
+        }
+
+        /** the time of the scanners on the files of the url, parsing aside */
+        public long getScanNanos() {
+            return scanNanos.sum();
+        }
+
+        /** the number of files a scanner failed on, see {@link ScanListener#onScanFailure} */
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        void cached(long nanos) {
+            cached = true;
+            openNanos.add(nanos);
+        }
+
+        void opened(long nanos) {
+            openNanos.add(nanos);
+        }
+
+        void enumerated() {
+            files.increment();
+        }
+
+        void read(long bytes, long nanos) {
+            this.bytes.add(bytes);
+            readNanos.add(nanos);
+        }
+
+        void parsed(long nanos) {
+            parseNanos.add(nanos);
+        }
+
+        void scanned(Scanner scanner, long nanos) {
+            scanNanos.add(nanos);
+            scanners.get(scanner).scanned(nanos);
+        }
+
+        /** a failure of the given scanner, or of reading the class file if null */
+        void failed(@Nullable Scanner scanner) {
+            failures.increment();
+            if (scanner != null) scanners.get(scanner).failed();
+        }
+
+        @Override
+        public String toString() {
+            return "UrlMetrics{url=" + url + ", cached=" + cached + ", openNanos=" + getOpenNanos() + ", files=" + getFiles() +
+                    ", bytes=" + getBytes() + ", readNanos=" + getReadNanos() + ", parseNanos=" + getParseNanos() +
+                    ", scanNanos=" + getScanNanos() + ", failures=" + getFailures() + "}";
+        }
+    }
+
+    /** the metrics of a single scanner, over all urls */
+    public static class ScannerMetrics {
+        private final Scanner scanner;
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder files = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+
+        ScannerMetrics(Scanner scanner) {
+            this.scanner = scanner;
+        }
+
+        public Scanner getScanner() {
+            return scanner;
+        }
+
+        /** the time of the scanner on all files, parsing aside */
+        public long getNanos() {
+            return nanos.sum();
+        }
+
+        /** the number of files the scanner accepted */
+        public long getFiles() {
+            return files.sum();
+        }
+
+        /** the number of files the scanner failed on */
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        void scanned(long nanos) {
+            this.nanos.add(nanos);
+            files.increment();
+        }
+
+        void failed() {
+            failures.increment();
+        }
+
+        @Override
+        public String toString() {
+            return "ScannerMetrics{scanner=" + scanner.getClass().getName() + ", nanos=" + getNanos() +
+                    ", files=" + getFiles() + ", failures=" + getFailures() + "}";
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.ts.platform.reflection;
+
+import com.ts.platform.reflection.vfs.BufferedFile;
+import com.ts.platform.reflection.vfs.MappedZipFile;
+import com.ts.platform.reflection.vfs.PathDir;
+import com.ts.platform.reflection.vfs.PathFile;
+import com.ts.platform.reflection.vfs.Vfs;
+
+import com.ts.platform.reflection.concurrent.ThreadFactoryBuilder;
+
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * a streaming scan engine used by {@link Reflections#scan()} when an executor service is configured.
+ * <p>the work is split in two stages connected by a bounded queue:
+ * <ul>
+ *     <li>producers - one task per url, opening the {@link Vfs.Dir}, enumerating its files and reading the content of
+ *     every accepted class file into a {@link BufferedFile}. enumeration and reading share a stage since some dirs,
+ *     such as {@link com.ts.platform.reflection.vfs.JarInputDir}, can only be read forward</li>
+ *     <li>parsers - parse each buffered file once and feed the class object to all scanners</li>
+ * </ul>
+ * so the files of a single big jar are parsed and indexed on all threads, rather than on the one thread that opened it.
+ * the files of a {@link PathDir} are enumerated with a fork join walk. those and the entries of a
+ * {@link com.ts.platform.reflection.vfs.MappedZipDir} are handed off unread, as they can be read in any order from any thread.
+ * <p>a producer facing a full queue parses queued files itself, and the calling thread takes part as a parser,
+ * hence the pipeline makes progress with any pool size.
+ * <p>producers may run on an executor of their own, such as the virtual threads of {@link #withVirtualThreads}, as they
+ * mostly wait on io, while parsers run on a bounded pool of platform threads.
+ * all tasks of a scan are forked in a {@link TaskScope}: the first failure cancels the others and fails the scan.
+ * <p>executors created by the pipeline are shut down on {@link #close()}, the given ones are left to their owner.
+ */
+public class ScanPipeline implements Closeable {
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    private static final long POLL_MILLIS = 10;
+
+    private final Reflections reflections;
+    private final ExecutorService executorService;
+    private final Executor producerExecutor;
+    private final List<ExecutorService> owned = new ArrayList<ExecutorService>();
+    private final int parallelism;
+    private final BlockingQueue<Item> queue;
+    private final AtomicInteger activeProducers = new AtomicInteger();
+    private final AtomicInteger scannedUrls = new AtomicInteger();
+    private TaskScope scope;
+
+    public ScanPipeline(Reflections reflections, ExecutorService executorService) {
+        this(reflections, executorService, parallelismOf(executorService), DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public ScanPipeline(Reflections reflections, ExecutorService executorService, int parallelism, int queueCapacity) {
+        this(reflections, executorService, executorService, parallelism, queueCapacity);
+    }
+
+    /** a pipeline running producers on the given producer executor, and parsers on the given executor service */
+    public ScanPipeline(Reflections reflections, ExecutorService executorService, Executor producerExecutor, int parallelism, int queueCapacity) {
+        this.reflections = reflections;
+        this.executorService = executorService;
+        this.producerExecutor = producerExecutor;
+        this.parallelism = Math.max(1, parallelism);
+        this.queue = new ArrayBlockingQueue<Item>(queueCapacity);
+    }
+
+    /**
+     * a pipeline opening and reading urls on virtual threads, one per url, and parsing on the given executor service,
+     * or on a pool of {@link Runtime#availableProcessors()} daemon threads created for the pipeline if null
+     */
+    public static ScanPipeline withVirtualThreads(Reflections reflections, @Nullable ExecutorService executorService) {
+        ExecutorService parsers = executorService != null ? executorService :
+                Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("com.tvd12.reflections-parser-%d").build());
+        ExecutorService producers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("com.tvd12.reflections-reader-", 0).factory());
+        ScanPipeline pipeline = new ScanPipeline(reflections, parsers, producers, parallelismOf(parsers), DEFAULT_QUEUE_CAPACITY);
+        pipeline.owned.add(producers);
+        if (parsers != executorService) pipeline.owned.add(parsers);
+        return pipeline;
+    }
+
+    /** scans the given urls and waits for completion, returns the number of urls scanned */
+    public int scan(Collection<URL> urls) {
+        scope = new TaskScope();
+        activeProducers.set(urls.size());
+        for (final URL url : urls) {
+            scope.fork(producerExecutor, new Runnable() {
+                public void run() {
+                    produce(url);
+                }
+            });
+        }
+        for (int i = 1; i < parallelism; i++) {
+            scope.fork(executorService, new Runnable() {
+                public void run() {
+                    consume();
+                }
+            });
+        }
+
+        try {
+            consume();
+        } catch (Throwable e) {
+            scope.fail(e);
+        }
+        scope.join();
+        return scannedUrls.get();
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /** the executor service the files are parsed on */
+    public ExecutorService getExecutorService() {
+        return executorService;
+    }
+
+    /** shuts down the executors created by this pipeline */
+    public void close() {
+        for (ExecutorService executor : owned) {
+            executor.shutdown();
+        }
+    }
+
+    private void produce(URL url) {
+        try {
+            if (Reflections.log != null) {
+                Reflections.log.debug("[{}] scanning {}", Thread.currentThread().toString(), url);
+            }
+            ScanMetrics.UrlMetrics urlMetrics = reflections.urlMetrics(url);
+            long start = urlMetrics != null ? System.nanoTime() : 0;
+            Vfs.Dir dir = Vfs.fromURL(url);
+            if (urlMetrics != null) urlMetrics.opened(System.nanoTime() - start);
+            try {
+                Iterable<Vfs.File> files = dir instanceof PathDir ? ((PathDir) dir).stream()::iterator : dir.getFiles();
+                for (Vfs.File file : files) {
+                    if (urlMetrics != null) urlMetrics.enumerated();
+                    if (reflections.acceptsInput(file)) {
+                        Vfs.File read = read(url, file, urlMetrics);
+                        if (read != null) {
+                            handOff(new Item(url, read));
+                        }
+                    }
+                }
+            } finally {
+                dir.close();
+            }
+            scannedUrls.incrementAndGet();
+        } catch (ReflectionsException e) {
+            if (Reflections.log != null) {
+                Reflections.log.debug("could not scan url {}. ignoring the exception and continuing", url, e);
+            }
+        } finally {
+            activeProducers.decrementAndGet();
+        }
+    }
+
+    /** the file to hand off, buffered if it can only be read forward, or null if it could not be read */
+    @Nullable
+    private Vfs.File read(URL url, Vfs.File file, @Nullable ScanMetrics.UrlMetrics urlMetrics) {
+        if (!reflections.getConfiguration().getMetadataAdapter().acceptsInput(file.getRelativePath())) {
+            return file; //resources are scanned by name only, no need to buffer their content
+        }
+        if (file instanceof PathFile || file instanceof MappedZipFile) {
+            return file; //random access, read by the parsers in parallel
+        }
+        try {
+            if (urlMetrics == null) {
+                return BufferedFile.of(file);
+            }
+            long start = System.nanoTime();
+            BufferedFile buffered = BufferedFile.of(file);
+            urlMetrics.read(buffered.getBytes().length, System.nanoTime() - start);
+            return buffered;
+        } catch (IOException | RuntimeException e) {
+            reflections.readFailed(url, file, e);
+            return null;
+        }
+    }
+
+    private void handOff(Item item) {
+        while (!queue.offer(item)) {
+            Item queued = queue.poll();
+            if (queued != null) {
+                process(queued);
+            }
+        }
+    }
+
+    private void consume() {
+        while (true) {
+            Item item;
+            try {
+                item = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ReflectionsException("interrupted while scanning urls", e);
+            }
+            if (scope.isFailed()) {
+                return;
+            }
+            if (item != null) {
+                process(item);
+            } else if (activeProducers.get() == 0 && queue.isEmpty()) {
+                return;
+            }
+        }
+    }
+
+    private void process(Item item) {
+        reflections.scanFile(item.url, item.file);
+    }
+
+    private static int parallelismOf(ExecutorService executorService) {
+        return executorService instanceof ThreadPoolExecutor ?
+                ((ThreadPoolExecutor) executorService).getMaximumPoolSize() :
+                Runtime.getRuntime().availableProcessors();
+    }
+
+    private static class Item {
+        private final URL url;
+        private final Vfs.File file;
+
+        private Item(URL url, Vfs.File file) {
+            this.url = url;
+            this.file = file;
+        }
+    }
+}
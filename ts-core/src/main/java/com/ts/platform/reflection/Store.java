@@ -5,23 +5,36 @@ import com.ts.platform.reflection.util.*;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 
 public class Store {
 
     private transient boolean concurrent;
-    private final Map<String, Multimap<String, String>> storeMap;
+    private final ConcurrentMap<String, Multimap<String, String>> storeMap;
+    /** memoized results of getAll, per index and key */
+    private transient volatile ConcurrentMap<String, Map<String, Set<String>>> closures =
+            new ConcurrentHashMap<String, Map<String, Set<String>>>();
+    /** memoized inverted indices of getKeysOf, per index, from each value to its keys */
+    private transient volatile ConcurrentMap<String, Map<String, Set<String>>> inverses =
+            new ConcurrentHashMap<String, Map<String, Set<String>>>();
 
     //used via reflection
     protected Store() {
-        storeMap = new HashMap<String, Multimap<String, String>>();
+        storeMap = new ConcurrentHashMap<String, Multimap<String, String>>();
         concurrent = false;
     }
 
     public Store(Configuration configuration) {
-        storeMap = new HashMap<String, Multimap<String, String>>();
-        concurrent = configuration.getExecutorService() != null;
+        this(configuration, configuration.getExecutorService() != null || configuration.shouldUseVirtualThreads());
+    }
+
+    /** a store whose indices are written by several threads if {@code concurrent}, or by a single one */
+    public Store(Configuration configuration, boolean concurrent) {
+        storeMap = new ConcurrentHashMap<String, Multimap<String, String>>();
+        this.concurrent = concurrent;
     }
 
     /** return all indices */
@@ -33,19 +46,57 @@ public class Store {
     public Multimap<String, String> getOrCreate(String index) {
         Multimap<String, String> mmap = storeMap.get(index);
         if (mmap == null) {
-            SetMultimap<String, String> multimap =
-                    Multimaps.newSetMultimap(new HashMap<String, Collection<String>>(),
-                            new Supplier<Set<String>>() {
-                                public Set<String> get() {
-                                    return Sets.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
-                                }
-                            });
-            mmap = concurrent ? Multimaps.synchronizedSetMultimap(multimap) : multimap;
-            storeMap.put(index,mmap);
+            mmap = storeMap.computeIfAbsent(index, new Function<String, Multimap<String, String>>() {
+                public Multimap<String, String> apply(String index) {
+                    return concurrent ? newConcurrentMultimap() : newMultimap();
+                }
+            });
         }
         return mmap;
     }
 
+    /** creates the multimap of a new index, written by a single thread */
+    protected SetMultimap<String, String> newMultimap() {
+        return Multimaps.newSetMultimap(new HashMap<String, Collection<String>>(),
+                new Supplier<Set<String>>() {
+                    public Set<String> get() {
+                        return Sets.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+                    }
+                });
+    }
+
+    /** creates the multimap of a new index, written by several threads when an executor service is configured */
+    protected SetMultimap<String, String> newConcurrentMultimap() {
+        return new ConcurrentSetMultimap<String, String>();
+    }
+
+    /** adds all entries of the given store to this one */
+    public void merge(Store other) {
+        for (String indexName : other.keySet()) {
+            merge(indexName, other);
+        }
+        invalidate();
+    }
+
+    /** adds the entries of the given index of the given store to this one, without invalidating the memoized closures */
+    protected void merge(String indexName, Store other) {
+        Multimap<String, String> index = other.get(indexName);
+        Multimap<String, String> target = getOrCreate(indexName);
+        for (String key : index.keySet()) {
+            for (String string : index.get(key)) {
+                target.put(key, string);
+            }
+        }
+    }
+
+    /**
+     * makes the given index of the given store an index of this one as well, shared rather than copied, see
+     * {@link Reflections#rescan}. the index must not be written to through the other store anymore
+     */
+    protected void share(String indexName, Store other) {
+        storeMap.put(indexName, other.get(indexName));
+    }
+
     public Multimap<String, String> get(String index) {
         Multimap<String, String> mmap = storeMap.get(index);
         if (mmap == null) {
@@ -67,25 +118,109 @@ public class Store {
         return result;
     }
 
-    private Iterable<String> getAllIncluding(String index, Iterable<String> keys, IterableChain<String> result) {
-        result.addAll(keys);
-        for (String key : keys) {
-            Iterable<String> values = get(index, key);
-            if (values.iterator().hasNext()) {
-                getAllIncluding(index, values, result);
-            }
+    /** gets all values reachable from the given {@code key} through the given {@code index}, transitively */
+    public Iterable<String> getAll(String index, String key) {
+        return closure(index, get(index), key);
+    }
+
+    /** gets all values reachable from the given {@code keys} through the given {@code index}, transitively */
+    public Iterable<String> getAll(String index, Iterable<String> keys) {
+        Multimap<String, String> mmap = get(index);
+        Iterator<String> iterator = keys.iterator();
+        if (!iterator.hasNext()) {
+            return Collections.emptySet();
+        }
+        Set<String> first = closure(index, mmap, iterator.next());
+        if (!iterator.hasNext()) {
+            return first;
+        }
+        Set<String> result = new LinkedHashSet<String>(first);
+        while (iterator.hasNext()) {
+            result.addAll(closure(index, mmap, iterator.next()));
         }
         return result;
     }
 
-    public Iterable<String> getAll(String index, String key) {
-        return getAllIncluding(index, get(index, key), new IterableChain<String>());
+    /**
+     * gets the keys of the given {@code index} that have the given {@code value}, from an inverted view of the index
+     * built once on first use, rather than by going through all the keys
+     */
+    public Set<String> getKeysOf(String index, String value) {
+        ConcurrentMap<String, Map<String, Set<String>>> inverses = this.inverses;
+        Map<String, Set<String>> inverse = inverses.get(index);
+        if (inverse == null) {
+            inverse = invert(get(index));
+            Map<String, Set<String>> existing = inverses.putIfAbsent(index, inverse);
+            if (existing != null) inverse = existing;
+        }
+        Set<String> keys = inverse.get(value);
+        return keys != null ? Collections.unmodifiableSet(keys) : Collections.<String>emptySet();
     }
 
-    public Iterable<String> getAll(String index, Iterable<String> keys) {
-    		Iterable<String> storedValues = get(index, keys);
-    		IterableChain<String> result = new IterableChain<String>();
-        return getAllIncluding(index, storedValues, result);
+    /**
+     * drops the memoized transitive closures of {@link #getAll(String, String)} and inverted indices of
+     * {@link #getKeysOf(String, String)}.
+     * <p>done on {@link #merge(Store)}, and needed after writing to an index directly once it was queried
+     */
+    public void invalidate() {
+        closures = new ConcurrentHashMap<String, Map<String, Set<String>>>();
+        inverses = new ConcurrentHashMap<String, Map<String, Set<String>>>();
+    }
+
+    private static Map<String, Set<String>> invert(Multimap<String, String> mmap) {
+        Map<String, Set<String>> result = new HashMap<String, Set<String>>();
+        for (String key : mmap.keySet()) {
+            for (String value : mmap.get(key)) {
+                Set<String> keys = result.get(value);
+                if (keys == null) {
+                    keys = new LinkedHashSet<String>();
+                    result.put(value, keys);
+                }
+                keys.add(key);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * the memoized closure of a key, computed breadth first.
+     * the closures of values that were memoized already are added as a whole rather than walked again
+     */
+    private Set<String> closure(String index, Multimap<String, String> mmap, String key) {
+        ConcurrentMap<String, Map<String, Set<String>>> closures = this.closures;
+        Map<String, Set<String>> memo = closures.get(index);
+        if (memo == null) {
+            memo = new ConcurrentHashMap<String, Set<String>>();
+            Map<String, Set<String>> existing = closures.putIfAbsent(index, memo);
+            if (existing != null) memo = existing;
+        }
+        Set<String> closure = memo.get(key);
+        if (closure != null) {
+            return closure;
+        }
+
+        Set<String> result = new LinkedHashSet<String>();
+        Deque<String> pending = new ArrayDeque<String>();
+        pending.add(key);
+        while (!pending.isEmpty()) {
+            String next = pending.poll();
+            if (!mmap.keySet().contains(next)) {
+                continue;
+            }
+            for (String value : mmap.get(next)) {
+                if (result.add(value)) {
+                    Set<String> known = memo.get(value);
+                    if (known != null) {
+                        result.addAll(known);
+                    } else {
+                        pending.add(value);
+                    }
+                }
+            }
+        }
+        closure = Collections.unmodifiableSet(result);
+        memo.put(key, closure);
+        return closure;
     }
 
     @SuppressWarnings("unchecked")
@@ -0,0 +1,106 @@
+package com.ts.platform.reflection;
+
+import javax.annotation.Nullable;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * the private stores of the threads taking part in a parallel scan,
+ * see {@link com.ts.platform.reflection.util.ConfigurationBuilder#setShardStores(boolean)}.
+ * <p>each thread writes to shards of its own, one per tracked url and one for all other urls, which are plain stores
+ * written without any synchronization. once the scan is done, {@link #mergeInto} adds the shards up into their targets,
+ * each index of each target in a task of its own.
+ */
+class StoreShards {
+    private final Supplier<Store> factory;
+    private final ThreadLocal<Map<URL, Store>> local = new ThreadLocal<Map<URL, Store>>();
+    private final Queue<Map<URL, Store>> all = new ConcurrentLinkedQueue<Map<URL, Store>>();
+
+    StoreShards(Supplier<Store> factory) {
+        this.factory = factory;
+    }
+
+    /** the shard of the current thread for the given tracked url, or for the untracked urls if null */
+    Store get(@Nullable URL url) {
+        Map<URL, Store> shards = local.get();
+        if (shards == null) {
+            shards = new HashMap<URL, Store>();
+            local.set(shards);
+            all.add(shards);
+        }
+        Store shard = shards.get(url);
+        if (shard == null) {
+            shard = factory.get();
+            shards.put(url, shard);
+        }
+        return shard;
+    }
+
+    /**
+     * merges the shards of each tracked url into its store in {@code urlTargets}, and the other shards into {@code target},
+     * on the given executor service. to be called once the threads writing to the shards are done
+     */
+    void mergeInto(Store target, Map<URL, Store> urlTargets, ExecutorService executorService) {
+        Map<Store, List<Store>> merges = new IdentityHashMap<Store, List<Store>>();
+        for (Map<URL, Store> shards : all) {
+            for (Map.Entry<URL, Store> entry : shards.entrySet()) {
+                Store into = entry.getKey() != null ? urlTargets.get(entry.getKey()) : target;
+                List<Store> sources = merges.get(into);
+                if (sources == null) {
+                    merges.put(into, sources = new ArrayList<Store>());
+                }
+                sources.add(entry.getValue());
+            }
+            //the maps stay reachable from the pool threads until their thread locals are expunged
+            shards.clear();
+        }
+        all.clear();
+
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        for (final Map.Entry<Store, List<Store>> merge : merges.entrySet()) {
+            Set<String> indices = new LinkedHashSet<String>();
+            for (Store source : merge.getValue()) {
+                indices.addAll(source.keySet());
+            }
+            for (final String index : indices) {
+                tasks.add(new Callable<Void>() {
+                    public Void call() {
+                        for (Store source : merge.getValue()) {
+                            if (source.keySet().contains(index)) {
+                                merge.getKey().merge(index, source);
+                            }
+                        }
+                        return null;
+                    }
+                });
+            }
+        }
+
+        try {
+            for (Future<Void> future : executorService.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new ReflectionsException("could not merge store shards", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReflectionsException("interrupted while merging store shards", e);
+        }
+        for (Store into : merges.keySet()) {
+            into.invalidate();
+        }
+    }
+}
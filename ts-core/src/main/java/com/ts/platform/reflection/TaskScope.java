@@ -0,0 +1,138 @@
+package com.ts.platform.reflection;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * a scope for the tasks of a scan, forked on any executor and joined together, in the manner of
+ * {@code java.util.concurrent.StructuredTaskScope}, which is still a preview api.
+ * <ul>
+ *     <li>fail fast - the first task failing cancels all the others, interrupting the running ones</li>
+ *     <li>structured - {@link #join()} returns once every task forked is done, none outlives the scope,
+ *     and interrupting the joining thread cancels them as well</li>
+ * </ul>
+ */
+class TaskScope {
+    private final List<Task> tasks = new CopyOnWriteArrayList<Task>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+    private final Object lock = new Object();
+    private int pending;
+
+    /** runs the given task on the given executor, as part of this scope */
+    void fork(Executor executor, Runnable runnable) {
+        Task task = new Task(runnable);
+        synchronized (lock) {
+            pending++;
+        }
+        tasks.add(task);
+        if (isFailed()) {
+            task.abort();
+            return;
+        }
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.abort();
+            fail(e);
+        }
+    }
+
+    /** true once a task failed, the others are then cancelled */
+    boolean isFailed() {
+        return failure.get() != null;
+    }
+
+    /** waits for all tasks forked, throws if one of them failed */
+    void join() {
+        boolean interrupted = false;
+        synchronized (lock) {
+            while (pending > 0) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    if (!interrupted) {
+                        interrupted = true;
+                        cancelAll();
+                    }
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+            throw new ReflectionsException("interrupted while scanning urls");
+        }
+        Throwable cause = failure.get();
+        if (cause != null) {
+            throw new ReflectionsException("could not scan urls", cause);
+        }
+    }
+
+    /** fails the scope with the given cause, unless it failed already, and cancels the tasks */
+    void fail(Throwable cause) {
+        if (failure.compareAndSet(null, cause)) {
+            cancelAll();
+        }
+    }
+
+    private void cancelAll() {
+        for (Task task : tasks) {
+            task.cancel(true);
+            task.abort();
+        }
+    }
+
+    private void finished() {
+        synchronized (lock) {
+            if (--pending == 0) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /** a task counted as pending until its body returned, or until it was cancelled before starting */
+    private class Task extends FutureTask<Void> {
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private Task(Runnable runnable) {
+            super(runnable, null);
+        }
+
+        @Override
+        public void run() {
+            if (claimed.compareAndSet(false, true)) {
+                try {
+                    super.run();
+                } finally {
+                    finished();
+                }
+            }
+        }
+
+        /** marks the task done if it did not start yet, it will not */
+        private void abort() {
+            if (claimed.compareAndSet(false, true)) {
+                finished();
+            }
+        }
+
+        @Override
+        protected void done() {
+            if (isCancelled()) {
+                return;
+            }
+            try {
+                get();
+            } catch (ExecutionException e) {
+                fail(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
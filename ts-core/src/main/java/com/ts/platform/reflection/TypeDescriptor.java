@@ -0,0 +1,65 @@
+package com.ts.platform.reflection;
+
+import java.util.Set;
+
+/**
+ * a scanned type known by name only, returned by the descriptor queries of {@link Reflections}.
+ * <p>names and annotation names come from the store, the class is loaded only when {@link #resolve()} is called,
+ * so callers can filter by name or package first:
+ * <pre>
+ *     for (TypeDescriptor type : reflections.getSubTypeDescriptorsOf("com.acme.Plugin")) {
+ *         if (type.getPackageName().startsWith("com.acme.enabled")) plugins.add(type.resolve());
+ *     }
+ * </pre>
+ */
+public class TypeDescriptor {
+    private final String name;
+    private final Reflections reflections;
+
+    TypeDescriptor(String name, Reflections reflections) {
+        this.name = name;
+        this.reflections = reflections;
+    }
+
+    /** the fully qualified name, as in {@link Class#getName()} */
+    public String getName() {
+        return name;
+    }
+
+    public String getSimpleName() {
+        return name.substring(Math.max(name.lastIndexOf('.'), name.lastIndexOf('$')) + 1);
+    }
+
+    public String getPackageName() {
+        int dot = name.lastIndexOf('.');
+        return dot != -1 ? name.substring(0, dot) : "";
+    }
+
+    /**
+     * the names of the annotations on this type.
+     * <p>depends on TypeElementsScanner or TypeAnnotationsScanner configured
+     */
+    public Set<String> getAnnotationNames() {
+        return reflections.getAnnotationNames(name);
+    }
+
+    /** loads the class, using the class loaders of the configuration. returns null if it can not be found */
+    public Class<?> resolve() {
+        return reflections.getClassResolver().forName(name);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof TypeDescriptor && name.equals(((TypeDescriptor) o).name);
+    }
+
+    @Override
+    public int hashCode() {
+        return name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
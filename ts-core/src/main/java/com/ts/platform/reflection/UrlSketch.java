@@ -0,0 +1,155 @@
+package com.ts.platform.reflection;
+
+import com.ts.platform.reflection.scanners.FieldAnnotationsScanner;
+import com.ts.platform.reflection.scanners.MethodAnnotationsScanner;
+import com.ts.platform.reflection.scanners.SubTypesScanner;
+import com.ts.platform.reflection.scanners.TypeAnnotationsScanner;
+import com.ts.platform.reflection.scanners.TypeElementsScanner;
+import com.ts.platform.reflection.util.BloomFilter;
+import com.ts.platform.reflection.util.Multimap;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.ts.platform.reflection.util.Utils.index;
+
+/**
+ * a compact summary of the metadata of a single url, as bloom filters of
+ * <ul>
+ *     <li>the annotations of its types, methods and fields</li>
+ *     <li>the super types its types extend or implement directly</li>
+ *     <li>the packages of its types, of their super types and of their annotations, along with their parent packages</li>
+ * </ul>
+ * each filter may answer true for a name the url does not have, 1% of the time, but never false for a name it has.
+ * so a url whose sketch answers false can not contribute to a query, and is skipped without looking at its store.
+ * <p>built while scanning with {@link com.ts.platform.reflection.util.ConfigurationBuilder#setSketchUrls(boolean)},
+ * saved along with the snapshots of a {@link ScanIndexCache} and with {@link Reflections#save(String)}, and used by
+ * {@link Reflections#getUrlsMatching(java.util.function.Predicate)}, {@link Reflections#rescan} and
+ * {@link Reflections#collect(String, java.util.function.Predicate, java.util.function.Predicate, com.ts.platform.reflection.serializers.Serializer...)}.
+ */
+public class UrlSketch {
+    public static final String SUFFIX = ".sketch";
+    public static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int VERSION = 1;
+
+    private final BloomFilter annotations;
+    private final BloomFilter superTypes;
+    private final BloomFilter packages;
+
+    private UrlSketch(BloomFilter annotations, BloomFilter superTypes, BloomFilter packages) {
+        this.annotations = annotations;
+        this.superTypes = superTypes;
+        this.packages = packages;
+    }
+
+    /** sketches the given store, the contributions of a single url or any other store */
+    public static UrlSketch of(Store store) {
+        Set<String> annotations = new HashSet<String>();
+        Set<String> superTypes = new HashSet<String>();
+        Set<String> packages = new HashSet<String>();
+
+        for (String index : new String[] {index(TypeAnnotationsScanner.class), index(MethodAnnotationsScanner.class), index(FieldAnnotationsScanner.class)}) {
+            if (store.keySet().contains(index)) {
+                annotations.addAll(store.get(index).keySet());
+            }
+        }
+        String subTypes = index(SubTypesScanner.class);
+        if (store.keySet().contains(subTypes)) {
+            Multimap<String, String> mmap = store.get(subTypes);
+            superTypes.addAll(mmap.keySet());
+            addValuePackages(mmap, packages);
+        }
+        String typeAnnotations = index(TypeAnnotationsScanner.class);
+        if (store.keySet().contains(typeAnnotations)) {
+            addValuePackages(store.get(typeAnnotations), packages);
+        }
+        String typeElements = index(TypeElementsScanner.class);
+        if (store.keySet().contains(typeElements)) {
+            for (String type : store.get(typeElements).keySet()) {
+                addPackages(type, packages);
+            }
+        }
+        for (String type : superTypes) {
+            addPackages(type, packages);
+        }
+        for (String type : annotations) {
+            addPackages(type, packages);
+        }
+        return new UrlSketch(filter(annotations), filter(superTypes), filter(packages));
+    }
+
+    /** false if no type, method nor field of the url is annotated with the given annotation */
+    public boolean mayHaveAnnotation(String annotation) {
+        return annotations.mightContain(annotation);
+    }
+
+    /** false if no type of the url directly extends or implements the given type */
+    public boolean mayHaveSubTypesOf(String type) {
+        return superTypes.mightContain(type);
+    }
+
+    /** false if the url has no type in the given package nor in its sub packages, and refers to none */
+    public boolean mayHavePackage(String packageName) {
+        return packages.mightContain(packageName);
+    }
+
+    /** false if the given key can not be in the given index of the store sketched, true if it may be or if the index is not sketched */
+    public boolean mayHaveKey(String index, String key) {
+        if (index.equals(index(SubTypesScanner.class))) {
+            return superTypes.mightContain(key);
+        }
+        if (index.equals(index(TypeAnnotationsScanner.class)) || index.equals(index(MethodAnnotationsScanner.class)) ||
+                index.equals(index(FieldAnnotationsScanner.class))) {
+            return annotations.mightContain(key);
+        }
+        return true;
+    }
+
+    public void write(OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeByte(VERSION);
+        annotations.write(out);
+        superTypes.write(out);
+        packages.write(out);
+        out.flush();
+    }
+
+    public static UrlSketch read(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(inputStream);
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("unsupported url sketch version " + version);
+        }
+        return new UrlSketch(BloomFilter.read(in), BloomFilter.read(in), BloomFilter.read(in));
+    }
+
+    private static BloomFilter filter(Set<String> names) {
+        BloomFilter filter = new BloomFilter(names.size(), FALSE_POSITIVE_RATE);
+        for (String name : names) {
+            filter.put(name);
+        }
+        return filter;
+    }
+
+    private static void addValuePackages(Multimap<String, String> mmap, Set<String> packages) {
+        for (String key : mmap.keySet()) {
+            for (String type : mmap.get(key)) {
+                addPackages(type, packages);
+            }
+        }
+    }
+
+    /** adds the package of the given type name and all its parent packages */
+    private static void addPackages(String typeName, Set<String> packages) {
+        for (int dot = typeName.lastIndexOf('.'); dot > 0; dot = typeName.lastIndexOf('.', dot - 1)) {
+            if (!packages.add(typeName.substring(0, dot))) {
+                return; //parents added already
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.ts.platform.reflection.adapters;
+
+
+import com.ts.platform.reflection.ReflectionsException;
+import com.ts.platform.reflection.adapters.ClassFileReader.MemberInfo;
+import com.ts.platform.reflection.util.Joiner;
+import com.ts.platform.reflection.util.Utils;
+import com.ts.platform.reflection.vfs.BufferedFile;
+import com.ts.platform.reflection.vfs.MappedZipFile;
+import com.ts.platform.reflection.vfs.Vfs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Modifier;
+import java.util.List;
+
+/**
+ * a metadata adapter reading class files with the minimal {@link ClassFileReader}, rather than building a full javassist
+ * {@code ClassFile} with the constant pool, all attributes and the code of every method.
+ * <p>produces the same keys and values as {@link JavassistAdapter}. {@link com.ts.platform.reflection.scanners.MemberUsageScanner}
+ * decodes method bodies from the class objects of this adapter as well, while
+ * {@link com.ts.platform.reflection.scanners.MethodParameterNamesScanner} still needs the {@link JavassistAdapter}.
+ * <pre>
+ *     new Reflections(new ConfigurationBuilder()
+ *          .setUrls(ClasspathHelper.forClassLoader())
+ *          .setMetadataAdapter(new BytecodeAdapter()));
+ * </pre>
+ */
+public class BytecodeAdapter implements MetadataAdapter<ClassFileReader, MemberInfo, MemberInfo> {
+
+    /**setting this to false will result in returning only visible annotations from the relevant methods here (only {@link java.lang.annotation.RetentionPolicy#RUNTIME})*/
+    public static boolean includeInvisibleTag = true;
+
+    public String getClassName(final ClassFileReader cls) {
+        return cls.getClassName();
+    }
+
+    public String getSuperclassName(final ClassFileReader cls) {
+        return cls.getSuperclassName();
+    }
+
+    public List<String> getInterfacesNames(final ClassFileReader cls) {
+        return cls.getInterfaceNames();
+    }
+
+    public List<MemberInfo> getFields(final ClassFileReader cls) {
+        return cls.getFields();
+    }
+
+    public List<MemberInfo> getMethods(final ClassFileReader cls) {
+        return cls.getMethods();
+    }
+
+    public String getMethodName(final MemberInfo method) {
+        return method.getName();
+    }
+
+    public List<String> getParameterNames(final MemberInfo method) {
+        return ClassFileReader.parameterTypeNames(method.getDescriptor());
+    }
+
+    public List<String> getClassAnnotationNames(final ClassFileReader aClass) {
+        return aClass.getAnnotationNames(includeInvisibleTag);
+    }
+
+    public List<String> getFieldAnnotationNames(final MemberInfo field) {
+        return field.getAnnotationNames(includeInvisibleTag);
+    }
+
+    public List<String> getMethodAnnotationNames(final MemberInfo method) {
+        return method.getAnnotationNames(includeInvisibleTag);
+    }
+
+    public List<String> getParameterAnnotationNames(final MemberInfo method, final int parameterIndex) {
+        return method.getParameterAnnotationNames(parameterIndex);
+    }
+
+    public String getReturnTypeName(final MemberInfo method) {
+        return ClassFileReader.returnTypeName(method.getDescriptor());
+    }
+
+    public String getFieldName(final MemberInfo field) {
+        return field.getName();
+    }
+
+    public ClassFileReader getOrCreateClassObject(final Vfs.File file) {
+        if (file instanceof BufferedFile) {
+            return new ClassFileReader(((BufferedFile) file).getBytes());
+        }
+        if (file instanceof MappedZipFile) {
+            try {
+                return new ClassFileReader(((MappedZipFile) file).getContent());
+            } catch (IOException e) {
+                throw new ReflectionsException("could not create class file from " + file.getName(), e);
+            }
+        }
+        InputStream inputStream = null;
+        try {
+            inputStream = file.openInputStream();
+            return new ClassFileReader(inputStream.readAllBytes());
+        } catch (IOException e) {
+            throw new ReflectionsException("could not create class file from " + file.getName(), e);
+        } finally {
+            Utils.close(inputStream);
+        }
+    }
+
+    public String getMethodModifier(MemberInfo method) {
+        int accessFlags = method.getAccessFlags();
+        return Modifier.isPrivate(accessFlags) ? "private" :
+               Modifier.isProtected(accessFlags) ? "protected" :
+               Modifier.isPublic(accessFlags) ? "public" : "";
+    }
+
+    public String getMethodKey(ClassFileReader cls, MemberInfo method) {
+        return getMethodName(method) + "(" + Joiner.on(", ").join(getParameterNames(method)) + ")";
+    }
+
+    public String getMethodFullKey(ClassFileReader cls, MemberInfo method) {
+        return getClassName(cls) + "." + getMethodKey(cls, method);
+    }
+
+    public boolean isPublic(Object o) {
+        Integer accessFlags =
+                o instanceof ClassFileReader ? ((ClassFileReader) o).getAccessFlags() :
+                o instanceof MemberInfo ? ((MemberInfo) o).getAccessFlags() : null;
+
+        return accessFlags != null && Modifier.isPublic(accessFlags);
+    }
+
+    public boolean acceptsInput(String file) {
+        return file.endsWith(".class");
+    }
+}
@@ -0,0 +1,482 @@
+package com.ts.platform.reflection.adapters;
+
+import com.ts.platform.reflection.ReflectionsException;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * a minimal reader of the class file format, over the bytes of a single class, in an array or a buffer.
+ * <p>the constructor makes one pass over the file, recording the offsets of the constant pool entries, of each field and
+ * method, and of the class annotations. attributes are skipped by length, so {@code Code} and the attributes nested in it
+ * are never decoded. names, descriptors and annotations are decoded only when asked for, and each constant pool string
+ * at most once.
+ * <p>the code of a method is decoded only by {@link MemberInfo#visitCode(CodeVisitor)}, for the members it refers to.
+ */
+public class ClassFileReader {
+    private static final int MAGIC = 0xCAFEBABE;
+    //the opcodes passed to a CodeVisitor
+    public static final int GETSTATIC = 0xb2;
+    public static final int PUTSTATIC = 0xb3;
+    public static final int GETFIELD = 0xb4;
+    public static final int PUTFIELD = 0xb5;
+    public static final int INVOKEVIRTUAL = 0xb6;
+    public static final int INVOKESPECIAL = 0xb7;
+    public static final int INVOKESTATIC = 0xb8;
+    public static final int INVOKEINTERFACE = 0xb9;
+
+    private final ByteBuffer b;
+    private final int[] cp; //offset of each constant pool entry, after its tag
+    private final String[] strings;
+    private String[] classNames;
+    private final int accessFlags;
+    private final int thisClass;
+    private final int superClass;
+    private final int interfaces; //offset of the interfaces count
+    private final int[] fieldOffsets;
+    private final int[] methodOffsets;
+    private final int visibleAnnotations; //offset of the attribute content, or -1
+    private final int invisibleAnnotations;
+    private List<MemberInfo> fields;
+    private List<MemberInfo> methods;
+
+    public ClassFileReader(byte[] bytes) {
+        this(ByteBuffer.wrap(bytes));
+    }
+
+    /** reads the class from the remaining bytes of the given buffer, which must not change while this reader is used */
+    public ClassFileReader(ByteBuffer buffer) {
+        this.b = buffer.slice();
+        try {
+            if (readInt(0) != MAGIC) {
+                throw new ReflectionsException("not a class file");
+            }
+            int count = readUnsignedShort(8);
+            cp = new int[count];
+            strings = new String[count];
+            int offset = 10;
+            for (int i = 1; i < count; i++) {
+                int tag = b.get(offset++);
+                cp[i] = offset;
+                switch (tag) {
+                    case 1: offset += 2 + readUnsignedShort(offset); break;           //Utf8
+                    case 3: case 4: case 9: case 10: case 11: case 12: case 17: case 18: offset += 4; break;
+                    case 5: case 6: offset += 8; i++; break;                           //Long, Double take two entries
+                    case 7: case 8: case 16: case 19: case 20: offset += 2; break;
+                    case 15: offset += 3; break;                                       //MethodHandle
+                    default: throw new ReflectionsException("unknown constant pool tag " + tag + " at " + (offset - 1));
+                }
+            }
+            accessFlags = readUnsignedShort(offset);
+            thisClass = readUnsignedShort(offset + 2);
+            superClass = readUnsignedShort(offset + 4);
+            interfaces = offset + 6;
+            offset = interfaces + 2 + 2 * readUnsignedShort(interfaces);
+
+            fieldOffsets = new int[readUnsignedShort(offset)];
+            offset += 2;
+            for (int i = 0; i < fieldOffsets.length; i++) {
+                fieldOffsets[i] = offset;
+                offset = skipAttributes(offset + 6);
+            }
+            methodOffsets = new int[readUnsignedShort(offset)];
+            offset += 2;
+            for (int i = 0; i < methodOffsets.length; i++) {
+                methodOffsets[i] = offset;
+                offset = skipAttributes(offset + 6);
+            }
+
+            int visible = -1, invisible = -1;
+            int attributes = readUnsignedShort(offset);
+            offset += 2;
+            for (int i = 0; i < attributes; i++) {
+                int name = readUnsignedShort(offset);
+                int length = readInt(offset + 2);
+                if (utf8Equals(name, "RuntimeVisibleAnnotations")) visible = offset + 6;
+                else if (utf8Equals(name, "RuntimeInvisibleAnnotations")) invisible = offset + 6;
+                offset += 6 + length;
+            }
+            visibleAnnotations = visible;
+            invisibleAnnotations = invisible;
+        } catch (IndexOutOfBoundsException e) {
+            throw new ReflectionsException("truncated class file", e);
+        }
+    }
+
+    public int getAccessFlags() {
+        return accessFlags;
+    }
+
+    public String getClassName() {
+        return className(thisClass);
+    }
+
+    /** the superclass name, null for java.lang.Object and module-info */
+    public String getSuperclassName() {
+        return superClass != 0 ? className(superClass) : null;
+    }
+
+    public List<String> getInterfaceNames() {
+        int count = readUnsignedShort(interfaces);
+        List<String> result = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(className(readUnsignedShort(interfaces + 2 + 2 * i)));
+        }
+        return result;
+    }
+
+    public List<MemberInfo> getFields() {
+        if (fields == null) fields = members(fieldOffsets);
+        return fields;
+    }
+
+    public List<MemberInfo> getMethods() {
+        if (methods == null) methods = members(methodOffsets);
+        return methods;
+    }
+
+    /** the type names of the class annotations, runtime visible first */
+    public List<String> getAnnotationNames(boolean includeInvisible) {
+        return annotationNames(visibleAnnotations, includeInvisible ? invisibleAnnotations : -1);
+    }
+
+    /** a field or a method of the class read */
+    public class MemberInfo {
+        private final int accessFlags;
+        private final int nameIndex;
+        private final int descriptorIndex;
+        private int visibleAnnotations = -1;
+        private int invisibleAnnotations = -1;
+        private int visibleParameterAnnotations = -1;
+        private int invisibleParameterAnnotations = -1;
+        private int code = -1;
+
+        private MemberInfo(int offset) {
+            accessFlags = readUnsignedShort(offset);
+            nameIndex = readUnsignedShort(offset + 2);
+            descriptorIndex = readUnsignedShort(offset + 4);
+            int attributes = readUnsignedShort(offset + 6);
+            offset += 8;
+            for (int i = 0; i < attributes; i++) {
+                int name = readUnsignedShort(offset);
+                int length = readInt(offset + 2);
+                if (utf8Equals(name, "RuntimeVisibleAnnotations")) visibleAnnotations = offset + 6;
+                else if (utf8Equals(name, "RuntimeInvisibleAnnotations")) invisibleAnnotations = offset + 6;
+                else if (utf8Equals(name, "RuntimeVisibleParameterAnnotations")) visibleParameterAnnotations = offset + 6;
+                else if (utf8Equals(name, "RuntimeInvisibleParameterAnnotations")) invisibleParameterAnnotations = offset + 6;
+                else if (utf8Equals(name, "Code")) code = offset + 6;
+                offset += 6 + length;
+            }
+        }
+
+        public int getAccessFlags() {
+            return accessFlags;
+        }
+
+        public String getName() {
+            return utf8(nameIndex);
+        }
+
+        /** the descriptor, such as {@code (Ljava/lang/String;I)V} */
+        public String getDescriptor() {
+            return utf8(descriptorIndex);
+        }
+
+        /** the type names of the member annotations, runtime visible first */
+        public List<String> getAnnotationNames(boolean includeInvisible) {
+            return annotationNames(visibleAnnotations, includeInvisible ? invisibleAnnotations : -1);
+        }
+
+        /** the type names of the annotations of the given parameter, runtime visible first */
+        public List<String> getParameterAnnotationNames(int parameterIndex) {
+            List<String> result = new ArrayList<String>();
+            parameterAnnotationNames(visibleParameterAnnotations, parameterIndex, result);
+            parameterAnnotationNames(invisibleParameterAnnotations, parameterIndex, result);
+            return result;
+        }
+
+        /** false for abstract and native methods */
+        public boolean hasCode() {
+            return code != -1;
+        }
+
+        /**
+         * decodes the code of this method, passing each field access and method invocation to the given visitor, in code
+         * order, with the source line of the instruction if known. references are passed as written in the constant pool,
+         * no class is resolved. invokedynamic instructions are skipped
+         */
+        public void visitCode(CodeVisitor visitor) {
+            if (code == -1) return;
+            int length = readInt(code + 4);
+            int start = code + 8;
+            int end = start + length;
+            int[] lines = lineNumbers(end);
+            int pc = 0;
+            while (pc < length) {
+                int opcode = b.get(start + pc) & 0xFF;
+                switch (opcode) {
+                    case GETSTATIC: case PUTSTATIC: case GETFIELD: case PUTFIELD:
+                    case INVOKEVIRTUAL: case INVOKESPECIAL: case INVOKESTATIC: case INVOKEINTERFACE:
+                        int ref = cp[readUnsignedShort(start + pc + 1)];
+                        int nameAndType = cp[readUnsignedShort(ref + 2)];
+                        visitor.visitMemberRef(opcode, className(readUnsignedShort(ref)),
+                                utf8(readUnsignedShort(nameAndType)), utf8(readUnsignedShort(nameAndType + 2)), lineNumber(lines, pc));
+                        break;
+                }
+                pc = next(start, pc, opcode);
+            }
+        }
+
+        /** the start pc and line pairs of the first line number table of the code, or null */
+        private int[] lineNumbers(int offset) {
+            offset += 2 + 8 * readUnsignedShort(offset); //exception table
+            int attributes = readUnsignedShort(offset);
+            offset += 2;
+            for (int i = 0; i < attributes; i++) {
+                int name = readUnsignedShort(offset);
+                if (utf8Equals(name, "LineNumberTable")) {
+                    int count = readUnsignedShort(offset + 6);
+                    int[] lines = new int[2 * count];
+                    for (int j = 0; j < lines.length; j++) {
+                        lines[j] = readUnsignedShort(offset + 8 + 2 * j);
+                    }
+                    return lines;
+                }
+                offset += 6 + readInt(offset + 2);
+            }
+            return null;
+        }
+    }
+
+    /** receives the members referred to by the code of a method, see {@link MemberInfo#visitCode(CodeVisitor)} */
+    public interface CodeVisitor {
+        /**
+         * a field access or a method invocation, with the opcode, the class owning the member as written in the constant pool,
+         * the member name and its descriptor, and the source line or -1
+         */
+        void visitMemberRef(int opcode, String owner, String name, String descriptor, int line);
+    }
+
+    //
+    private List<MemberInfo> members(int[] offsets) {
+        if (offsets.length == 0) return Collections.emptyList();
+        List<MemberInfo> result = new ArrayList<MemberInfo>(offsets.length);
+        for (int offset : offsets) result.add(new MemberInfo(offset));
+        return result;
+    }
+
+    private List<String> annotationNames(int visible, int invisible) {
+        if (visible == -1 && invisible == -1) return Collections.emptyList();
+        List<String> result = new ArrayList<String>();
+        if (visible != -1) annotations(visible, result);
+        if (invisible != -1) annotations(invisible, result);
+        return result;
+    }
+
+    private void parameterAnnotationNames(int offset, int parameterIndex, List<String> result) {
+        if (offset == -1) return;
+        int parameters = b.get(offset) & 0xFF;
+        offset++;
+        for (int i = 0; i < parameters && i <= parameterIndex; i++) {
+            offset = annotations(offset, i == parameterIndex ? result : null);
+        }
+    }
+
+    /** reads a count prefixed list of annotations, adding their type names to {@code result} if not null */
+    private int annotations(int offset, List<String> result) {
+        int count = readUnsignedShort(offset);
+        offset += 2;
+        for (int i = 0; i < count; i++) {
+            offset = annotation(offset, result);
+        }
+        return offset;
+    }
+
+    private int annotation(int offset, List<String> result) {
+        if (result != null) result.add(typeName(utf8(readUnsignedShort(offset)), 0));
+        int pairs = readUnsignedShort(offset + 2);
+        offset += 4;
+        for (int i = 0; i < pairs; i++) {
+            offset = skipElementValue(offset + 2);
+        }
+        return offset;
+    }
+
+    private int skipElementValue(int offset) {
+        switch (b.get(offset)) {
+            case 'e': return offset + 5;
+            case '@': return annotation(offset + 1, null);
+            case '[':
+                int count = readUnsignedShort(offset + 1);
+                offset += 3;
+                for (int i = 0; i < count; i++) offset = skipElementValue(offset);
+                return offset;
+            default: return offset + 3; //constants and class
+        }
+    }
+
+    private int skipAttributes(int offset) {
+        int count = readUnsignedShort(offset);
+        offset += 2;
+        for (int i = 0; i < count; i++) {
+            offset += 6 + readInt(offset + 2);
+        }
+        return offset;
+    }
+
+    private String className(int classIndex) {
+        if (classNames == null) classNames = new String[cp.length];
+        String name = classNames[classIndex];
+        if (name == null) {
+            name = utf8(readUnsignedShort(cp[classIndex]));
+            //array classes, such as the owner of an array clone, are named by their descriptor
+            name = name.startsWith("[") ? typeName(name, 0) : name.replace('/', '.');
+            classNames[classIndex] = name;
+        }
+        return name;
+    }
+
+    /** the source line of the given pc, as javassist's {@code LineNumberAttribute.toLineNumber} */
+    private static int lineNumber(int[] lines, int pc) {
+        if (lines == null || lines.length == 0) return -1;
+        int i = 0;
+        for (; i < lines.length; i += 2) {
+            if (pc < lines[i]) {
+                if (i == 0) return lines[1];
+                break;
+            }
+        }
+        return lines[i - 1];
+    }
+
+    /** the pc of the instruction following the one at the given pc */
+    private int next(int start, int pc, int opcode) {
+        switch (opcode) {
+            case 0x10: case 0x12: case 0x15: case 0x16: case 0x17: case 0x18: case 0x19:           //bipush, ldc, loads
+            case 0x36: case 0x37: case 0x38: case 0x39: case 0x3a: case 0xa9: case 0xbc:           //stores, ret, newarray
+                return pc + 2;
+            case 0x11: case 0x13: case 0x14: case 0x84: case 0xb2: case 0xb3: case 0xb4: case 0xb5: //sipush, ldc_w, iinc, fields
+            case 0xb6: case 0xb7: case 0xb8: case 0xbb: case 0xbd: case 0xc0: case 0xc1: case 0xc6: case 0xc7:
+                return pc + 3;
+            case 0xc5:                                                                             //multianewarray
+                return pc + 4;
+            case 0xb9: case 0xba: case 0xc8: case 0xc9:                                            //invokeinterface, invokedynamic, goto_w, jsr_w
+                return pc + 5;
+            case 0xc4:                                                                             //wide
+                return pc + ((b.get(start + pc + 1) & 0xFF) == 0x84 ? 6 : 4);
+            case 0xaa: {                                                                           //tableswitch
+                int p = (pc + 4) & ~3;
+                int low = readInt(start + p + 4);
+                int high = readInt(start + p + 8);
+                return p + 12 + 4 * (high - low + 1);
+            }
+            case 0xab: {                                                                           //lookupswitch
+                int p = (pc + 4) & ~3;
+                return p + 8 + 8 * readInt(start + p + 4);
+            }
+            default:
+                if (opcode >= 0x99 && opcode <= 0xa8) return pc + 3;                               //branches
+                return pc + 1;
+        }
+    }
+
+    private String utf8(int index) {
+        String string = strings[index];
+        if (string == null) {
+            int offset = cp[index];
+            int length = readUnsignedShort(offset);
+            boolean ascii = true;
+            for (int i = offset + 2; i < offset + 2 + length && ascii; i++) ascii = b.get(i) > 0;
+            if (ascii && b.hasArray()) {
+                string = new String(b.array(), b.arrayOffset() + offset + 2, length, StandardCharsets.ISO_8859_1);
+            } else if (ascii) {
+                byte[] bytes = new byte[length];
+                b.get(offset + 2, bytes);
+                string = new String(bytes, StandardCharsets.ISO_8859_1);
+            } else {
+                byte[] bytes = new byte[length + 2];
+                b.get(offset, bytes);
+                try {
+                    string = new DataInputStream(new ByteArrayInputStream(bytes)).readUTF();
+                } catch (IOException e) {
+                    throw new ReflectionsException("malformed constant pool string at " + offset, e);
+                }
+            }
+            strings[index] = string;
+        }
+        return string;
+    }
+
+    private boolean utf8Equals(int index, String ascii) {
+        int offset = cp[index];
+        int length = readUnsignedShort(offset);
+        if (length != ascii.length()) return false;
+        for (int i = 0; i < length; i++) {
+            if (b.get(offset + 2 + i) != ascii.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private int readUnsignedShort(int offset) {
+        return ((b.get(offset) & 0xFF) << 8) | (b.get(offset + 1) & 0xFF);
+    }
+
+    private int readInt(int offset) {
+        return b.getInt(offset);
+    }
+
+    //descriptors
+    /** the java type names of the parameters of a method descriptor, such as {@code int} or {@code java.lang.String[]} */
+    public static List<String> parameterTypeNames(String methodDescriptor) {
+        List<String> result = new ArrayList<String>();
+        int offset = 1;
+        while (methodDescriptor.charAt(offset) != ')') {
+            result.add(typeName(methodDescriptor, offset));
+            offset = typeEnd(methodDescriptor, offset);
+        }
+        return result;
+    }
+
+    /** the java type name of the return type of a method descriptor */
+    public static String returnTypeName(String methodDescriptor) {
+        return typeName(methodDescriptor, methodDescriptor.lastIndexOf(')') + 1);
+    }
+
+    private static String typeName(String descriptor, int offset) {
+        int dimensions = 0;
+        while (descriptor.charAt(offset) == '[') {
+            dimensions++;
+            offset++;
+        }
+        String name;
+        char c = descriptor.charAt(offset);
+        switch (c) {
+            case 'L': name = descriptor.substring(offset + 1, descriptor.indexOf(';', offset)).replace('/', '.'); break;
+            case 'Z': name = "boolean"; break;
+            case 'C': name = "char"; break;
+            case 'B': name = "byte"; break;
+            case 'S': name = "short"; break;
+            case 'I': name = "int"; break;
+            case 'J': name = "long"; break;
+            case 'F': name = "float"; break;
+            case 'D': name = "double"; break;
+            case 'V': name = "void"; break;
+            default: throw new ReflectionsException("malformed descriptor " + descriptor);
+        }
+        if (dimensions == 0) return name;
+        StringBuilder builder = new StringBuilder(name.length() + 2 * dimensions).append(name);
+        for (int i = 0; i < dimensions; i++) builder.append("[]");
+        return builder.toString();
+    }
+
+    private static int typeEnd(String descriptor, int offset) {
+        while (descriptor.charAt(offset) == '[') offset++;
+        return descriptor.charAt(offset) == 'L' ? descriptor.indexOf(';', offset) + 1 : offset + 1;
+    }
+}
@@ -108,7 +108,7 @@ public class JavassistAdapter implements MetadataAdapter<ClassFile, FieldInfo, M
         int accessFlags = method.getAccessFlags();
         return isPrivate(accessFlags) ? "private" :
                isProtected(accessFlags) ? "protected" :
-               isPublic(accessFlags) ? "public" : "";
+               AccessFlag.isPublic(accessFlags) ? "public" : "";
     }
 
     public String getMethodKey(ClassFile cls, MethodInfo method) {
@@ -0,0 +1,38 @@
+package com.ts.platform.reflection.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * the resolution of a member descriptor to a {@link java.lang.reflect.Member}, loading its declaring class and parameter
+ * types, from {@link com.ts.platform.reflection.util.Utils#getMemberFromDescriptor}.
+ * <p>recorded above 1 ms by default, which leaves out the members resolved already
+ */
+@Name("com.ts.platform.reflection.DescriptorResolve")
+@Label("Reflections Descriptor Resolve")
+@Category({"TS Platform", "Reflections"})
+@Description("The resolution of a member descriptor, loading its declaring class and parameter types")
+@Threshold("1 ms")
+@StackTrace(true)
+public class DescriptorResolveEvent extends Event {
+    @Label("Descriptor")
+    public String descriptor;
+
+    @Label("Resolved")
+    public boolean resolved;
+
+    /** ends the resolution, committing it if it took longer than the threshold */
+    public void complete(String descriptor, boolean resolved) {
+        end();
+        if (shouldCommit()) {
+            this.descriptor = descriptor;
+            this.resolved = resolved;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.ts.platform.reflection.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * a type name none of the class loaders has, from {@link com.ts.platform.reflection.ReflectionUtils#forName} and the
+ * first lookup of a {@link com.ts.platform.reflection.ClassResolver}. spans the lookup through all class loaders.
+ * <p>every miss is recorded by default, a threshold in the settings of the recording keeps the slow ones only
+ */
+@Name("com.ts.platform.reflection.ForNameMiss")
+@Label("Reflections Class Not Found")
+@Category({"TS Platform", "Reflections"})
+@Description("A type name none of the class loaders has")
+@Threshold("0 ms")
+@StackTrace(true)
+public class ForNameMissEvent extends Event {
+    @Label("Type Name")
+    public String typeName;
+
+    @Label("Class Loaders")
+    public int classLoaders;
+
+    /** ends the lookup, committing it if it missed and took longer than the threshold */
+    public void complete(String typeName, int classLoaders, boolean missed) {
+        end();
+        if (missed && shouldCommit()) {
+            this.typeName = typeName;
+            this.classLoaders = classLoaders;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.ts.platform.reflection.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** a scan of a {@link com.ts.platform.reflection.Reflections}, on construction or rescan, see {@link ScanEvents} */
+@Name("com.ts.platform.reflection.Scan")
+@Label("Reflections Scan")
+@Category({"TS Platform", "Reflections"})
+@Description("The scan of the urls of a Reflections, on construction or rescan")
+@Enabled(false)
+@StackTrace(false)
+public class ScanEvent extends Event {
+    @Label("Urls")
+    public int urls;
+
+    @Label("Cached Urls")
+    @Description("Urls merged from the scan index cache rather than scanned")
+    public int cachedUrls;
+
+    @Label("Files")
+    public long files;
+
+    @Label("Bytes Read")
+    @DataAmount
+    public long bytes;
+
+    @Label("Failures")
+    @Description("Files a scanner failed on")
+    public long failures;
+}
@@ -0,0 +1,78 @@
+package com.ts.platform.reflection.jfr;
+
+import com.ts.platform.reflection.ScanMetrics;
+import jdk.jfr.EventType;
+
+/**
+ * JDK Flight Recorder events of the scans, enabled with a recording such as
+ * {@code -XX:StartFlightRecording:+com.ts.platform.reflection.UrlScan#enabled=true}. all three events are disabled by
+ * default, as collecting the metrics reads each file to memory before parsing it, so that an unrelated recording does
+ * not slow the scans down.
+ * <p>a {@link ScanEvent} spans each scan, and one {@link UrlScanEvent} per url and {@link ScannerEvent} per scanner are
+ * committed at its end, with the {@link ScanMetrics} of the scan. metrics are only collected when these events are enabled
+ * or a {@link com.ts.platform.reflection.ScanListener} is configured.
+ */
+public final class ScanEvents {
+    private static final EventType SCAN = EventType.getEventType(ScanEvent.class);
+    private static final EventType URL_SCAN = EventType.getEventType(UrlScanEvent.class);
+    private static final EventType SCANNER = EventType.getEventType(ScannerEvent.class);
+
+    private ScanEvents() {
+    }
+
+    /** true if any scan event is enabled in a running recording */
+    public static boolean isEnabled() {
+        return SCAN.isEnabled() || URL_SCAN.isEnabled() || SCANNER.isEnabled();
+    }
+
+    /** starts the event of a scan, to be committed with {@link #commit(ScanEvent, ScanMetrics)} */
+    public static ScanEvent begin() {
+        ScanEvent event = new ScanEvent();
+        event.begin();
+        return event;
+    }
+
+    /** commits the events of the given finished scan */
+    public static void commit(ScanEvent scan, ScanMetrics metrics) {
+        long files = 0;
+        long bytes = 0;
+        int cachedUrls = 0;
+        for (ScanMetrics.UrlMetrics url : metrics.getUrls()) {
+            files += url.getFiles();
+            bytes += url.getBytes();
+            if (url.isCached()) cachedUrls++;
+            UrlScanEvent event = new UrlScanEvent();
+            if (event.isEnabled()) {
+                event.url = url.getUrl().toExternalForm();
+                event.cached = url.isCached();
+                event.openTime = url.getOpenNanos();
+                event.files = url.getFiles();
+                event.bytes = url.getBytes();
+                event.readTime = url.getReadNanos();
+                event.parseTime = url.getParseNanos();
+                event.scanTime = url.getScanNanos();
+                event.failures = url.getFailures();
+                event.commit();
+            }
+        }
+        for (ScanMetrics.ScannerMetrics scanner : metrics.getScanners()) {
+            ScannerEvent event = new ScannerEvent();
+            if (event.isEnabled()) {
+                event.scanner = scanner.getScanner().getClass();
+                event.files = scanner.getFiles();
+                event.scanTime = scanner.getNanos();
+                event.failures = scanner.getFailures();
+                event.commit();
+            }
+        }
+        scan.end();
+        if (scan.shouldCommit()) {
+            scan.urls = metrics.getUrls().size();
+            scan.cachedUrls = cachedUrls;
+            scan.files = files;
+            scan.bytes = bytes;
+            scan.failures = metrics.getFailures();
+            scan.commit();
+        }
+    }
+}
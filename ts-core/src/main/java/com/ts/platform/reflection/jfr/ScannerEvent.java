@@ -0,0 +1,33 @@
+package com.ts.platform.reflection.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/** the work of a single scanner over a scan, committed once the scan is done, see {@link ScanEvents} */
+@Name("com.ts.platform.reflection.Scanner")
+@Label("Reflections Scanner")
+@Category({"TS Platform", "Reflections"})
+@Description("The time and counters of a single scanner over all urls of a scan")
+@Enabled(false)
+@StackTrace(false)
+public class ScannerEvent extends Event {
+    @Label("Scanner")
+    public Class<?> scanner;
+
+    @Label("Files")
+    public long files;
+
+    @Label("Scan Time")
+    @Description("The time of the scanner, parsing aside")
+    @Timespan
+    public long scanTime;
+
+    @Label("Failures")
+    public long failures;
+}
@@ -0,0 +1,56 @@
+package com.ts.platform.reflection.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/** the scan of a single url, committed once the scan is done, see {@link ScanEvents} */
+@Name("com.ts.platform.reflection.UrlScan")
+@Label("Reflections Url Scan")
+@Category({"TS Platform", "Reflections"})
+@Description("The timings and counters of the scan of a single url")
+@Enabled(false)
+@StackTrace(false)
+public class UrlScanEvent extends Event {
+    @Label("Url")
+    public String url;
+
+    @Label("Cached")
+    @Description("Merged from the scan index cache rather than scanned")
+    public boolean cached;
+
+    @Label("Open Time")
+    @Description("The time to open the url, or to load it from the cache")
+    @Timespan
+    public long openTime;
+
+    @Label("Files")
+    @Description("Files enumerated, accepted by the inputs filter or not")
+    public long files;
+
+    @Label("Bytes Read")
+    @DataAmount
+    public long bytes;
+
+    @Label("Read Time")
+    @Timespan
+    public long readTime;
+
+    @Label("Parse Time")
+    @Timespan
+    public long parseTime;
+
+    @Label("Scan Time")
+    @Description("The time of the scanners, parsing aside")
+    @Timespan
+    public long scanTime;
+
+    @Label("Failures")
+    public long failures;
+}
@@ -5,6 +5,7 @@ package com.ts.platform.reflection.scanners;
 import com.ts.platform.reflection.Configuration;
 import com.ts.platform.reflection.ReflectionsException;
 import com.ts.platform.reflection.adapters.MetadataAdapter;
+import com.ts.platform.reflection.util.FilterBuilder;
 import com.ts.platform.reflection.util.Multimap;
 import com.ts.platform.reflection.util.Predicates;
 import com.ts.platform.reflection.vfs.Vfs;
@@ -66,6 +67,11 @@ public abstract class AbstractScanner implements Scanner {
         this.setResultFilter(filter); return this;
     }
 
+    /** the class name with the result filter, or null if the result filter has no stable {@code toString()} */
+    public String getSignature() {
+        return FilterBuilder.hasStableToString(resultFilter) ? getClass().getName() + "(" + resultFilter + ")" : null;
+    }
+
     public boolean acceptResult(final String fqn) {
         return fqn != null && resultFilter.test(fqn);
     }
@@ -0,0 +1,131 @@
+package com.ts.platform.reflection.scanners;
+
+import com.ts.platform.reflection.adapters.MetadataAdapter;
+import com.ts.platform.reflection.vfs.Vfs;
+
+import javax.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * walks a class once for several {@link ScanVisitor}s, rather than each scanner listing the fields and methods of the
+ * class and computing their names again. fields and methods are only listed if a visitor asks for them.
+ * <p>used by {@link com.ts.platform.reflection.Reflections} for the {@link #isFusable fusable} scanners of a scan,
+ * and by each such scanner on its own for {@link Scanner#scan(Vfs.File, Object)}.
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public final class ClassWalker {
+
+    private ClassWalker() {
+    }
+
+    /**
+     * walks the given class with the given visitors. a visitor throwing is skipped for the rest of the class,
+     * the exceptions are returned at the index of their visitor, or null if no visitor failed
+     */
+    public static RuntimeException[] walk(MetadataAdapter adapter, Object cls, List<? extends ScanVisitor> visitors) {
+        return walk(adapter, cls, visitors, null);
+    }
+
+    /**
+     * walks the given class with the given visitors, as {@link #walk(MetadataAdapter, Object, List)}, adding the time
+     * spent in each visitor to the given array at the index of the visitor, if not null
+     */
+    public static RuntimeException[] walk(MetadataAdapter adapter, Object cls, List<? extends ScanVisitor> visitors, @Nullable long[] nanos) {
+        ScannedClass scanned = new ScannedClass(adapter, cls);
+        int size = visitors.size();
+        RuntimeException[] failures = null;
+        boolean fields = false;
+        boolean methods = false;
+
+        for (int i = 0; i < size; i++) {
+            ScanVisitor visitor = visitors.get(i);
+            long start = nanos != null ? System.nanoTime() : 0;
+            try {
+                visitor.visitClass(scanned);
+                fields |= visitor.visitsFields();
+                methods |= visitor.visitsMethods();
+            } catch (RuntimeException e) {
+                failures = failed(failures, size, i, e);
+            }
+            if (nanos != null) {
+                nanos[i] += System.nanoTime() - start;
+            }
+        }
+
+        if (fields) {
+            for (Object field : (List<Object>) adapter.getFields(cls)) {
+                ScannedClass.ScannedField scannedField = scanned.new ScannedField(field);
+                for (int i = 0; i < size; i++) {
+                    ScanVisitor visitor = visitors.get(i);
+                    if ((failures == null || failures[i] == null) && visitor.visitsFields()) {
+                        long start = nanos != null ? System.nanoTime() : 0;
+                        try {
+                            visitor.visitField(scannedField);
+                        } catch (RuntimeException e) {
+                            failures = failed(failures, size, i, e);
+                        }
+                        if (nanos != null) {
+                            nanos[i] += System.nanoTime() - start;
+                        }
+                    }
+                }
+            }
+        }
+
+        if (methods) {
+            for (Object method : (List<Object>) adapter.getMethods(cls)) {
+                ScannedClass.ScannedMethod scannedMethod = scanned.new ScannedMethod(method);
+                for (int i = 0; i < size; i++) {
+                    ScanVisitor visitor = visitors.get(i);
+                    if ((failures == null || failures[i] == null) && visitor.visitsMethods()) {
+                        long start = nanos != null ? System.nanoTime() : 0;
+                        try {
+                            visitor.visitMethod(scannedMethod);
+                        } catch (RuntimeException e) {
+                            failures = failed(failures, size, i, e);
+                        }
+                        if (nanos != null) {
+                            nanos[i] += System.nanoTime() - start;
+                        }
+                    }
+                }
+            }
+        }
+        return failures;
+    }
+
+    /** walks the given class with a single visitor, rethrowing its exception */
+    public static void walk(MetadataAdapter adapter, Object cls, ScanVisitor visitor) {
+        RuntimeException[] failures = walk(adapter, cls, Collections.singletonList(visitor));
+        if (failures != null) {
+            throw failures[0];
+        }
+    }
+
+    /**
+     * true if the given scanner is a {@link ScanVisitor} which may be walked along with others, that is,
+     * its {@code scan} methods are the ones of this package, not overridden to do something else
+     */
+    public static boolean isFusable(Scanner scanner) {
+        if (!(scanner instanceof ScanVisitor)) {
+            return false;
+        }
+        try {
+            Package scanners = ScanVisitor.class.getPackage();
+            return scanner.getClass().getMethod("scan", Object.class).getDeclaringClass().getPackage() == scanners &&
+                    scanner.getClass().getMethod("scan", Vfs.File.class, Object.class).getDeclaringClass().getPackage() == scanners;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static RuntimeException[] failed(RuntimeException[] failures, int size, int index, RuntimeException e) {
+        if (failures == null) {
+            failures = new RuntimeException[size];
+        }
+        failures[index] = e;
+        return failures;
+    }
+}
@@ -1,21 +1,30 @@
 package com.ts.platform.reflection.scanners;
 
-import java.util.List;
-
-@SuppressWarnings({"unchecked"})
-public class FieldAnnotationsScanner extends AbstractScanner {
+public class FieldAnnotationsScanner extends AbstractScanner implements ScanVisitor {
     public void scan(final Object cls) {
-        final String className = getMetadataAdapter().getClassName(cls);
-        List<Object> fields = getMetadataAdapter().getFields(cls);
-        for (final Object field : fields) {
-            List<String> fieldAnnotations = getMetadataAdapter().getFieldAnnotationNames(field);
-            for (String fieldAnnotation : fieldAnnotations) {
+        ClassWalker.walk(getMetadataAdapter(), cls, this);
+    }
+
+    public void visitClass(ScannedClass cls) {
+    }
+
+    public void visitField(ScannedClass.ScannedField field) {
+        for (String fieldAnnotation : field.getAnnotationNames()) {
 
-                if (acceptResult(fieldAnnotation)) {
-                    String fieldName = getMetadataAdapter().getFieldName(field);
-                    getStore().put(fieldAnnotation, String.format("%s.%s", className, fieldName));
-                }
+            if (acceptResult(fieldAnnotation)) {
+                getStore().put(fieldAnnotation, field.getFullKey());
             }
         }
     }
+
+    public void visitMethod(ScannedClass.ScannedMethod method) {
+    }
+
+    public boolean visitsFields() {
+        return true;
+    }
+
+    public boolean visitsMethods() {
+        return false;
+    }
 }
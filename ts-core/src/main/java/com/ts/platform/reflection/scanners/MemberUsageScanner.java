@@ -2,102 +2,110 @@ package com.ts.platform.reflection.scanners;
 
 
 import com.ts.platform.reflection.ReflectionsException;
+import com.ts.platform.reflection.adapters.ClassFileReader;
+import com.ts.platform.reflection.adapters.ClassFileReader.MemberInfo;
 import com.ts.platform.reflection.util.ClasspathHelper;
 import com.ts.platform.reflection.util.Joiner;
-import javassist.*;
-import javassist.bytecode.MethodInfo;
-import javassist.expr.*;
+import com.ts.platform.reflection.util.Utils;
+import javassist.bytecode.ClassFile;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
 
+/**
+ * indexes the usages of fields, methods and constructors in the methods and constructors of the scanned classes,
+ * keyed by the member used, such as {@code java.util.List.add(java.lang.Object)}, with the user and its source line as
+ * values, such as {@code com.acme.Foo.bar(int) #12}.
+ * <p>the code of each method is decoded from the class file, reading the field accesses and invocations through their
+ * constant pool references. no class is loaded nor resolved, hence a member is keyed by the class it is referred to
+ * through in the code, which declares it or inherits it. instantiations and {@code super(...)} calls are usages of the
+ * invoked constructor.
+ * <p>{@link #compact()} leaves the line numbers out, so that each user is a single value, shared by all the members it
+ * uses. along with {@link com.ts.platform.reflection.util.ConfigurationBuilder#setInternNames(boolean)}, each member
+ * then holds the int ids of its users.
+ */
 @SuppressWarnings("unchecked")
 public class MemberUsageScanner extends AbstractScanner {
-    private ClassPool classPool;
+    private boolean compact;
 
     @Override
     public void scan(Object cls) {
-        try {
-            CtClass ctClass = getClassPool().get(getMetadataAdapter().getClassName(cls));
-            for (CtBehavior member : ctClass.getDeclaredConstructors()) {
-                scanMember(member);
-            }
-            for (CtBehavior member : ctClass.getDeclaredMethods()) {
-                scanMember(member);
+        ClassFileReader reader = reader(cls);
+        String className = reader.getClassName();
+        final Map<String, String> parameterNames = new HashMap<String, String>();
+        for (MemberInfo method : reader.getMethods()) {
+            if (!method.hasCode() || method.getName().equals("<clinit>")) {
+                continue;
             }
-            ctClass.detach();
-        } catch (Exception e) {
-            throw new ReflectionsException("Could not scan method usage for " + getMetadataAdapter().getClassName(cls), e);
+            final String key = className + "." + method.getName() + "(" + parameterNames(method.getDescriptor(), parameterNames) + ")";
+            method.visitCode(new ClassFileReader.CodeVisitor() {
+                public void visitMemberRef(int opcode, String owner, String name, String descriptor, int line) {
+                    if (opcode <= ClassFileReader.PUTFIELD) {
+                        put(owner + "." + name, line, key);
+                    } else {
+                        put(owner + "." + name + "(" + parameterNames(descriptor, parameterNames) + ")", line, key);
+                    }
+                }
+            });
         }
     }
 
-    void scanMember(CtBehavior member) throws CannotCompileException {
-        //key contains this$/val$ means local field/parameter closure
-        final String key = member.getDeclaringClass().getName() + "." + member.getMethodInfo().getName() +
-                "(" + parameterNames(member.getMethodInfo()) + ")"; //+ " #" + member.getMethodInfo().getLineNumber(0)
-        member.instrument(new ExprEditor() {
-            @Override
-            public void edit(NewExpr e) throws CannotCompileException {
-                try {
-                    put(e.getConstructor().getDeclaringClass().getName() + "." + "<init>" +
-                            "(" + parameterNames(e.getConstructor().getMethodInfo()) + ")", e.getLineNumber(), key);
-                } catch (NotFoundException e1) {
-                    throw new ReflectionsException("Could not find new instance usage in " + key, e1);
-                }
-            }
-
-            @Override
-            public void edit(MethodCall m) throws CannotCompileException {
-                try {
-                    put(m.getMethod().getDeclaringClass().getName() + "." + m.getMethodName() +
-                            "(" + parameterNames(m.getMethod().getMethodInfo()) + ")", m.getLineNumber(), key);
-                } catch (NotFoundException e) {
-                    throw new ReflectionsException("Could not find member " + m.getClassName() + " in " + key, e);
-                }
-            }
+    /** leaves the line numbers out of the values, see {@link MemberUsageScanner} */
+    public MemberUsageScanner compact() { return compact(true); }
+    public MemberUsageScanner compact(boolean compact) { this.compact = compact; return this; }
 
-            @Override
-            public void edit(ConstructorCall c) throws CannotCompileException {
-                try {
-                    put(c.getConstructor().getDeclaringClass().getName() + "." + "<init>" +
-                            "(" + parameterNames(c.getConstructor().getMethodInfo()) + ")", c.getLineNumber(), key);
-                } catch (NotFoundException e) {
-                    throw new ReflectionsException("Could not find member " + c.getClassName() + " in " + key, e);
-                }
-            }
-
-            @Override
-            public void edit(FieldAccess f) throws CannotCompileException {
-                try {
-                    put(f.getField().getDeclaringClass().getName() + "." + f.getFieldName(), f.getLineNumber(), key);
-                } catch (NotFoundException e) {
-                    throw new ReflectionsException("Could not find member " + f.getFieldName() + " in " + key, e);
-                }
-            }
-        });
+    @Override
+    public String getSignature() {
+        String signature = super.getSignature();
+        return signature != null && compact ? signature + " compact" : signature;
     }
 
     private void put(String key, int lineNumber, String value) {
         if (acceptResult(key)) {
-            getStore().put(key, value + " #" + lineNumber);
+            getStore().put(key, compact ? value : value + " #" + lineNumber);
         }
     }
 
-    String parameterNames(MethodInfo info) {
-        return Joiner.on(", ").join(getMetadataAdapter().getParameterNames(info));
+    /** the parameter type names of the given method descriptor, joined once per class */
+    private static String parameterNames(String descriptor, Map<String, String> parameterNames) {
+        String names = parameterNames.get(descriptor);
+        if (names == null) {
+            names = Joiner.on(", ").join(ClassFileReader.parameterTypeNames(descriptor));
+            parameterNames.put(descriptor, names);
+        }
+        return names;
     }
 
-    private ClassPool getClassPool() {
-        if (classPool == null) {
-            synchronized (this) {
-                classPool = new ClassPool();
-                ClassLoader[] classLoaders = getConfiguration().getClassLoaders();
-                if (classLoaders == null) {
-                    classLoaders = ClasspathHelper.classLoaders();
-                }
-                for (ClassLoader classLoader : classLoaders) {
-                    classPool.appendClassPath(new LoaderClassPath(classLoader));
+    /** the class file of the given class object, read again for a javassist class file, or from the class loaders otherwise */
+    private ClassFileReader reader(Object cls) {
+        if (cls instanceof ClassFileReader) {
+            return (ClassFileReader) cls;
+        }
+        try {
+            if (cls instanceof ClassFile) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                ((ClassFile) cls).write(new DataOutputStream(bytes));
+                return new ClassFileReader(bytes.toByteArray());
+            }
+            String resource = getMetadataAdapter().getClassName(cls).replace('.', '/') + ".class";
+            ClassLoader[] classLoaders = getConfiguration().getClassLoaders();
+            for (ClassLoader classLoader : classLoaders != null ? classLoaders : ClasspathHelper.classLoaders()) {
+                InputStream inputStream = classLoader.getResourceAsStream(resource);
+                if (inputStream != null) {
+                    try {
+                        return new ClassFileReader(inputStream.readAllBytes());
+                    } finally {
+                        Utils.close(inputStream);
+                    }
                 }
             }
+            throw new ReflectionsException("Could not find class file " + resource);
+        } catch (IOException e) {
+            throw new ReflectionsException("Could not read class file of " + getMetadataAdapter().getClassName(cls), e);
         }
-        return classPool;
     }
 }
@@ -1,17 +1,30 @@
 package com.ts.platform.reflection.scanners;
 
-import java.util.List;
-
-@SuppressWarnings({"unchecked"})
 /** scans for method's annotations */
-public class MethodAnnotationsScanner extends AbstractScanner {
+public class MethodAnnotationsScanner extends AbstractScanner implements ScanVisitor {
     public void scan(final Object cls) {
-        for (Object method : getMetadataAdapter().getMethods(cls)) {
-            for (String methodAnnotation : (List<String>) getMetadataAdapter().getMethodAnnotationNames(method)) {
-                if (acceptResult(methodAnnotation)) {
-                    getStore().put(methodAnnotation, getMetadataAdapter().getMethodFullKey(cls, method));
-                }
+        ClassWalker.walk(getMetadataAdapter(), cls, this);
+    }
+
+    public void visitClass(ScannedClass cls) {
+    }
+
+    public void visitField(ScannedClass.ScannedField field) {
+    }
+
+    public void visitMethod(ScannedClass.ScannedMethod method) {
+        for (String methodAnnotation : method.getAnnotationNames()) {
+            if (acceptResult(methodAnnotation)) {
+                getStore().put(methodAnnotation, method.getFullKey());
             }
         }
     }
+
+    public boolean visitsFields() {
+        return false;
+    }
+
+    public boolean visitsMethods() {
+        return true;
+    }
 }
@@ -1,6 +1,5 @@
 package com.ts.platform.reflection.scanners;
 
-import com.ts.platform.reflection.adapters.MetadataAdapter;
 import com.ts.platform.reflection.util.Joiner;
 import javassist.bytecode.LocalVariableAttribute;
 import javassist.bytecode.MethodInfo;
@@ -9,25 +8,39 @@ import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.List;
 
-@SuppressWarnings({"unchecked", "rawtypes"})
-public class MethodParameterNamesScanner extends AbstractScanner {
+public class MethodParameterNamesScanner extends AbstractScanner implements ScanVisitor {
 
     @Override
     public void scan(Object cls) {
-        final MetadataAdapter md = getMetadataAdapter();
-
-        for (Object method : md.getMethods(cls)) {
-            String key = md.getMethodFullKey(cls, method);
-            if (acceptResult(key)) {
-                LocalVariableAttribute table = (LocalVariableAttribute) ((MethodInfo) method).getCodeAttribute().getAttribute(LocalVariableAttribute.tag);
-                int length = table.tableLength();
-                int i = Modifier.isStatic(((MethodInfo) method).getAccessFlags()) ? 0 : 1; //skip this
-                if (i < length) {
-                    List<String> names = new ArrayList<String>(length - i);
-                    while (i < length) names.add(((MethodInfo) method).getConstPool().getUtf8Info(table.nameIndex(i++)));
-                    getStore().put(key, Joiner.on(", ").join(names));
-                }
+        ClassWalker.walk(getMetadataAdapter(), cls, this);
+    }
+
+    public void visitClass(ScannedClass cls) {
+    }
+
+    public void visitField(ScannedClass.ScannedField field) {
+    }
+
+    public void visitMethod(ScannedClass.ScannedMethod scannedMethod) {
+        String key = scannedMethod.getFullKey();
+        if (acceptResult(key)) {
+            MethodInfo method = (MethodInfo) scannedMethod.getMethod();
+            LocalVariableAttribute table = (LocalVariableAttribute) method.getCodeAttribute().getAttribute(LocalVariableAttribute.tag);
+            int length = table.tableLength();
+            int i = Modifier.isStatic(method.getAccessFlags()) ? 0 : 1; //skip this
+            if (i < length) {
+                List<String> names = new ArrayList<String>(length - i);
+                while (i < length) names.add(method.getConstPool().getUtf8Info(table.nameIndex(i++)));
+                getStore().put(key, Joiner.on(", ").join(names));
             }
         }
     }
+
+    public boolean visitsFields() {
+        return false;
+    }
+
+    public boolean visitsMethods() {
+        return true;
+    }
 }
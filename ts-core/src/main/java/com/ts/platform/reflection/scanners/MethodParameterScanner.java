@@ -1,37 +1,48 @@
 package com.ts.platform.reflection.scanners;
 
 
-import com.ts.platform.reflection.adapters.MetadataAdapter;
-
 import java.util.List;
 
-@SuppressWarnings({"unchecked", "rawtypes"})
-public class MethodParameterScanner extends AbstractScanner {
+public class MethodParameterScanner extends AbstractScanner implements ScanVisitor {
 
     @Override
     public void scan(Object cls) {
-        final MetadataAdapter md = getMetadataAdapter();
+        ClassWalker.walk(getMetadataAdapter(), cls, this);
+    }
 
-        for (Object method : md.getMethods(cls)) {
+    public void visitClass(ScannedClass cls) {
+    }
 
-            String signature = md.getParameterNames(method).toString();
-            if (acceptResult(signature)) {
-                getStore().put(signature, md.getMethodFullKey(cls, method));
-            }
+    public void visitField(ScannedClass.ScannedField field) {
+    }
 
-            String returnTypeName = md.getReturnTypeName(method);
-            if (acceptResult(returnTypeName)) {
-                getStore().put(returnTypeName, md.getMethodFullKey(cls, method));
-            }
+    public void visitMethod(ScannedClass.ScannedMethod method) {
+        List<String> parameterNames = method.getParameterNames();
+
+        String signature = parameterNames.toString();
+        if (acceptResult(signature)) {
+            getStore().put(signature, method.getFullKey());
+        }
+
+        String returnTypeName = method.getReturnTypeName();
+        if (acceptResult(returnTypeName)) {
+            getStore().put(returnTypeName, method.getFullKey());
+        }
 
-            List<String> parameterNames = md.getParameterNames(method);
-            for (int i = 0; i < parameterNames.size(); i++) {
-                for (Object paramAnnotation : md.getParameterAnnotationNames(method, i)) {
-                    if (acceptResult((String) paramAnnotation)) {
-                        getStore().put((String) paramAnnotation, md.getMethodFullKey(cls, method));
-                    }
+        for (int i = 0; i < parameterNames.size(); i++) {
+            for (String paramAnnotation : method.getParameterAnnotationNames(i)) {
+                if (acceptResult(paramAnnotation)) {
+                    getStore().put(paramAnnotation, method.getFullKey());
                 }
             }
         }
     }
+
+    public boolean visitsFields() {
+        return false;
+    }
+
+    public boolean visitsMethods() {
+        return true;
+    }
 }
@@ -0,0 +1,22 @@
+package com.ts.platform.reflection.scanners;
+
+/**
+ * a scanner receiving the parts of a class as events, so that {@link ClassWalker} can walk each class once for all
+ * the scanners of a scan. the names are computed once per class and member, and shared by all visitors.
+ * <p>visit methods run in order: the class, then its fields, then its methods.
+ */
+public interface ScanVisitor {
+
+    /** the class header, its name, super types and annotations */
+    void visitClass(ScannedClass cls);
+
+    /** a field of the class, only if {@link #visitsFields()} */
+    void visitField(ScannedClass.ScannedField field);
+
+    /** a method or constructor of the class, only if {@link #visitsMethods()} */
+    void visitMethod(ScannedClass.ScannedMethod method);
+
+    boolean visitsFields();
+
+    boolean visitsMethods();
+}
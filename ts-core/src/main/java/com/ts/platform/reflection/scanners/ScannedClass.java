@@ -0,0 +1,152 @@
+package com.ts.platform.reflection.scanners;
+
+import com.ts.platform.reflection.adapters.MetadataAdapter;
+
+import java.util.List;
+
+/**
+ * a class walked by {@link ClassWalker}, computing each name of the class through the metadata adapter the first time
+ * it is asked for, and keeping it for the other visitors.
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class ScannedClass {
+    private final MetadataAdapter adapter;
+    private final Object cls;
+    private String className;
+    private String superclassName;
+    private boolean superclassRead;
+    private List<String> interfaceNames;
+    private List<String> annotationNames;
+
+    public ScannedClass(MetadataAdapter adapter, Object cls) {
+        this.adapter = adapter;
+        this.cls = cls;
+    }
+
+    /** the class object of the metadata adapter */
+    public Object getClassObject() {
+        return cls;
+    }
+
+    public String getClassName() {
+        if (className == null) className = adapter.getClassName(cls);
+        return className;
+    }
+
+    public String getSuperclassName() {
+        if (!superclassRead) {
+            superclassName = adapter.getSuperclassName(cls);
+            superclassRead = true;
+        }
+        return superclassName;
+    }
+
+    public List<String> getInterfaceNames() {
+        if (interfaceNames == null) interfaceNames = adapter.getInterfacesNames(cls);
+        return interfaceNames;
+    }
+
+    public List<String> getAnnotationNames() {
+        if (annotationNames == null) annotationNames = adapter.getClassAnnotationNames(cls);
+        return annotationNames;
+    }
+
+    /** a field of a {@link ScannedClass} */
+    public class ScannedField {
+        private final Object field;
+        private String name;
+        private String fullKey;
+        private List<String> annotationNames;
+
+        public ScannedField(Object field) {
+            this.field = field;
+        }
+
+        public ScannedClass getDeclaringClass() {
+            return ScannedClass.this;
+        }
+
+        /** the field object of the metadata adapter */
+        public Object getField() {
+            return field;
+        }
+
+        public String getName() {
+            if (name == null) name = adapter.getFieldName(field);
+            return name;
+        }
+
+        /** the class name and the field name, separated by a dot */
+        public String getFullKey() {
+            if (fullKey == null) fullKey = getClassName() + "." + getName();
+            return fullKey;
+        }
+
+        public List<String> getAnnotationNames() {
+            if (annotationNames == null) annotationNames = adapter.getFieldAnnotationNames(field);
+            return annotationNames;
+        }
+    }
+
+    /** a method or a constructor of a {@link ScannedClass} */
+    public class ScannedMethod {
+        private final Object method;
+        private List<String> parameterNames;
+        private String returnTypeName;
+        private String key;
+        private String fullKey;
+        private List<String> annotationNames;
+
+        public ScannedMethod(Object method) {
+            this.method = method;
+        }
+
+        public ScannedClass getDeclaringClass() {
+            return ScannedClass.this;
+        }
+
+        /** the method object of the metadata adapter */
+        public Object getMethod() {
+            return method;
+        }
+
+        public String getName() {
+            return adapter.getMethodName(method);
+        }
+
+        public List<String> getParameterNames() {
+            if (parameterNames == null) parameterNames = adapter.getParameterNames(method);
+            return parameterNames;
+        }
+
+        public String getReturnTypeName() {
+            if (returnTypeName == null) returnTypeName = adapter.getReturnTypeName(method);
+            return returnTypeName;
+        }
+
+        /** the method name and its parameter types, see {@link MetadataAdapter#getMethodKey} */
+        public String getKey() {
+            if (key == null) key = adapter.getMethodKey(cls, method);
+            return key;
+        }
+
+        /** the class name, the method name and its parameter types, see {@link MetadataAdapter#getMethodFullKey} */
+        public String getFullKey() {
+            if (fullKey == null) fullKey = adapter.getMethodFullKey(cls, method);
+            return fullKey;
+        }
+
+        public List<String> getAnnotationNames() {
+            if (annotationNames == null) annotationNames = adapter.getMethodAnnotationNames(method);
+            return annotationNames;
+        }
+
+        public List<String> getParameterAnnotationNames(int parameterIndex) {
+            return adapter.getParameterAnnotationNames(method, parameterIndex);
+        }
+
+        public boolean isPublic() {
+            return adapter.isPublic(method);
+        }
+    }
+}
@@ -27,4 +27,12 @@ public interface Scanner {
     Object scan(Vfs.File file,  Object classObject);
 
     boolean acceptResult(String fqn);
+
+    /**
+     * identifies this scanner along with the options changing what it stores, for example in
+     * {@link com.ts.platform.reflection.ScanIndexCache} keys, or null if its options have no stable representation
+     */
+    default String getSignature() {
+        return getClass().getName();
+    }
 }
@@ -3,9 +3,7 @@ package com.ts.platform.reflection.scanners;
 
 import com.ts.platform.reflection.util.FilterBuilder;
 
-import java.util.List;
-
-public class SubTypesScanner extends AbstractScanner {
+public class SubTypesScanner extends AbstractScanner implements ScanVisitor {
 
     public SubTypesScanner() {
         this(true); //exclude direct Object subtypes by default
@@ -18,19 +16,36 @@ public class SubTypesScanner extends AbstractScanner {
         }
     }
 
-    @SuppressWarnings({"unchecked"})
     public void scan(final Object cls) {
-		String className = getMetadataAdapter().getClassName(cls);
-		String superclass = getMetadataAdapter().getSuperclassName(cls);
+        ClassWalker.walk(getMetadataAdapter(), cls, this);
+    }
+
+    public void visitClass(ScannedClass cls) {
+		String className = cls.getClassName();
+		String superclass = cls.getSuperclassName();
 
         if (acceptResult(superclass)) {
             getStore().put(superclass, className);
         }
 
-		for (String anInterface : (List<String>) getMetadataAdapter().getInterfacesNames(cls)) {
+		for (String anInterface : cls.getInterfaceNames()) {
 			if (acceptResult(anInterface)) {
                 getStore().put(anInterface, className);
             }
         }
     }
+
+    public void visitField(ScannedClass.ScannedField field) {
+    }
+
+    public void visitMethod(ScannedClass.ScannedMethod method) {
+    }
+
+    public boolean visitsFields() {
+        return false;
+    }
+
+    public boolean visitsMethods() {
+        return false;
+    }
 }
@@ -1,14 +1,16 @@
 package com.ts.platform.reflection.scanners;
 
 import java.lang.annotation.Inherited;
-import java.util.List;
 
-@SuppressWarnings({"unchecked"})
-public class TypeAnnotationsScanner extends AbstractScanner {
+public class TypeAnnotationsScanner extends AbstractScanner implements ScanVisitor {
     public void scan(final Object cls) {
-		final String className = getMetadataAdapter().getClassName(cls);
+        ClassWalker.walk(getMetadataAdapter(), cls, this);
+    }
+
+    public void visitClass(ScannedClass cls) {
+		final String className = cls.getClassName();
 
-        for (String annotationType : (List<String>) getMetadataAdapter().getClassAnnotationNames(cls)) {
+        for (String annotationType : cls.getAnnotationNames()) {
 
             if (acceptResult(annotationType) ||
                 annotationType.equals(Inherited.class.getName())) { //as an exception, accept Inherited as well
@@ -17,4 +19,17 @@ public class TypeAnnotationsScanner extends AbstractScanner {
         }
     }
 
+    public void visitField(ScannedClass.ScannedField field) {
+    }
+
+    public void visitMethod(ScannedClass.ScannedMethod method) {
+    }
+
+    public boolean visitsFields() {
+        return false;
+    }
+
+    public boolean visitsMethods() {
+        return false;
+    }
 }
@@ -1,45 +1,52 @@
 package com.ts.platform.reflection.scanners;
 
 
-import com.ts.platform.reflection.util.Joiner;
 
-@SuppressWarnings({"unchecked"})
-public class TypeElementsScanner extends AbstractScanner {
+public class TypeElementsScanner extends AbstractScanner implements ScanVisitor {
     private boolean includeFields = true;
     private boolean includeMethods = true;
     private boolean includeAnnotations = true;
     private boolean publicOnly = true;
 
     public void scan(Object cls) {
-        String className = getMetadataAdapter().getClassName(cls);
+        ClassWalker.walk(getMetadataAdapter(), cls, this);
+    }
+
+    public void visitClass(ScannedClass cls) {
+        String className = cls.getClassName();
         if (!acceptResult(className)) return;
 
         getStore().put(className, "");
 
-        if (includeFields) {
-            for (Object field : getMetadataAdapter().getFields(cls)) {
-                String fieldName = getMetadataAdapter().getFieldName(field);
-                getStore().put(className, fieldName);
+        if (includeAnnotations) {
+            for (String annotation : cls.getAnnotationNames()) {
+                getStore().put(className, "@" + annotation);
             }
         }
+    }
 
-        if (includeMethods) {
-            for (Object method : getMetadataAdapter().getMethods(cls)) {
-                if (!publicOnly || getMetadataAdapter().isPublic(method)) {
-                    String methodKey = getMetadataAdapter().getMethodName(method) + "(" +
-                            Joiner.on(", ").join(getMetadataAdapter().getParameterNames(method)) + ")";
-                    getStore().put(className, methodKey);
-                }
-            }
+    public void visitField(ScannedClass.ScannedField field) {
+        String className = field.getDeclaringClass().getClassName();
+        if (acceptResult(className)) {
+            getStore().put(className, field.getName());
         }
+    }
 
-        if (includeAnnotations) {
-            for (Object annotation : getMetadataAdapter().getClassAnnotationNames(cls)) {
-                getStore().put(className, "@" + annotation);
-            }
+    public void visitMethod(ScannedClass.ScannedMethod method) {
+        String className = method.getDeclaringClass().getClassName();
+        if (acceptResult(className) && (!publicOnly || method.isPublic())) {
+            getStore().put(className, method.getKey());
         }
     }
 
+    public boolean visitsFields() {
+        return includeFields;
+    }
+
+    public boolean visitsMethods() {
+        return includeMethods;
+    }
+
     //
     public TypeElementsScanner includeFields() { return includeFields(true); }
     public TypeElementsScanner includeFields(boolean include) { includeFields = include; return this; }
@@ -49,4 +56,11 @@ public class TypeElementsScanner extends AbstractScanner {
     public TypeElementsScanner includeAnnotations(boolean include) { includeAnnotations = include; return this; }
     public TypeElementsScanner publicOnly(boolean only) { publicOnly = only; return this; }
     public TypeElementsScanner publicOnly() { return publicOnly(true); }
+
+    @Override
+    public String getSignature() {
+        String signature = super.getSignature();
+        return signature != null ? signature + " fields=" + includeFields + " methods=" + includeMethods +
+                " annotations=" + includeAnnotations + " publicOnly=" + publicOnly : null;
+    }
 }
@@ -0,0 +1,228 @@
+package com.ts.platform.reflection.serializers;
+
+import com.ts.platform.reflection.Reflections;
+import com.ts.platform.reflection.ReflectionsException;
+import com.ts.platform.reflection.Store;
+import com.ts.platform.reflection.util.Multimap;
+import com.ts.platform.reflection.util.Utils;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * serialization of Reflections to a compact, versioned binary format.
+ * <p>the layout is
+ * <pre>
+ *     magic "TSRI", version
+ *     string count, (utf-8 length, utf-8 bytes)*
+ *     index count, (index name ref, key count, (key ref, value count, value ref*)*)*
+ * </pre>
+ * where all numbers are unsigned varints and every ref is a position in the string table, so each class or member
+ * name is stored and decoded once however many times it appears.
+ * <p>the input is read in a single pass, {@link #read(File)} memory-maps the file instead of copying it.
+ * <p>an example of loading prebuilt indexes at startup
+ * <pre>
+ *     Reflections.collect("META-INF/reflections/", new FilterBuilder().include(".*-reflections.bin"), new BinarySerializer());
+ * </pre>
+ */
+public class BinarySerializer implements Serializer {
+    private static final byte[] MAGIC = {'T', 'S', 'R', 'I'};
+    public static final int VERSION = 1;
+
+    public Reflections read(InputStream inputStream) {
+        try {
+            return read(ByteBuffer.wrap(inputStream.readAllBytes()));
+        } catch (IOException e) {
+            throw new ReflectionsException("could not read.", e);
+        }
+    }
+
+    /** reads the given file through a read only memory mapping */
+    public Reflections read(File file) {
+        RandomAccessFile randomAccessFile = null;
+        try {
+            randomAccessFile = new RandomAccessFile(file, "r");
+            FileChannel channel = randomAccessFile.getChannel();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return read(buffer);
+        } catch (IOException e) {
+            throw new ReflectionsException("could not read file " + file, e);
+        } finally {
+            if (randomAccessFile != null) {
+                try { randomAccessFile.close(); } catch (IOException e) { /*ignore*/ }
+            }
+        }
+    }
+
+    public Reflections read(ByteBuffer buffer) {
+        try {
+            return doRead(buffer);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new ReflectionsException("could not read. truncated or corrupted binary reflections index", e);
+        }
+    }
+
+    private Reflections doRead(ByteBuffer buffer) {
+        for (byte b : MAGIC) {
+            if (!buffer.hasRemaining() || buffer.get() != b) {
+                throw new ReflectionsException("could not read. not a binary reflections index");
+            }
+        }
+        int version = readVarint(buffer);
+        if (version != VERSION) {
+            throw new ReflectionsException("could not read. unsupported binary reflections index version " + version);
+        }
+
+        String[] strings = new String[readCount(buffer, 1)];
+        byte[] chars = new byte[64];
+        for (int i = 0; i < strings.length; i++) {
+            int length = readCount(buffer, 1);
+            if (buffer.hasArray()) {
+                strings[i] = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + length);
+            } else {
+                if (chars.length < length) chars = new byte[Math.max(length, chars.length * 2)];
+                buffer.get(chars, 0, length);
+                strings[i] = new String(chars, 0, length, StandardCharsets.UTF_8);
+            }
+        }
+
+        Reflections reflections = Reflections.empty();
+        Store store = reflections.getStore();
+        int indices = readCount(buffer, 2);
+        for (int i = 0; i < indices; i++) {
+            Multimap<String, String> index = store.getOrCreate(strings[readVarint(buffer)]);
+            int keys = readCount(buffer, 2);
+            for (int j = 0; j < keys; j++) {
+                String key = strings[readVarint(buffer)];
+                int count = readCount(buffer, 1);
+                for (int k = 0; k < count; k++) {
+                    index.put(key, strings[readVarint(buffer)]);
+                }
+            }
+        }
+        return reflections;
+    }
+
+    public File save(Reflections reflections, String filename) {
+        File file = Utils.prepareFile(filename);
+        OutputStream outputStream = null;
+        try {
+            outputStream = new BufferedOutputStream(new FileOutputStream(file), 65536);
+            write(reflections, outputStream);
+        } catch (IOException e) {
+            throw new ReflectionsException("could not save to file " + filename, e);
+        } finally {
+            if (outputStream != null) {
+                try { outputStream.close(); } catch (IOException e) { /*ignore*/ }
+            }
+        }
+        return file;
+    }
+
+    /** the binary format is not textual, returns it as a base64 string */
+    public String toString(Reflections reflections) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try {
+            write(reflections, outputStream);
+        } catch (IOException e) {
+            throw new ReflectionsException("could not serialize", e);
+        }
+        return Base64.getEncoder().encodeToString(outputStream.toByteArray());
+    }
+
+    public void write(Reflections reflections, OutputStream outputStream) throws IOException {
+        Store store = reflections.getStore();
+
+        Map<String, Integer> refs = new HashMap<String, Integer>();
+        List<String> strings = new ArrayList<String>();
+        for (String indexName : store.keySet()) {
+            ref(indexName, refs, strings);
+            Multimap<String, String> index = store.get(indexName);
+            for (String key : index.keySet()) {
+                Collection<String> values = index.get(key);
+                if (!values.isEmpty()) {
+                    ref(key, refs, strings);
+                    for (String value : values) ref(value, refs, strings);
+                }
+            }
+        }
+
+        outputStream.write(MAGIC);
+        writeVarint(outputStream, VERSION);
+        writeVarint(outputStream, strings.size());
+        for (String string : strings) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            writeVarint(outputStream, bytes.length);
+            outputStream.write(bytes);
+        }
+
+        writeVarint(outputStream, store.keySet().size());
+        for (String indexName : store.keySet()) {
+            Multimap<String, String> index = store.get(indexName);
+            writeVarint(outputStream, refs.get(indexName));
+            int keys = 0;
+            for (String key : index.keySet()) {
+                if (!index.get(key).isEmpty()) keys++;
+            }
+            writeVarint(outputStream, keys);
+            for (String key : index.keySet()) {
+                Collection<String> values = index.get(key);
+                if (!values.isEmpty()) {
+                    writeVarint(outputStream, refs.get(key));
+                    writeVarint(outputStream, values.size());
+                    for (String value : values) writeVarint(outputStream, refs.get(value));
+                }
+            }
+        }
+        outputStream.flush();
+    }
+
+    private static void ref(String string, Map<String, Integer> refs, List<String> strings) {
+        if (!refs.containsKey(string)) {
+            refs.put(string, strings.size());
+            strings.add(string);
+        }
+    }
+
+    private static void writeVarint(OutputStream outputStream, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            outputStream.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        outputStream.write(value);
+    }
+
+    private static int readVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new ReflectionsException("could not read. malformed varint");
+    }
+
+    /**
+     * reads a count of items taking at least the given number of bytes each, failing on a count the remaining bytes
+     * can not hold, rather than allocating for it
+     */
+    private static int readCount(ByteBuffer buffer, int minBytes) {
+        int count = readVarint(buffer);
+        if (count < 0 || count > buffer.remaining() / minBytes) {
+            throw new ReflectionsException("could not read. truncated or corrupted binary reflections index, count " +
+                    count + " exceeds the " + buffer.remaining() + " bytes remaining");
+        }
+        return count;
+    }
+}
@@ -1,6 +1,7 @@
 package com.ts.platform.reflection.util;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -22,9 +23,12 @@ public class AbstractMultimap<K, V> implements Multimap<K, V> {
 	
 	@Override
 	public boolean put(K key, V item) {
-		Collection<V> value = get(key);
-		boolean answer = value.add(item);
-		return answer;
+		Collection<V> value = (Collection<V>) map.get(key);
+		if(value == null) {
+			value = (Collection<V>) factory.get();
+			map.put(key, value);
+		}
+		return value.add(item);
 	}
 	
 	@Override
@@ -36,14 +40,21 @@ public class AbstractMultimap<K, V> implements Multimap<K, V> {
 	    return changed;
 	}
 	
+	@Override
+	public boolean remove(K key, V item) {
+		Collection<V> value = (Collection<V>) map.get(key);
+		if(value == null || !value.remove(item))
+			return false;
+		if(value.isEmpty())
+			map.remove(key);
+		return true;
+	}
+	
+	/** the values of the given key, or an empty set without adding the key, so that queries never write */
 	@Override
 	public Collection<V> get(K key) {
-		Object answer = map.get(key);
-		if(answer == null) {
-			answer = factory.get();
-			map.put(key, answer);
-		}
-		return (Collection<V>)answer;
+		Collection<V> answer = (Collection<V>) map.get(key);
+		return answer != null ? answer : Collections.<V>emptySet();
 	}
 	
 	@Override
@@ -0,0 +1,91 @@
+package com.ts.platform.reflection.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * a bloom filter of strings, telling whether a string may have been added, without false negatives and with the false
+ * positive rate given at creation.
+ * <p>the hashes derive from {@link String#hashCode()}, which is specified, so a filter written with {@link #write(DataOutput)}
+ * answers the same once read back, on any jvm. not thread safe while adding.
+ */
+public class BloomFilter {
+    private final long[] bits;
+    private final int hashes;
+
+    /** a filter sized for the given number of strings at the given false positive rate, such as 0.01 */
+    public BloomFilter(int expectedInsertions, double falsePositiveRate) {
+        long size = (long) Math.ceil(-Math.max(1, expectedInsertions) * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bits = new long[(int) Math.min(Integer.MAX_VALUE / 64, Math.max(1, (size + 63) >>> 6))];
+        this.hashes = Math.max(1, Math.min(16, (int) Math.round((double) bits.length * 64 / Math.max(1, expectedInsertions) * Math.log(2))));
+    }
+
+    private BloomFilter(long[] bits, int hashes) {
+        this.bits = bits;
+        this.hashes = hashes;
+    }
+
+    public void put(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long size = (long) bits.length << 6;
+        for (int i = 0; i < hashes; i++) {
+            long bit = ((h1 + i * h2) & 0x7FFFFFFFL) % size;
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /** false if the given string was never added, true if it probably was */
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long size = (long) bits.length << 6;
+        for (int i = 0; i < hashes; i++) {
+            long bit = ((h1 + i * h2) & 0x7FFFFFFFL) % size;
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** the size of this filter in bytes */
+    public int sizeInBytes() {
+        return bits.length * 8;
+    }
+
+    public void write(DataOutput out) throws IOException {
+        out.writeByte(hashes);
+        out.writeInt(bits.length);
+        for (long word : bits) {
+            out.writeLong(word);
+        }
+    }
+
+    public static BloomFilter read(DataInput in) throws IOException {
+        int hashes = in.readUnsignedByte();
+        int length = in.readInt();
+        if (hashes == 0 || length <= 0) {
+            throw new IOException("malformed bloom filter");
+        }
+        long[] bits = new long[length];
+        for (int i = 0; i < length; i++) {
+            bits[i] = in.readLong();
+        }
+        return new BloomFilter(bits, hashes);
+    }
+
+    /** two independent 32 bit hashes, mixing the string hash code with the murmur3 finalizer */
+    private static long hash(String value) {
+        long h = value.hashCode() * 0x9E3779B97F4A7C15L + value.length();
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,126 @@
+package com.ts.platform.reflection.util;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * a set multimap safe for concurrent use without locking, a {@link ConcurrentHashMap} of concurrent key sets.
+ * <p>puts of different keys never contend, and puts of the same key contend only on the bins of its value set.
+ * {@link #get(Object)} on a missing key returns an empty set rather than creating one.
+ * {@link #remove(Object, Object)} of the last value of a key is not atomic with a concurrent put of the same key.
+ */
+@SuppressWarnings("unchecked")
+public class ConcurrentSetMultimap<K, V> implements SetMultimap<K, V> {
+    private static final Function<Object, Set<Object>> NEW_SET = new Function<Object, Set<Object>>() {
+        public Set<Object> apply(Object key) {
+            return ConcurrentHashMap.newKeySet();
+        }
+    };
+
+    private final ConcurrentMap<K, Set<V>> map = new ConcurrentHashMap<K, Set<V>>();
+
+    @Override
+    public boolean put(K key, V item) {
+        Set<V> set = map.get(key);
+        if (set == null) {
+            set = map.computeIfAbsent(key, (Function<K, Set<V>>) (Function<?, ?>) NEW_SET);
+        }
+        return set.add(item);
+    }
+
+    @Override
+    public boolean putAll(Multimap<K, V> multimap) {
+        boolean changed = false;
+        for (K key : multimap.keySet()) {
+            for (V value : multimap.get(key)) {
+                changed |= put(key, value);
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean remove(K key, V item) {
+        Set<V> set = map.get(key);
+        if (set == null || !set.remove(item)) {
+            return false;
+        }
+        if (set.isEmpty()) {
+            map.remove(key, set);
+        }
+        return true;
+    }
+
+    @Override
+    public Collection<V> get(K key) {
+        Set<V> set = map.get(key);
+        return set != null ? set : Collections.<V>emptySet();
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return map.keySet();
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+            public Iterator<V> iterator() {
+                return Iterators.concat(Iterators.transform(map.values().iterator(), new Function<Set<V>, Iterator<V>>() {
+                    public Iterator<V> apply(Set<V> values) {
+                        return values.iterator();
+                    }
+                }));
+            }
+
+            public int size() {
+                return ConcurrentSetMultimap.this.size();
+            }
+        };
+    }
+
+    @Override
+    public Iterable<Entry<K, V>> entries() {
+        return new Iterable<Entry<K, V>>() {
+            public Iterator<Entry<K, V>> iterator() {
+                return Iterators.concat(Iterators.transform(map.entrySet().iterator(), new Function<Entry<K, Set<V>>, Iterator<Entry<K, V>>>() {
+                    public Iterator<Entry<K, V>> apply(final Entry<K, Set<V>> entry) {
+                        return Iterators.transform(entry.getValue().iterator(), new Function<V, Entry<K, V>>() {
+                            public Entry<K, V> apply(V value) {
+                                return new ImmutableEntry<K, V>(entry.getKey(), value);
+                            }
+                        });
+                    }
+                }));
+            }
+        };
+    }
+
+    /** the number of key-value pairs */
+    @Override
+    public int size() {
+        int size = 0;
+        for (Set<V> values : map.values()) {
+            size += values.size();
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    @Override
+    public Map<K, Collection<V>> asMap() {
+        return Collections.<K, Collection<V>>unmodifiableMap(map);
+    }
+}
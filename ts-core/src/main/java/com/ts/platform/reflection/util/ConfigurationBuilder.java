@@ -1,17 +1,20 @@
 package com.ts.platform.reflection.util;
 
-import com.tvd12.reflections.Configuration;
-import com.tvd12.reflections.Reflections;
-import com.tvd12.reflections.ReflectionsException;
-import com.tvd12.reflections.adapters.JavaReflectionAdapter;
-import com.tvd12.reflections.adapters.JavassistAdapter;
-import com.tvd12.reflections.adapters.MetadataAdapter;
-import com.tvd12.reflections.concurrent.ThreadFactoryBuilder;
-import com.tvd12.reflections.scanners.Scanner;
-import com.tvd12.reflections.scanners.SubTypesScanner;
-import com.tvd12.reflections.scanners.TypeAnnotationsScanner;
-import com.tvd12.reflections.serializers.Serializer;
-import com.tvd12.reflections.serializers.XmlSerializer;
+import com.ts.platform.reflection.Configuration;
+import com.ts.platform.reflection.DirectoryWatcher;
+import com.ts.platform.reflection.Reflections;
+import com.ts.platform.reflection.ReflectionsException;
+import com.ts.platform.reflection.ScanIndexCache;
+import com.ts.platform.reflection.ScanListener;
+import com.ts.platform.reflection.adapters.JavaReflectionAdapter;
+import com.ts.platform.reflection.adapters.JavassistAdapter;
+import com.ts.platform.reflection.adapters.MetadataAdapter;
+import com.ts.platform.reflection.concurrent.ThreadFactoryBuilder;
+import com.ts.platform.reflection.scanners.Scanner;
+import com.ts.platform.reflection.scanners.SubTypesScanner;
+import com.ts.platform.reflection.scanners.TypeAnnotationsScanner;
+import com.ts.platform.reflection.serializers.Serializer;
+import com.ts.platform.reflection.serializers.XmlSerializer;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -25,7 +28,7 @@ import java.util.concurrent.ThreadFactory;
 import java.util.function.Predicate;
 
 /**
- * a fluent builder for {@link com.tvd12.reflections.Configuration}, to be used for constructing a {@link com.tvd12.reflections.Reflections} instance
+ * a fluent builder for {@link com.ts.platform.reflection.Configuration}, to be used for constructing a {@link com.ts.platform.reflection.Reflections} instance
  * <p>usage:
  * <pre>
  *      new Reflections(
@@ -37,7 +40,7 @@ import java.util.function.Predicate;
  * <br>{@link #executorService} is used optionally used for parallel scanning. if value is null then scanning is done in a simple for loop
  * <p>defaults: accept all for {@link #inputsFilter},
  * {@link #executorService} is null,
- * {@link #serializer} is {@link com.tvd12.reflections.serializers.XmlSerializer}
+ * {@link #serializer} is {@link com.ts.platform.reflection.serializers.XmlSerializer}
  */
 /*lazy*/ @SuppressWarnings("rawtypes")
 public class ConfigurationBuilder implements Configuration {
@@ -47,8 +50,18 @@ public class ConfigurationBuilder implements Configuration {
     @Nullable private Predicate<String> inputsFilter;
     /*lazy*/ private Serializer serializer;
     @Nullable private ExecutorService executorService;
+    private boolean shutdownExecutorService;
+    private boolean useVirtualThreads;
     @Nullable private ClassLoader[] classLoaders;
     private boolean expandSuperTypes = true;
+    @Nullable private ScanIndexCache scanIndexCache;
+    private boolean internNames;
+    private boolean shardStores;
+    private boolean trackUrls;
+    private boolean sketchUrls;
+    private boolean watchDirectories;
+    private long watchDebounceMillis = DirectoryWatcher.DEFAULT_DEBOUNCE_MILLIS;
+    @Nonnull private List<ScanListener> scanListeners = Lists.newArrayList();
 
     public ConfigurationBuilder() {
         scanners = Sets.<Scanner>newHashSet(new TypeAnnotationsScanner(), new SubTypesScanner());
@@ -63,6 +76,7 @@ public class ConfigurationBuilder implements Configuration {
      *     <li>{@link ClassLoader} - use these classloaders in order to find urls in ClasspathHelper.forPackage(), ClasspathHelper.forClass() and for resolving types</li>
      *     <li>{@link Scanner} - use given scanner, overriding the default scanners</li>
      *     <li>{@link URL} - add the given url for scanning</li>
+     *     <li>{@link ScanListener} - notify the given listener of the scan metrics</li>
      *     <li>{@code Object[]} - flatten and use each element as above</li>
      * </ul>
      *
@@ -109,6 +123,7 @@ public class ConfigurationBuilder implements Configuration {
             else if (param instanceof ClassLoader) { /* already taken care */ }
             else if (param instanceof Predicate) { filter.add((Predicate<String>) param); }
             else if (param instanceof ExecutorService) { builder.setExecutorService((ExecutorService) param); }
+            else if (param instanceof ScanListener) { builder.addScanListeners((ScanListener) param); }
             else if (Reflections.log != null) { throw new ReflectionsException("could not use param " + param); }
         }
 
@@ -157,7 +172,7 @@ public class ConfigurationBuilder implements Configuration {
     }
 
     /** set the urls to be scanned
-     * <p>use {@link com.tvd12.reflections.util.ClasspathHelper} convenient methods to get the relevant urls
+     * <p>use {@link com.ts.platform.reflection.util.ClasspathHelper} convenient methods to get the relevant urls
      * */
     public ConfigurationBuilder setUrls(@Nonnull final Collection<URL> urls) {
 		this.urls = Sets.newHashSet(urls);
@@ -165,7 +180,7 @@ public class ConfigurationBuilder implements Configuration {
 	}
 
     /** set the urls to be scanned
-     * <p>use {@link com.tvd12.reflections.util.ClasspathHelper} convenient methods to get the relevant urls
+     * <p>use {@link com.ts.platform.reflection.util.ClasspathHelper} convenient methods to get the relevant urls
      * */
     public ConfigurationBuilder setUrls(final URL... urls) {
 		this.urls = Sets.newHashSet(urls);
@@ -173,7 +188,7 @@ public class ConfigurationBuilder implements Configuration {
 	}
 
     /** add urls to be scanned
-     * <p>use {@link com.tvd12.reflections.util.ClasspathHelper} convenient methods to get the relevant urls
+     * <p>use {@link com.ts.platform.reflection.util.ClasspathHelper} convenient methods to get the relevant urls
      * */
     public ConfigurationBuilder addUrls(final Collection<URL> urls) {
         this.urls.addAll(urls);
@@ -181,7 +196,7 @@ public class ConfigurationBuilder implements Configuration {
     }
 
     /** add urls to be scanned
-     * <p>use {@link com.tvd12.reflections.util.ClasspathHelper} convenient methods to get the relevant urls
+     * <p>use {@link com.ts.platform.reflection.util.ClasspathHelper} convenient methods to get the relevant urls
      * */
     public ConfigurationBuilder addUrls(final URL... urls) {
         this.urls.addAll(Sets.newHashSet(urls));
@@ -190,7 +205,8 @@ public class ConfigurationBuilder implements Configuration {
 
     /** returns the metadata adapter.
      * if javassist library exists in the classpath, this method returns {@link JavassistAdapter} otherwise defaults to {@link JavaReflectionAdapter}.
-     * <p>the {@link JavassistAdapter} is preferred in terms of performance and class loading. */
+     * <p>the {@link JavassistAdapter} is preferred in terms of performance and class loading.
+     * <p>set a {@link com.ts.platform.reflection.adapters.BytecodeAdapter} for faster scans when no scanner needs method bodies. */
     public MetadataAdapter getMetadataAdapter() {
         if (metadataAdapter != null) return metadataAdapter;
         else {
@@ -233,9 +249,30 @@ public class ConfigurationBuilder implements Configuration {
         return executorService;
     }
 
-    /** sets the executor service used for scanning. */
+    /** sets the executor service used for scanning. it is owned by the caller, and not shut down once the scan is done */
     public ConfigurationBuilder setExecutorService(@Nullable ExecutorService executorService) {
         this.executorService = executorService;
+        this.shutdownExecutorService = false;
+        return this;
+    }
+
+    @Override
+    public boolean shouldShutdownExecutorService() {
+        return shutdownExecutorService;
+    }
+
+    @Override
+    public boolean shouldUseVirtualThreads() {
+        return useVirtualThreads;
+    }
+
+    /**
+     * scans with virtual threads opening the urls and reading their files, one per url, feeding the parsers running on
+     * the executor service, or on a pool of {@link Runtime#availableProcessors()} threads created for the scan if none is set.
+     * <p>a failure of any scan task cancels the others and fails the scan
+     */
+    public ConfigurationBuilder useVirtualThreads() {
+        this.useVirtualThreads = true;
         return this;
     }
 
@@ -246,11 +283,12 @@ public class ConfigurationBuilder implements Configuration {
     }
 
     /** sets the executor service used for scanning to ThreadPoolExecutor with core size as the given availableProcessors parameter.
-     * the executor service spawns daemon threads by default.
+     * the executor service spawns daemon threads by default, and is shut down once the scan is done.
      * <p>default is ThreadPoolExecutor with a single core */
     public ConfigurationBuilder useParallelExecutor(final int availableProcessors) {
         ThreadFactory factory = new ThreadFactoryBuilder().setDaemon(true).setNameFormat("com.tvd12.reflections-scanner-%d").build();
         setExecutorService(Executors.newFixedThreadPool(availableProcessors, factory));
+        shutdownExecutorService = true;
         return this;
     }
 
@@ -258,7 +296,7 @@ public class ConfigurationBuilder implements Configuration {
         return serializer != null ? serializer : (serializer = new XmlSerializer()); //lazily defaults to XmlSerializer
     }
 
-    /** sets the serializer used when issuing {@link com.tvd12.reflections.Reflections#save} */
+    /** sets the serializer used when issuing {@link com.ts.platform.reflection.Reflections#save} */
     public ConfigurationBuilder setSerializer(Serializer serializer) {
         this.serializer = serializer;
         return this;
@@ -277,13 +315,130 @@ public class ConfigurationBuilder implements Configuration {
 
     /**
      * if set to true, Reflections will expand super types after scanning.
-     * <p>see {@link com.tvd12.reflections.Reflections#expandSuperTypes()}
+     * <p>see {@link com.ts.platform.reflection.Reflections#expandSuperTypes()}
      */
     public ConfigurationBuilder setExpandSuperTypes(boolean expandSuperTypes) {
         this.expandSuperTypes = expandSuperTypes;
         return this;
     }
 
+    @Nullable
+    public ScanIndexCache getScanIndexCache() {
+        return scanIndexCache;
+    }
+
+    /**
+     * sets the on-disk cache of per jar scan results, unchanged jars are then merged from the cache instead of being scanned.
+     * <p>see {@link ScanIndexCache}
+     */
+    public ConfigurationBuilder setScanIndexCache(@Nullable ScanIndexCache scanIndexCache) {
+        this.scanIndexCache = scanIndexCache;
+        return this;
+    }
+
+    @Override
+    public boolean shouldInternNames() {
+        return internNames;
+    }
+
+    /**
+     * if set to true, Reflections will keep the scanned metadata in an {@link com.ts.platform.reflection.InternedStore},
+     * storing each name once and the indices as int ids. much smaller on big classpaths.
+     */
+    public ConfigurationBuilder setInternNames(boolean internNames) {
+        this.internNames = internNames;
+        return this;
+    }
+
+    @Override
+    public boolean shouldShardStores() {
+        return shardStores;
+    }
+
+    /**
+     * if set to true, each thread of a parallel scan writes to private stores, merged into the store once the scan is done,
+     * instead of all threads writing to the concurrent indices of the store.
+     * no contention while scanning, at the cost of a merge phase and of the memory of the shards until then
+     */
+    public ConfigurationBuilder setShardStores(boolean shardStores) {
+        this.shardStores = shardStores;
+        return this;
+    }
+
+    @Override
+    public boolean shouldSketchUrls() {
+        return sketchUrls;
+    }
+
+    /**
+     * if set to true, Reflections keeps a {@link com.ts.platform.reflection.UrlSketch} of each scanned url, saved along
+     * with the scan index cache and with {@link com.ts.platform.reflection.Reflections#save(String)}, so that urls
+     * which can not hold a given annotation, super type or package are skipped by queries, rescans and collect
+     */
+    public ConfigurationBuilder setSketchUrls(boolean sketchUrls) {
+        this.sketchUrls = sketchUrls;
+        return this;
+    }
+
+    @Override
+    public boolean shouldTrackUrls() {
+        return trackUrls;
+    }
+
+    /**
+     * if set to true, Reflections will keep the contributions of each scanned url apart,
+     * so that {@link com.ts.platform.reflection.Reflections#rescan(java.util.Collection, java.util.Collection)} can replace
+     * or retract them. costs about as much memory again as the store
+     */
+    public ConfigurationBuilder setTrackUrls(boolean trackUrls) {
+        this.trackUrls = trackUrls;
+        return this;
+    }
+
+    @Override
+    public boolean shouldWatchDirectories() {
+        return watchDirectories;
+    }
+
+    /**
+     * if set to true, Reflections will watch the scanned directories with a {@link DirectoryWatcher}, and rescan a directory
+     * on a background thread once its files changed. implies {@link #setTrackUrls(boolean)}.
+     * call {@link com.ts.platform.reflection.Reflections#stopWatching()} when done
+     */
+    public ConfigurationBuilder setWatchDirectories(boolean watchDirectories) {
+        this.watchDirectories = watchDirectories;
+        if (watchDirectories) {
+            trackUrls = true;
+        }
+        return this;
+    }
+
+    @Override
+    public long getWatchDebounceMillis() {
+        return watchDebounceMillis;
+    }
+
+    /** the quiet period after a change in a watched directory before it is rescanned, 200ms by default */
+    public ConfigurationBuilder setWatchDebounceMillis(long watchDebounceMillis) {
+        this.watchDebounceMillis = watchDebounceMillis;
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public List<ScanListener> getScanListeners() {
+        return scanListeners;
+    }
+
+    /**
+     * adds listeners notified of the timings and counters of each scan, and of the failures of the scanners, which are
+     * logged at debug level only otherwise. see {@link com.ts.platform.reflection.ScanMetrics}
+     */
+    public ConfigurationBuilder addScanListeners(final ScanListener... scanListeners) {
+        this.scanListeners.addAll(Lists.newArrayList(scanListeners));
+        return this;
+    }
+
     /** set class loader, might be used for resolving methods/fields */
     public void setClassLoaders(@Nullable ClassLoader[] classLoaders) {
         this.classLoaders = classLoaders;
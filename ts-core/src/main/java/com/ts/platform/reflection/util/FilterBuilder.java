@@ -54,6 +54,26 @@ public class FilterBuilder implements Predicate<String> {
 
     @Override public String toString() {return Joiner.on(", ").join(chain);}
 
+    /**
+     * true if the {@code toString()} of the given filter is the same from one run to the next, so that it can identify
+     * the filter, for example in {@link com.ts.platform.reflection.ScanIndexCache} keys. that is a null filter, one whose
+     * class overrides {@code toString()}, or a filter builder of such filters. lambdas usually do not override it
+     */
+    public static boolean hasStableToString(Object filter) {
+        if (filter == null) return true;
+        if (filter instanceof FilterBuilder) {
+            for (Predicate<String> predicate : ((FilterBuilder) filter).chain) {
+                if (!hasStableToString(predicate)) return false;
+            }
+            return true;
+        }
+        try {
+            return filter.getClass().getMethod("toString").getDeclaringClass() != Object.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
     public boolean test(String regex) {
         boolean accept = chain == null || chain.isEmpty() || chain.get(0) instanceof Exclude;
 
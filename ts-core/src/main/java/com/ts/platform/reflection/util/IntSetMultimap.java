@@ -0,0 +1,438 @@
+package com.ts.platform.reflection.util;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * a set multimap of names, storing the {@link NameTable} ids of keys and values instead of strings.
+ * <p>keys live in an open addressing int table, and the values of each key in a single int array - {@code [count, ids...]}
+ * scanned linearly while small, and turned into an open addressing table of {@code id + 1} once it grows past
+ * {@link #LINEAR_LIMIT} values. the views returned by {@link #get(String)}, {@link #keySet()} and {@link #values()}
+ * are live, and decode ids back to the interned names on iteration.
+ * <p>not thread safe, wrap with {@link StripedSetMultimap} or {@link Multimaps#synchronizedSetMultimap(SetMultimap)}
+ * for concurrent use.
+ */
+public class IntSetMultimap implements SetMultimap<String, String> {
+    private static final int LINEAR_LIMIT = 8;
+
+    private final NameTable names;
+    private int[] keys = new int[16]; //key id + 1, 0 for an empty slot
+    private int[][] values = new int[16][];
+    private int keyCount;
+    private int valueCount;
+
+    public IntSetMultimap(NameTable names) {
+        this.names = names;
+    }
+
+    public NameTable getNames() {
+        return names;
+    }
+
+    @Override
+    public boolean put(String key, String value) {
+        return put(names.intern(key), names.intern(value));
+    }
+
+    /** adds the given value id to the given key id, returns true if it was not present */
+    public boolean put(int key, int value) {
+        int slot = slotOf(key);
+        if (keys[slot] == 0) {
+            keys[slot] = key + 1;
+            values[slot] = new int[] {1, value};
+            valueCount++;
+            if (++keyCount * 2 > keys.length) rehash();
+            return true;
+        }
+        int[] set = values[slot];
+        int count = set[0];
+        values[slot] = set = add(set, value);
+        if (set[0] != count) {
+            valueCount++;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean putAll(Multimap<String, String> multimap) {
+        if (multimap instanceof SynchronizedSetMultimap) {
+            SetMultimap<String, String> real = ((SynchronizedSetMultimap<String, String>) multimap).realMultimap();
+            synchronized (real) {
+                return putAll(real);
+            }
+        }
+        boolean changed = false;
+        if (multimap instanceof StripedSetMultimap) {
+            for (SetMultimap<String, String> stripe : ((StripedSetMultimap<String, String>) multimap).getStripes()) {
+                synchronized (stripe) {
+                    changed |= putAll(stripe);
+                }
+            }
+        } else if (multimap instanceof IntSetMultimap && ((IntSetMultimap) multimap).names == names) {
+            IntSetMultimap other = (IntSetMultimap) multimap;
+            for (int slot = 0; slot < other.keys.length; slot++) {
+                if (other.keys[slot] != 0) {
+                    int key = other.keys[slot] - 1;
+                    for (IntIterator iterator = new IntIterator(other.values[slot]); iterator.hasNext(); ) {
+                        changed |= put(key, iterator.next());
+                    }
+                }
+            }
+        } else {
+            for (String key : multimap.keySet()) {
+                for (String value : multimap.get(key)) {
+                    changed |= put(key, value);
+                }
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean remove(String key, String value) {
+        int keyId = names.id(key);
+        int valueId = names.id(value);
+        return keyId != -1 && valueId != -1 && remove(keyId, valueId);
+    }
+
+    /** removes the given value id from the given key id, and the key once it has no value left */
+    public boolean remove(int key, int value) {
+        int slot = slotOf(key);
+        if (keys[slot] == 0 || !remove(values[slot], value)) {
+            return false;
+        }
+        valueCount--;
+        if (values[slot][0] == 0) {
+            keyCount--;
+            //backward shift deletion, keeping every key reachable from its home slot
+            int mask = keys.length - 1;
+            int hole = slot;
+            keys[hole] = 0;
+            values[hole] = null;
+            for (int next = (hole + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+                int home = NameTable.spread(keys[next] - 1) & mask;
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    keys[hole] = keys[next];
+                    values[hole] = values[next];
+                    keys[next] = 0;
+                    values[next] = null;
+                    hole = next;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Set<String> get(final String key) {
+        return new AbstractSet<String>() {
+            public Iterator<String> iterator() {
+                return new NameIterator(valuesOf(names.id(key)));
+            }
+
+            public int size() {
+                int[] set = valuesOf(names.id(key));
+                return set != null ? set[0] : 0;
+            }
+
+            public boolean contains(Object o) {
+                int value = names.id(o);
+                return value != -1 && IntSetMultimap.contains(valuesOf(names.id(key)), value);
+            }
+
+            public boolean add(String value) {
+                return put(key, value);
+            }
+        };
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return new AbstractSet<String>() {
+            public Iterator<String> iterator() {
+                return new KeyIterator<String>() {
+                    public String next() {
+                        return names.name(keys[nextSlot()] - 1);
+                    }
+                };
+            }
+
+            public int size() {
+                return keyCount;
+            }
+
+            public boolean contains(Object o) {
+                return valuesOf(names.id(o)) != null;
+            }
+        };
+    }
+
+    @Override
+    public Collection<String> values() {
+        return new AbstractCollection<String>() {
+            public Iterator<String> iterator() {
+                return Iterators.concat(new KeyIterator<Iterator<String>>() {
+                    public Iterator<String> next() {
+                        return new NameIterator(values[nextSlot()]);
+                    }
+                });
+            }
+
+            public int size() {
+                return valueCount;
+            }
+        };
+    }
+
+    @Override
+    public Iterable<Entry<String, String>> entries() {
+        return new Iterable<Entry<String, String>>() {
+            public Iterator<Entry<String, String>> iterator() {
+                return Iterators.concat(new KeyIterator<Iterator<Entry<String, String>>>() {
+                    public Iterator<Entry<String, String>> next() {
+                        int slot = nextSlot();
+                        final String key = names.name(keys[slot] - 1);
+                        final IntIterator iterator = new IntIterator(values[slot]);
+                        return new UnmodifiableIterator<Entry<String, String>>() {
+                            public boolean hasNext() {
+                                return iterator.hasNext();
+                            }
+
+                            public Entry<String, String> next() {
+                                return new ImmutableEntry<String, String>(key, names.name(iterator.next()));
+                            }
+                        };
+                    }
+                });
+            }
+        };
+    }
+
+    /** the number of key-value pairs */
+    @Override
+    public int size() {
+        return valueCount;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return valueCount == 0;
+    }
+
+    @Override
+    public Map<String, Collection<String>> asMap() {
+        return new AbstractMap<String, Collection<String>>() {
+            public Set<Entry<String, Collection<String>>> entrySet() {
+                return new AbstractSet<Entry<String, Collection<String>>>() {
+                    public Iterator<Entry<String, Collection<String>>> iterator() {
+                        return new KeyIterator<Entry<String, Collection<String>>>() {
+                            public Entry<String, Collection<String>> next() {
+                                String key = names.name(keys[nextSlot()] - 1);
+                                return new ImmutableEntry<String, Collection<String>>(key, IntSetMultimap.this.get(key));
+                            }
+                        };
+                    }
+
+                    public int size() {
+                        return keyCount;
+                    }
+                };
+            }
+
+            public Collection<String> get(Object key) {
+                return IntSetMultimap.this.keySet().contains(key) ? IntSetMultimap.this.get((String) key) : null;
+            }
+        };
+    }
+
+    private int[] valuesOf(int key) {
+        if (key == -1) return null;
+        int slot = slotOf(key);
+        return keys[slot] != 0 ? values[slot] : null;
+    }
+
+    /** the slot holding the given key id, or the empty slot it would be added to */
+    private int slotOf(int key) {
+        int mask = keys.length - 1;
+        int slot = NameTable.spread(key) & mask;
+        while (keys[slot] != 0 && keys[slot] != key + 1) slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    private void rehash() {
+        int[] oldKeys = keys;
+        int[][] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2][];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = slotOf(oldKeys[i] - 1);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    //value sets - [count, id...] while linear, [count, id + 1 or 0...] once hashed
+    private static boolean isHashed(int[] set) {
+        return set.length > LINEAR_LIMIT + 1;
+    }
+
+    private static boolean contains(int[] set, int value) {
+        if (set == null) return false;
+        if (isHashed(set)) {
+            int mask = set.length - 2;
+            for (int slot = NameTable.spread(value) & mask; set[slot + 1] != 0; slot = (slot + 1) & mask) {
+                if (set[slot + 1] == value + 1) return true;
+            }
+            return false;
+        }
+        for (int i = 1; i <= set[0]; i++) {
+            if (set[i] == value) return true;
+        }
+        return false;
+    }
+
+    /** adds the value to the set, growing or converting it when full. the count of the returned set tells if it was added */
+    private static int[] add(int[] set, int value) {
+        if (isHashed(set)) {
+            if ((set[0] + 1) * 2 > set.length - 1) {
+                set = rehash(set, (set.length - 1) * 2);
+            }
+            int mask = set.length - 2;
+            int slot = NameTable.spread(value) & mask;
+            for (; set[slot + 1] != 0; slot = (slot + 1) & mask) {
+                if (set[slot + 1] == value + 1) return set;
+            }
+            set[slot + 1] = value + 1;
+            set[0]++;
+            return set;
+        }
+        int count = set[0];
+        for (int i = 1; i <= count; i++) {
+            if (set[i] == value) return set;
+        }
+        if (count + 1 == set.length) {
+            if (count == LINEAR_LIMIT) {
+                set = rehash(set, LINEAR_LIMIT * 4);
+                return add(set, value);
+            }
+            int[] grown = new int[Math.min(LINEAR_LIMIT, count * 2) + 1];
+            System.arraycopy(set, 0, grown, 0, set.length);
+            set = grown;
+        }
+        set[count + 1] = value;
+        set[0]++;
+        return set;
+    }
+
+    /** removes the value from the set in place, returns true if it was present */
+    private static boolean remove(int[] set, int value) {
+        if (isHashed(set)) {
+            int mask = set.length - 2;
+            int slot = NameTable.spread(value) & mask;
+            while (set[slot + 1] != value + 1) {
+                if (set[slot + 1] == 0) return false;
+                slot = (slot + 1) & mask;
+            }
+            int hole = slot;
+            set[hole + 1] = 0;
+            for (int next = (hole + 1) & mask; set[next + 1] != 0; next = (next + 1) & mask) {
+                int home = NameTable.spread(set[next + 1] - 1) & mask;
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    set[hole + 1] = set[next + 1];
+                    set[next + 1] = 0;
+                    hole = next;
+                }
+            }
+            set[0]--;
+            return true;
+        }
+        int count = set[0];
+        for (int i = 1; i <= count; i++) {
+            if (set[i] == value) {
+                set[i] = set[count];
+                set[count] = 0;
+                set[0]--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] rehash(int[] set, int capacity) {
+        int[] hashed = new int[capacity + 1];
+        int mask = capacity - 1;
+        for (IntIterator iterator = new IntIterator(set); iterator.hasNext(); ) {
+            int value = iterator.next();
+            int slot = NameTable.spread(value) & mask;
+            while (hashed[slot + 1] != 0) slot = (slot + 1) & mask;
+            hashed[slot + 1] = value + 1;
+        }
+        hashed[0] = set[0];
+        return hashed;
+    }
+
+    /** iterates the value ids of a set */
+    private static class IntIterator {
+        private final int[] set;
+        private final boolean hashed;
+        private int index = 1;
+
+        private IntIterator(int[] set) {
+            this.set = set;
+            this.hashed = set != null && isHashed(set);
+        }
+
+        boolean hasNext() {
+            if (set == null) return false;
+            if (!hashed) return index <= set[0];
+            while (index < set.length && set[index] == 0) index++;
+            return index < set.length;
+        }
+
+        int next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return hashed ? set[index++] - 1 : set[index++];
+        }
+    }
+
+    private class NameIterator extends UnmodifiableIterator<String> {
+        private final IntIterator iterator;
+
+        private NameIterator(int[] set) {
+            iterator = new IntIterator(set);
+        }
+
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        public String next() {
+            return names.name(iterator.next());
+        }
+    }
+
+    /** iterates the occupied key slots */
+    private abstract class KeyIterator<T> extends UnmodifiableIterator<T> {
+        private int slot;
+
+        public boolean hasNext() {
+            while (slot < keys.length && keys[slot] == 0) slot++;
+            return slot < keys.length;
+        }
+
+        int nextSlot() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return slot++;
+        }
+    }
+}
@@ -10,6 +10,9 @@ public interface Multimap<K, V> {
 	boolean put(K key, V item);
 	
 	boolean putAll(Multimap<K, V> multimap);
+
+	/** removes the given value of the given key, and the key once it has no value left */
+	boolean remove(K key, V item);
 	
 	Collection<V> get(K key);
 	
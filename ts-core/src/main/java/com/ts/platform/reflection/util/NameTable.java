@@ -0,0 +1,96 @@
+package com.ts.platform.reflection.util;
+
+import java.util.Arrays;
+
+/**
+ * a dictionary of names, assigning each distinct name a dense int id, starting at 0.
+ * <p>every name is kept once, so multimaps storing ids instead of strings share a single copy of each class or member name.
+ * interning and lookup are thread safe. looking up a name already interned, and {@link #name(int)}, are lock free,
+ * only adding a name takes the lock.
+ */
+public class NameTable {
+    private volatile String[] names = new String[256];
+    private volatile int[] slots = new int[512]; //id + 1, 0 for an empty slot
+    private int size;
+
+    /** returns the id of the given name, adding it to the table if absent */
+    public int intern(String name) {
+        int id = find(name);
+        return id != -1 ? id : add(name);
+    }
+
+    private synchronized int add(String name) {
+        int mask = slots.length - 1;
+        int slot = spread(name.hashCode()) & mask;
+        for (int id; (id = slots[slot]) != 0; slot = (slot + 1) & mask) {
+            if (names[id - 1].equals(name)) return id - 1;
+        }
+        int id = size++;
+        String[] names = this.names;
+        if (id == names.length) {
+            names = Arrays.copyOf(names, names.length * 2);
+        }
+        names[id] = name;
+        this.names = names;
+        slots[slot] = id + 1;
+        if (size * 2 > slots.length) rehash();
+        return id;
+    }
+
+    /** returns the id of the given name, or -1 if it was never interned */
+    public int id(Object name) {
+        if (!(name instanceof String)) return -1;
+        int id = find((String) name);
+        return id != -1 ? id : locked(name);
+    }
+
+    private synchronized int locked(Object name) {
+        int mask = slots.length - 1;
+        int slot = spread(name.hashCode()) & mask;
+        for (int id; (id = slots[slot]) != 0; slot = (slot + 1) & mask) {
+            if (names[id - 1].equals(name)) return id - 1;
+        }
+        return -1;
+    }
+
+    /**
+     * lock free lookup, returns -1 if the name is not found. a name being added concurrently may be seen in the slots
+     * before its entry in the names, or the slots of a rehash before the grown names, -1 is returned then as well
+     */
+    private int find(String name) {
+        int[] slots = this.slots;
+        String[] names = this.names;
+        int mask = slots.length - 1;
+        int slot = spread(name.hashCode()) & mask;
+        for (int id; (id = slots[slot]) != 0; slot = (slot + 1) & mask) {
+            String existing = id <= names.length ? names[id - 1] : null;
+            if (existing == null) return -1;
+            if (existing.equals(name)) return id - 1;
+        }
+        return -1;
+    }
+
+    public String name(int id) {
+        return names[id];
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void rehash() {
+        int[] slots = new int[this.slots.length * 2];
+        int mask = slots.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = spread(names[id].hashCode()) & mask;
+            while (slots[slot] != 0) slot = (slot + 1) & mask;
+            slots[slot] = id + 1;
+        }
+        this.slots = slots;
+    }
+
+    static int spread(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,83 @@
+package com.ts.platform.reflection.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * a member descriptor as stored by the scanners, split once into its parts.
+ * <p>{@code com.acme.Foo.bar(java.lang.String, int)} for methods, {@code com.acme.Foo.<init>()} for constructors,
+ * {@code com.acme.Foo.baz} for fields. parsed descriptors are shared through {@link #parse(String)}.
+ */
+public final class ParsedDescriptor {
+    private static final int MAX_CACHED = 1 << 16;
+    private static final ConcurrentMap<String, ParsedDescriptor> cache = new ConcurrentHashMap<String, ParsedDescriptor>();
+
+    public enum Kind { FIELD, CONSTRUCTOR, METHOD }
+
+    private final String descriptor;
+    private final String className;
+    private final String memberName;
+    private final List<String> parameterTypeNames;
+    private final Kind kind;
+
+    private ParsedDescriptor(String descriptor) {
+        int p0 = descriptor.lastIndexOf('(');
+        String memberKey = p0 != -1 ? descriptor.substring(0, p0) : descriptor;
+        String methodParameters = p0 != -1 ? descriptor.substring(p0 + 1, descriptor.lastIndexOf(')')) : "";
+
+        int p1 = Math.max(memberKey.lastIndexOf('.'), memberKey.lastIndexOf("$"));
+        this.descriptor = descriptor;
+        this.className = memberKey.substring(memberKey.lastIndexOf(' ') + 1, p1);
+        this.memberName = memberKey.substring(p1 + 1);
+
+        if (Utils.isEmpty(methodParameters)) {
+            this.parameterTypeNames = Collections.emptyList();
+        } else {
+            String[] parameterNames = methodParameters.split(",");
+            List<String> names = new ArrayList<String>(parameterNames.length);
+            for (String name : parameterNames) names.add(name.trim());
+            this.parameterTypeNames = Collections.unmodifiableList(names);
+        }
+
+        this.kind = p0 == -1 ? Kind.FIELD : Utils.isConstructor(descriptor) ? Kind.CONSTRUCTOR : Kind.METHOD;
+    }
+
+    /** returns the parsed form of the given descriptor, parsing it once */
+    public static ParsedDescriptor parse(String descriptor) {
+        ParsedDescriptor parsed = cache.get(descriptor);
+        if (parsed == null) {
+            parsed = new ParsedDescriptor(descriptor);
+            if (cache.size() >= MAX_CACHED) cache.clear();
+            cache.put(descriptor, parsed);
+        }
+        return parsed;
+    }
+
+    public String getDescriptor() {
+        return descriptor;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public String getMemberName() {
+        return memberName;
+    }
+
+    public List<String> getParameterTypeNames() {
+        return parameterTypeNames;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    @Override
+    public String toString() {
+        return descriptor;
+    }
+}
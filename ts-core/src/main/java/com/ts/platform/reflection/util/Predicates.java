@@ -116,7 +116,11 @@ public final class Predicates {
 		public boolean test(T t) {
 			return true;
 		}
-		
+
+		@Override
+		public String toString() {
+			return "Predicates.alwaysTrue()";
+		}
 	}
 
 }
@@ -0,0 +1,191 @@
+package com.ts.platform.reflection.util;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * a set multimap safe for concurrent use, spreading keys over a power of two number of stripes, each a multimap guarded by
+ * its own lock. threads putting different keys mostly take different locks.
+ * <p>used for multimaps that are not thread safe themselves, such as {@link IntSetMultimap}.
+ * the views are not synchronized, iterate them once writes are done.
+ */
+public class StripedSetMultimap<K, V> implements SetMultimap<K, V> {
+    private final SetMultimap<K, V>[] stripes;
+
+    public StripedSetMultimap(int stripes, Supplier<? extends SetMultimap<K, V>> factory) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = newArray(size);
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = factory.get();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> SetMultimap<K, V>[] newArray(int size) {
+        return (SetMultimap<K, V>[]) new SetMultimap<?, ?>[size];
+    }
+
+    /** the stripes, each holding a disjoint part of the keys */
+    public SetMultimap<K, V>[] getStripes() {
+        return stripes;
+    }
+
+    private SetMultimap<K, V> stripe(Object key) {
+        return stripes[NameTable.spread(key.hashCode()) & (stripes.length - 1)];
+    }
+
+    @Override
+    public boolean put(K key, V item) {
+        SetMultimap<K, V> stripe = stripe(key);
+        synchronized (stripe) {
+            return stripe.put(key, item);
+        }
+    }
+
+    @Override
+    public boolean putAll(Multimap<K, V> multimap) {
+        boolean changed = false;
+        for (K key : multimap.keySet()) {
+            SetMultimap<K, V> stripe = stripe(key);
+            synchronized (stripe) {
+                for (V value : multimap.get(key)) {
+                    changed |= stripe.put(key, value);
+                }
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean remove(K key, V item) {
+        SetMultimap<K, V> stripe = stripe(key);
+        synchronized (stripe) {
+            return stripe.remove(key, item);
+        }
+    }
+
+    @Override
+    public Collection<V> get(K key) {
+        SetMultimap<K, V> stripe = stripe(key);
+        synchronized (stripe) {
+            return stripe.get(key);
+        }
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return new AbstractSet<K>() {
+            public Iterator<K> iterator() {
+                return Iterators.concat(Iterators.transform(new ArrayIterator(), new Function<SetMultimap<K, V>, Iterator<K>>() {
+                    public Iterator<K> apply(SetMultimap<K, V> stripe) {
+                        return stripe.keySet().iterator();
+                    }
+                }));
+            }
+
+            public int size() {
+                int size = 0;
+                for (SetMultimap<K, V> stripe : stripes) size += stripe.keySet().size();
+                return size;
+            }
+
+            public boolean contains(Object key) {
+                return stripe(key).keySet().contains(key);
+            }
+        };
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+            public Iterator<V> iterator() {
+                return Iterators.concat(Iterators.transform(new ArrayIterator(), new Function<SetMultimap<K, V>, Iterator<V>>() {
+                    public Iterator<V> apply(SetMultimap<K, V> stripe) {
+                        return stripe.values().iterator();
+                    }
+                }));
+            }
+
+            public int size() {
+                return StripedSetMultimap.this.size();
+            }
+        };
+    }
+
+    @Override
+    public Iterable<Entry<K, V>> entries() {
+        return new Iterable<Entry<K, V>>() {
+            public Iterator<Entry<K, V>> iterator() {
+                return Iterators.concat(Iterators.transform(new ArrayIterator(), new Function<SetMultimap<K, V>, Iterator<Entry<K, V>>>() {
+                    public Iterator<Entry<K, V>> apply(SetMultimap<K, V> stripe) {
+                        return stripe.entries().iterator();
+                    }
+                }));
+            }
+        };
+    }
+
+    /** the number of key-value pairs */
+    @Override
+    public int size() {
+        int size = 0;
+        for (SetMultimap<K, V> stripe : stripes) size += stripe.size();
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (SetMultimap<K, V> stripe : stripes) {
+            if (!stripe.isEmpty()) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public Map<K, Collection<V>> asMap() {
+        return new AbstractMap<K, Collection<V>>() {
+            public Set<Entry<K, Collection<V>>> entrySet() {
+                return new AbstractSet<Entry<K, Collection<V>>>() {
+                    public Iterator<Entry<K, Collection<V>>> iterator() {
+                        return Iterators.concat(Iterators.transform(new ArrayIterator(), new Function<SetMultimap<K, V>, Iterator<Entry<K, Collection<V>>>>() {
+                            public Iterator<Entry<K, Collection<V>>> apply(SetMultimap<K, V> stripe) {
+                                return stripe.asMap().entrySet().iterator();
+                            }
+                        }));
+                    }
+
+                    public int size() {
+                        return StripedSetMultimap.this.keySet().size();
+                    }
+                };
+            }
+
+            @SuppressWarnings("unchecked")
+            public Collection<V> get(Object key) {
+                return stripe(key).asMap().get(key);
+            }
+        };
+    }
+
+    private class ArrayIterator extends UnmodifiableIterator<SetMultimap<K, V>> {
+        private int index;
+
+        public boolean hasNext() {
+            return index < stripes.length;
+        }
+
+        public SetMultimap<K, V> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return stripes[index++];
+        }
+    }
+}
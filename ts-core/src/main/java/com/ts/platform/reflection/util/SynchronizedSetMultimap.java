@@ -21,6 +21,13 @@ public record SynchronizedSetMultimap<K, V>(SetMultimap<K, V> realMultimap) impl
         }
     }
 
+    @Override
+    public boolean remove(K key, V item) {
+        synchronized (realMultimap) {
+            return realMultimap.remove(key, item);
+        }
+    }
+
     @Override
     public Collection<V> get(K key) {
         synchronized (realMultimap) {
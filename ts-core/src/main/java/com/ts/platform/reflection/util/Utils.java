@@ -1,7 +1,9 @@
 package com.ts.platform.reflection.util;
 
+import com.ts.platform.reflection.ClassResolver;
 import com.ts.platform.reflection.Reflections;
 import com.ts.platform.reflection.ReflectionsException;
+import com.ts.platform.reflection.jfr.DescriptorResolveEvent;
 import com.ts.platform.reflection.scanners.Scanner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,7 +19,9 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.ts.platform.reflection.ReflectionUtils.forName;
 
@@ -25,6 +29,13 @@ import static com.ts.platform.reflection.ReflectionUtils.forName;
 @SuppressWarnings("rawtypes")
 public abstract class Utils {
 
+    /** members resolved by descriptor, per class they were looked up on */
+    private static final ClassValue<Map<String, Member>> resolvedMembers = new ClassValue<Map<String, Member>>() {
+        protected Map<String, Member> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<String, Member>();
+        }
+    };
+
     public static String repeat(String string, int times) {
         StringBuilder sb = new StringBuilder();
 
@@ -57,39 +68,83 @@ public abstract class Utils {
     }
 
     public static Member getMemberFromDescriptor(String descriptor, ClassLoader... classLoaders) throws ReflectionsException {
-        int p0 = descriptor.lastIndexOf('(');
-        String memberKey = p0 != -1 ? descriptor.substring(0, p0) : descriptor;
-        String methodParameters = p0 != -1 ? descriptor.substring(p0 + 1, descriptor.lastIndexOf(')')) : "";
+        DescriptorResolveEvent event = new DescriptorResolveEvent();
+        event.begin();
+        Member member = null;
+        try {
+            ParsedDescriptor parsed = ParsedDescriptor.parse(descriptor);
+            member = getMember(parsed, forName(parsed.getClassName(), classLoaders), null, classLoaders);
+            return member;
+        } finally {
+            event.complete(descriptor, member != null);
+        }
+    }
 
-        int p1 = Math.max(memberKey.lastIndexOf('.'), memberKey.lastIndexOf("$"));
-        String className = memberKey.substring(memberKey.lastIndexOf(' ') + 1, p1);
-        String memberName = memberKey.substring(p1 + 1);
+    /** like {@link #getMemberFromDescriptor(String, ClassLoader...)}, resolving the types through the given resolver */
+    public static Member getMemberFromDescriptor(String descriptor, ClassResolver resolver) throws ReflectionsException {
+        DescriptorResolveEvent event = new DescriptorResolveEvent();
+        event.begin();
+        Member member = null;
+        try {
+            ParsedDescriptor parsed = ParsedDescriptor.parse(descriptor);
+            member = getMember(parsed, resolver.forName(parsed.getClassName()), resolver, null);
+            return member;
+        } finally {
+            event.complete(descriptor, member != null);
+        }
+    }
+
+    /**
+     * the member of the given descriptor, looked up from the members already resolved on the class first.
+     * whether a member is missing depends on the class loaders its parameter types resolve from, so misses are
+     * remembered by the given resolver only and retried on every lookup without one
+     */
+    private static Member getMember(ParsedDescriptor parsed, Class<?> aClass, ClassResolver resolver, ClassLoader[] classLoaders) {
+        if (aClass != null) {
+            String descriptor = parsed.getDescriptor();
+            Map<String, Member> members = resolvedMembers.get(aClass);
+            Member member = members.get(descriptor);
+            if (member == null && (resolver == null || !resolver.isMissingMember(aClass, descriptor))) {
+                member = findMember(parsed, aClass, resolver, classLoaders);
+                if (member != null) {
+                    members.put(descriptor, member);
+                } else if (resolver != null) {
+                    resolver.addMissingMember(aClass, descriptor);
+                }
+            }
+            if (member != null) {
+                return member;
+            }
+        }
+        throw new ReflectionsException("Can't resolve member named " + parsed.getMemberName() + " for class " + parsed.getClassName());
+    }
 
+    private static Member findMember(ParsedDescriptor parsed, Class<?> aClass, ClassResolver resolver, ClassLoader[] classLoaders) {
         Class<?>[] parameterTypes = null;
-        if (!isEmpty(methodParameters)) {
-            String[] parameterNames = methodParameters.split(",");
-            List<Class<?>> result = new ArrayList<Class<?>>(parameterNames.length);
-            for (String name : parameterNames) {
-                result.add(forName(name.trim(), classLoaders));
+        if (!parsed.getParameterTypeNames().isEmpty()) {
+            List<Class<?>> result = new ArrayList<Class<?>>(parsed.getParameterTypeNames().size());
+            for (String name : parsed.getParameterTypeNames()) {
+                result.add(resolver != null ? resolver.forName(name) : forName(name, classLoaders));
             }
             parameterTypes = result.toArray(new Class<?>[result.size()]);
         }
 
-        Class<?> aClass = forName(className, classLoaders);
+        String memberName = parsed.getMemberName();
         while (aClass != null) {
             try {
-                if (!descriptor.contains("(")) {
-                    return aClass.isInterface() ? aClass.getField(memberName) : aClass.getDeclaredField(memberName);
-                } else if (isConstructor(descriptor)) {
-                    return aClass.isInterface() ? aClass.getConstructor(parameterTypes) : aClass.getDeclaredConstructor(parameterTypes);
-                } else {
-                    return aClass.isInterface() ? aClass.getMethod(memberName, parameterTypes) : aClass.getDeclaredMethod(memberName, parameterTypes);
+                switch (parsed.getKind()) {
+                    case FIELD:
+                        return aClass.isInterface() ? aClass.getField(memberName) : aClass.getDeclaredField(memberName);
+                    case CONSTRUCTOR:
+                        return aClass.isInterface() ? aClass.getConstructor(parameterTypes) : aClass.getDeclaredConstructor(parameterTypes);
+                    default:
+                        return aClass.isInterface() ? aClass.getMethod(memberName, parameterTypes) : aClass.getDeclaredMethod(memberName, parameterTypes);
                 }
             } catch (Exception e) {
                 aClass = aClass.getSuperclass();
             }
         }
-        throw new ReflectionsException("Can't resolve member named " + memberName + " for class " + className);
+        return null;
     }
 
     public static Set<Method> getMethodsFromDescriptors(Iterable<String> annotatedWith, ClassLoader... classLoaders) {
@@ -126,6 +181,49 @@ public abstract class Utils {
         return result;
     }
 
+    public static Set<Method> getMethodsFromDescriptors(Iterable<String> annotatedWith, ClassResolver resolver) {
+        Set<Method> result = Sets.newHashSet();
+        for (String annotated : annotatedWith) {
+            if (!isConstructor(annotated)) {
+                result.add((Method) getMemberFromDescriptor(annotated, resolver));
+            }
+        }
+        return result;
+    }
+
+    public static Set<Constructor> getConstructorsFromDescriptors(Iterable<String> annotatedWith, ClassResolver resolver) {
+        Set<Constructor> result = Sets.newHashSet();
+        for (String annotated : annotatedWith) {
+            if (isConstructor(annotated)) {
+                result.add((Constructor) getMemberFromDescriptor(annotated, resolver));
+            }
+        }
+        return result;
+    }
+
+    public static Set<Member> getMembersFromDescriptors(Iterable<String> values, ClassResolver resolver) {
+        Set<Member> result = Sets.newHashSet();
+        for (String value : values) {
+            try {
+                result.add(getMemberFromDescriptor(value, resolver));
+            } catch (ReflectionsException e) {
+                throw new ReflectionsException("Can't resolve member named " + value, e);
+            }
+        }
+        return result;
+    }
+
+    public static Field getFieldFromString(String field, ClassResolver resolver) {
+        String className = field.substring(0, field.lastIndexOf('.'));
+        String fieldName = field.substring(field.lastIndexOf('.') + 1);
+
+        try {
+            return resolver.forName(className).getDeclaredField(fieldName);
+        } catch (NoSuchFieldException e) {
+            throw new ReflectionsException("Can't resolve field named " + fieldName, e);
+        }
+    }
+
     public static Field getFieldFromString(String field, ClassLoader... classLoaders) {
         String className = field.substring(0, field.lastIndexOf('.'));
         String fieldName = field.substring(field.lastIndexOf('.') + 1);
@@ -0,0 +1,63 @@
+package com.ts.platform.reflection.vfs;
+
+import com.ts.platform.reflection.util.Utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+/**
+ * an in-memory copy of a {@link Vfs.File}.
+ * <p>the content is read once, on the thread that enumerates the owning {@link Vfs.Dir}, and can then be
+ * opened any number of times from any thread, after the owning dir was closed as well.
+ */
+public class BufferedFile implements Vfs.File {
+    private final String name;
+    private final String relativePath;
+    private final byte[] bytes;
+
+    public BufferedFile(String name, String relativePath, byte[] bytes) {
+        this.name = name;
+        this.relativePath = relativePath;
+        this.bytes = bytes;
+    }
+
+    /** reads the whole content of the given {@code file} */
+    public static BufferedFile of(Vfs.File file) throws IOException {
+        if (file instanceof PathFile) {
+            return new BufferedFile(file.getName(), file.getRelativePath(), Files.readAllBytes(((PathFile) file).getPath()));
+        }
+        if (file instanceof MappedZipFile) {
+            return new BufferedFile(file.getName(), file.getRelativePath(), ((MappedZipFile) file).getBytes());
+        }
+        InputStream inputStream = null;
+        try {
+            inputStream = file.openInputStream();
+            return new BufferedFile(file.getName(), file.getRelativePath(), inputStream.readAllBytes());
+        } finally {
+            Utils.close(inputStream);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getRelativePath() {
+        return relativePath;
+    }
+
+    public InputStream openInputStream() {
+        return new ByteArrayInputStream(bytes);
+    }
+
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return relativePath;
+    }
+}
@@ -0,0 +1,215 @@
+package com.ts.platform.reflection.vfs;
+
+import com.ts.platform.reflection.util.Utils;
+import com.ts.platform.utils.util.AbstractIterator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.ZipEntry;
+
+/**
+ * a jar dir reading a memory mapped jar file, walking the zip central directory itself rather than going through
+ * {@link java.util.jar.JarFile}.
+ * <p>the entries are {@link MappedZipFile}s, which hand out their content as {@link java.nio.ByteBuffer} views of the
+ * mapping, inflating only the DEFLATED ones.
+ * jars larger than 2GB, zip64 jars and jars with a prefix before the first entry are not handled, {@link #open(java.io.File)}
+ * returns null for them so that {@link Vfs.DefaultUrlTypes#jarFile} takes over.
+ * <p>note the mapping is released by the garbage collector, not on {@link #close()}
+ */
+public class MappedZipDir implements Vfs.Dir {
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int CENTRAL_SIGNATURE = 0x02014b50;
+    private static final int END_SIZE = 22;
+    private static final int CENTRAL_SIZE = 46;
+
+    private final String path;
+    final ByteBuffer buffer; //the whole jar, little endian
+    private final int centralDirectory;
+    private final int entries;
+
+    private MappedZipDir(String path, ByteBuffer buffer, int centralDirectory, int entries) {
+        this.path = path;
+        this.buffer = buffer;
+        this.centralDirectory = centralDirectory;
+        this.entries = entries;
+    }
+
+    /** maps the given jar, returns null if it can not be read by this dir */
+    public static MappedZipDir open(java.io.File file) throws IOException {
+        long length = file.length();
+        if (length < END_SIZE || length > Integer.MAX_VALUE) {
+            return null;
+        }
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            //the mapping stays valid once the channel is closed
+            return open(file.getPath(), randomAccessFile.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, length));
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    /** reads the jar held by the remaining bytes of the given buffer, returns null if it can not be read by this dir */
+    public static MappedZipDir open(String path, ByteBuffer buffer) {
+        buffer = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.limit() < END_SIZE) {
+            return null;
+        }
+        int end = findEnd(buffer);
+        if (end == -1) {
+            return null;
+        }
+        int entries = buffer.getShort(end + 10) & 0xFFFF;
+        long centralDirectory = buffer.getInt(end + 16) & 0xFFFFFFFFL;
+        if (entries == 0xFFFF || centralDirectory + (long) entries * CENTRAL_SIZE > end ||
+                (entries > 0 && buffer.getInt((int) centralDirectory) != CENTRAL_SIGNATURE)) {
+            return null;
+        }
+        return new MappedZipDir(path, buffer, (int) centralDirectory, entries);
+    }
+
+    /**
+     * opens the innermost jar of a nested jar url, such as {@code jar:file:/app.jar!/BOOT-INF/lib/lib.jar!/} or
+     * {@code jar:nested:/app.jar/!BOOT-INF/lib/lib.jar!/}, returns null if the url does not point to a nested jar.
+     * <p>a STORED inner jar is read in place from the mapping of the outer one, a DEFLATED one is inflated once to memory.
+     * either way its entries can then be read in any order, from any thread
+     */
+    public static MappedZipDir openNested(URL url) throws IOException {
+        String spec = url.toExternalForm();
+        if (!spec.startsWith("jar:")) {
+            return null;
+        }
+        spec = spec.substring("jar:".length());
+        java.io.File outer;
+        if (spec.startsWith("nested:")) {
+            int separator = spec.indexOf("/!");
+            if (separator == -1) return null;
+            outer = new java.io.File(URLDecoder.decode(spec.substring("nested:".length(), separator), "UTF-8"));
+            spec = spec.substring(separator + 2);
+        } else {
+            int separator = spec.indexOf("!/");
+            if (separator == -1) return null;
+            try {
+                outer = Vfs.getFile(URI.create(spec.substring(0, separator)).toURL());
+            } catch (IllegalArgumentException e) {
+                return null; //not a valid uri, such as an unescaped path, left to the other url types
+            }
+            spec = spec.substring(separator + 2);
+        }
+        List<String> entries = new ArrayList<String>();
+        for (String entry : spec.split("!/")) {
+            if (!entry.endsWith(".jar")) break;
+            entries.add(URLDecoder.decode(entry, "UTF-8"));
+        }
+        if (outer == null || !outer.isFile() || entries.isEmpty()) {
+            return null;
+        }
+
+        MappedZipDir dir = open(outer);
+        int first = 0;
+        if (dir == null) {
+            //the outer jar can not be mapped, extract the first nested jar with the jdk
+            java.util.zip.ZipFile zipFile = new java.util.zip.ZipFile(outer);
+            try {
+                ZipEntry entry = zipFile.getEntry(entries.get(0));
+                if (entry == null) throw new IOException("no entry " + entries.get(0) + " in " + outer);
+                InputStream inputStream = zipFile.getInputStream(entry);
+                try {
+                    dir = open(outer.getPath() + "!/" + entries.get(0), ByteBuffer.wrap(inputStream.readAllBytes()));
+                } finally {
+                    Utils.close(inputStream);
+                }
+            } finally {
+                zipFile.close();
+            }
+            first = 1;
+        }
+        for (int i = first; i < entries.size() && dir != null; i++) {
+            MappedZipFile file = dir.getFile(entries.get(i));
+            if (file == null) throw new IOException("no entry " + entries.get(i) + " in " + dir.getPath());
+            dir = open(dir.getPath() + "!/" + entries.get(i), file.isStored() ? file.getContent() : ByteBuffer.wrap(file.getBytes()));
+        }
+        return dir;
+    }
+
+    /** the entry of the given relative path, or null */
+    public MappedZipFile getFile(String relativePath) {
+        for (Vfs.File file : getFiles()) {
+            if (file.getRelativePath().equals(relativePath)) {
+                return (MappedZipFile) file;
+            }
+        }
+        return null;
+    }
+
+    /** the offset of the end of central directory record, searched backwards past a trailing comment of up to 64k */
+    private static int findEnd(ByteBuffer buffer) {
+        int last = buffer.limit() - END_SIZE;
+        int first = Math.max(0, last - 0xFFFF);
+        for (int offset = last; offset >= first; offset--) {
+            if (buffer.getInt(offset) == END_SIGNATURE && offset + END_SIZE + (buffer.getShort(offset + 20) & 0xFFFF) == buffer.limit()) {
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public Iterable<Vfs.File> getFiles() {
+        return new Iterable<Vfs.File>() {
+            public Iterator<Vfs.File> iterator() {
+                return new AbstractIterator<Vfs.File>() {
+                    int offset = centralDirectory;
+                    int remaining = entries;
+
+                    protected Vfs.File computeNext() {
+                        while (remaining > 0) {
+                            remaining--;
+                            int entry = offset;
+                            if (buffer.getInt(entry) != CENTRAL_SIGNATURE) {
+                                throw new IllegalStateException("corrupted central directory in " + path + " at " + entry);
+                            }
+                            int nameLength = buffer.getShort(entry + 28) & 0xFFFF;
+                            offset += CENTRAL_SIZE + nameLength + (buffer.getShort(entry + 30) & 0xFFFF) + (buffer.getShort(entry + 32) & 0xFFFF);
+                            if (nameLength == 0 || buffer.get(entry + CENTRAL_SIZE + nameLength - 1) == '/') {
+                                continue;
+                            }
+                            byte[] name = new byte[nameLength];
+                            buffer.get(entry + CENTRAL_SIZE, name);
+                            return new MappedZipFile(MappedZipDir.this, new String(name, StandardCharsets.UTF_8),
+                                    buffer.getShort(entry + 8) & 0xFFFF,
+                                    buffer.getShort(entry + 10) & 0xFFFF,
+                                    buffer.getInt(entry + 20),
+                                    buffer.getInt(entry + 24),
+                                    buffer.getInt(entry + 42));
+                        }
+                        return endOfData();
+                    }
+                };
+            }
+        };
+    }
+
+    public void close() {
+        //nothing to release, the mapping is unmapped once unreachable
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+}
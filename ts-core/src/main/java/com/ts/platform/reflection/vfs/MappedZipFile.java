@@ -0,0 +1,168 @@
+package com.ts.platform.reflection.vfs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * an entry of a {@link MappedZipDir}.
+ * <p>{@link #getContent()} returns a view of the mapped jar for STORED entries, and inflates DEFLATED entries into a
+ * buffer reused by each thread.
+ */
+public class MappedZipFile implements Vfs.File {
+    private static final int LOCAL_SIGNATURE = 0x04034b50;
+    private static final int LOCAL_SIZE = 30;
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+
+    private static final ThreadLocal<Inflater> inflater = new ThreadLocal<Inflater>() {
+        protected Inflater initialValue() {
+            return new Inflater(true);
+        }
+    };
+    private static final ThreadLocal<byte[]> inflated = new ThreadLocal<byte[]>() {
+        protected byte[] initialValue() {
+            return new byte[16 * 1024];
+        }
+    };
+
+    private final MappedZipDir root;
+    private final String relativePath;
+    private final int flags;
+    private final int method;
+    private final int compressedSize;
+    private final int size;
+    private final int localHeader;
+
+    MappedZipFile(MappedZipDir root, String relativePath, int flags, int method, int compressedSize, int size, int localHeader) {
+        this.root = root;
+        this.relativePath = relativePath;
+        this.flags = flags;
+        this.method = method;
+        this.compressedSize = compressedSize;
+        this.size = size;
+        this.localHeader = localHeader;
+    }
+
+    public String getName() {
+        return relativePath.substring(relativePath.lastIndexOf("/") + 1);
+    }
+
+    public String getRelativePath() {
+        return relativePath;
+    }
+
+    /** true if this entry is not compressed, its content is then a view of the jar */
+    public boolean isStored() {
+        return method == STORED;
+    }
+
+    /**
+     * the uncompressed content of this entry, without copying it when STORED.
+     * <p>the content of a DEFLATED entry is only valid until the next call to this method on the same thread,
+     * use {@link #getBytes()} to keep it.
+     */
+    public ByteBuffer getContent() throws IOException {
+        ByteBuffer data = data();
+        if (method == STORED) {
+            return data;
+        }
+        byte[] buffer = inflated.get();
+        if (buffer.length < size) {
+            inflated.set(buffer = new byte[Math.max(size, buffer.length * 2)]);
+        }
+        inflate(data, buffer);
+        return ByteBuffer.wrap(buffer, 0, size);
+    }
+
+    /** a copy of the uncompressed content of this entry */
+    public byte[] getBytes() throws IOException {
+        ByteBuffer data = data();
+        byte[] bytes = new byte[size];
+        if (method == STORED) {
+            data.get(bytes);
+        } else {
+            inflate(data, bytes);
+        }
+        return bytes;
+    }
+
+    public InputStream openInputStream() throws IOException {
+        return new ByteBufferInputStream(method == STORED ? data() : ByteBuffer.wrap(getBytes()));
+    }
+
+    /** the raw data of this entry, as stored in the jar */
+    private ByteBuffer data() throws IOException {
+        if ((flags & 1) != 0) {
+            throw new IOException("encrypted entry " + this);
+        }
+        if (method != STORED && method != DEFLATED) {
+            throw new IOException("unsupported compression method " + method + " of " + this);
+        }
+        ByteBuffer buffer = root.buffer;
+        if (localHeader < 0 || localHeader > buffer.limit() - LOCAL_SIZE || buffer.getInt(localHeader) != LOCAL_SIGNATURE) {
+            throw new IOException("corrupted local header of " + this);
+        }
+        int start = localHeader + LOCAL_SIZE + (buffer.getShort(localHeader + 26) & 0xFFFF) + (buffer.getShort(localHeader + 28) & 0xFFFF);
+        int length = method == STORED ? size : compressedSize;
+        if (size < 0 || compressedSize < 0 || start > buffer.limit() - length) {
+            throw new IOException("corrupted entry " + this);
+        }
+        return buffer.slice(start, length);
+    }
+
+    private void inflate(ByteBuffer input, byte[] output) throws IOException {
+        Inflater inflater = MappedZipFile.inflater.get();
+        inflater.reset();
+        inflater.setInput(input);
+        try {
+            int offset = 0;
+            while (offset < size) {
+                int read = inflater.inflate(output, offset, size - offset);
+                if (read == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("corrupted entry " + this);
+                }
+                offset += read;
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("corrupted entry " + this, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return root.getPath() + "!" + java.io.File.separatorChar + relativePath;
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) return 0;
+            if (!buffer.hasRemaining()) return -1;
+            length = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, length);
+            return length;
+        }
+
+        public int available() {
+            return buffer.remaining();
+        }
+
+        public long skip(long n) {
+            int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+    }
+}
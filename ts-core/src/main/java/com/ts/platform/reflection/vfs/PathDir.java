@@ -0,0 +1,147 @@
+package com.ts.platform.reflection.vfs;
+
+import com.ts.platform.reflection.Reflections;
+import com.ts.platform.reflection.ReflectionsException;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+
+/**
+ * a directory dir built on {@link java.nio.file}, reading the attributes of each entry once while walking.
+ * <p>{@link #getFiles()} walks the tree on the calling thread, with {@link Files#walkFileTree}.
+ * {@link #stream()} walks each sub directory as a fork join task and returns the files as a sized, splittable stream,
+ * so that big exploded trees, such as {@code target/classes} or an exploded war, are enumerated and processed in parallel.
+ * <p>symbolic links are followed, each directory is visited once.
+ */
+public class PathDir implements Vfs.Dir {
+    private final Path root;
+    private final String path;
+
+    public PathDir(Path root) {
+        if (!Files.isDirectory(root) || !Files.isReadable(root)) {
+            throw new ReflectionsException("cannot use dir " + root);
+        }
+        this.root = root;
+        this.path = root.toString().replace("\\", "/");
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public Iterable<Vfs.File> getFiles() {
+        return new Iterable<Vfs.File>() {
+            public Iterator<Vfs.File> iterator() {
+                return walk().iterator();
+            }
+        };
+    }
+
+    /** the files of this dir, enumerated in parallel in the current fork join pool, or the common one */
+    public Stream<Vfs.File> stream() {
+        Set<Object> visited = Collections.newSetFromMap(new ConcurrentHashMap<Object, Boolean>());
+        return new WalkTask(root, visited).invoke().stream();
+    }
+
+    private List<Vfs.File> walk() {
+        final List<Vfs.File> files = new ArrayList<Vfs.File>();
+        try {
+            Files.walkFileTree(root, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, new SimpleFileVisitor<Path>() {
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    if (attributes.isRegularFile()) {
+                        files.add(new PathFile(PathDir.this, file));
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    skipped(file, e);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new ReflectionsException("could not walk dir " + root, e);
+        }
+        return files;
+    }
+
+    private static void skipped(Path path, IOException e) {
+        if (Reflections.log != null) {
+            Reflections.log.debug("could not read {}, skipping", path, e);
+        }
+    }
+
+    public void close() {
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+
+    /** lists a single directory, forking a task per sub directory */
+    private class WalkTask extends RecursiveTask<List<Vfs.File>> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Path directory;
+        private final transient Set<Object> visited;
+
+        private WalkTask(Path directory, Set<Object> visited) {
+            this.directory = directory;
+            this.visited = visited;
+        }
+
+        protected List<Vfs.File> compute() {
+            List<Vfs.File> files = new ArrayList<Vfs.File>();
+            List<WalkTask> tasks = new ArrayList<WalkTask>();
+            try {
+                Object key = Files.readAttributes(directory, BasicFileAttributes.class).fileKey();
+                if (!visited.add(key != null ? key : directory.toRealPath())) {
+                    return files;
+                }
+                DirectoryStream<Path> entries = Files.newDirectoryStream(directory);
+                try {
+                    for (Path entry : entries) {
+                        BasicFileAttributes attributes;
+                        try {
+                            attributes = Files.readAttributes(entry, BasicFileAttributes.class);
+                        } catch (IOException e) {
+                            skipped(entry, e);
+                            continue;
+                        }
+                        if (attributes.isDirectory()) {
+                            WalkTask task = new WalkTask(entry, visited);
+                            task.fork();
+                            tasks.add(task);
+                        } else if (attributes.isRegularFile()) {
+                            files.add(new PathFile(PathDir.this, entry));
+                        }
+                    }
+                } finally {
+                    entries.close();
+                }
+            } catch (IOException e) {
+                skipped(directory, e);
+            }
+            for (WalkTask task : tasks) {
+                files.addAll(task.join());
+            }
+            return files;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.ts.platform.reflection.vfs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/** a regular file of a {@link PathDir} */
+public class PathFile implements Vfs.File {
+    private final PathDir root;
+    private final Path path;
+
+    public PathFile(PathDir root, Path path) {
+        this.root = root;
+        this.path = path;
+    }
+
+    public String getName() {
+        return path.getFileName().toString();
+    }
+
+    public String getRelativePath() {
+        String filepath = path.toString().replace("\\", "/");
+        if (filepath.startsWith(root.getPath())) {
+            return filepath.substring(root.getPath().length() + 1);
+        }
+
+        return null; //should not get here
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public InputStream openInputStream() throws IOException {
+        return Files.newInputStream(path);
+    }
+
+    @Override
+    public String toString() {
+        return path.toString();
+    }
+}
@@ -5,6 +5,7 @@ package com.ts.platform.reflection.vfs;
 import com.ts.platform.utils.util.AbstractIterator;
 
 import java.io.File;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -60,13 +61,7 @@ public class SystemDir implements Vfs.Dir {
 
     private static List<File> listFiles(final File file) {
         File[] files = file.listFiles();
-
-//        if (files != null)
-//            return Lists.newArrayList(files);
-//        else
-//            return Lists.newArrayList();
-
-        return null;
+        return files != null ? Arrays.asList(files) : Collections.<File>emptyList();
     }
 
     public void close() {
@@ -2,9 +2,9 @@ package com.ts.platform.reflection.vfs;
 
 
 import com.ts.platform.reflection.Reflections;
+import com.ts.platform.reflection.util.Iterables;
 import com.ts.platform.reflection.util.Utils;
 import com.ts.platform.utils.collect.Lists;
-import com.ts.platform.utils.util.Iterables;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -161,6 +161,17 @@ public abstract class Vfs {
 
 
     public static enum DefaultUrlTypes implements UrlType {
+        mappedJarFile {
+            public boolean matches(URL url) {
+                return url.getProtocol().equals("file") && hasJarFileInPath(url);
+            }
+
+            public Dir createDir(final URL url) throws Exception {
+                java.io.File file = getFile(url);
+                return file != null && file.isFile() ? MappedZipDir.open(file) : null;
+            }
+        },
+
         jarFile {
             public boolean matches(URL url) {
                 return url.getProtocol().equals("file") && hasJarFileInPath(url);
@@ -171,6 +182,16 @@ public abstract class Vfs {
             }
         },
 
+        nestedJar {
+            public boolean matches(URL url) {
+                return "jar".equals(url.getProtocol()) && url.toExternalForm().matches("jar:(nested:.*/!|.*\\.[jw]ar!/).*\\.jar(!/.*)?");
+            }
+
+            public Dir createDir(URL url) throws Exception {
+                return MappedZipDir.openNested(url);
+            }
+        },
+
         jarUrl {
             public boolean matches(URL url) {
                 return "jar".equals(url.getProtocol()) || "zip".equals(url.getProtocol()) || "wsjar".equals(url.getProtocol());
@@ -198,7 +219,7 @@ public abstract class Vfs {
             }
 
             public Dir createDir(final URL url) throws Exception {
-                return new SystemDir(getFile(url));
+                return new PathDir(getFile(url).toPath());
             }
         },
 
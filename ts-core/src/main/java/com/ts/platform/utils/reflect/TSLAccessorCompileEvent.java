@@ -0,0 +1,46 @@
+package com.ts.platform.utils.reflect;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.ts.platform.utils.reflect.AccessorCompile")
+@Label("Accessor Compile")
+@Category({"TS Platform", "Reflect"})
+@Description("The generation and definition of a getter or setter class")
+@Threshold("1 ms")
+@StackTrace(false)
+public class TSLAccessorCompileEvent extends Event {
+    @Label("Declaring Class")
+    public Class<?> declaringClass;
+
+    @Label("Property")
+    public String property;
+
+    @Label("Kind")
+    @Description("getter or setter")
+    public String kind;
+
+    @Label("Generator")
+    @Description("javassist or lambda")
+    public String generator;
+
+    @Label("Generated Class")
+    public String generatedClass;
+
+    public void complete(Class<?> declaringClass, String property, String kind, String generator, String generatedClass) {
+        end();
+        if (shouldCommit()) {
+            this.declaringClass = declaringClass;
+            this.property = property;
+            this.kind = kind;
+            this.generator = generator;
+            this.generatedClass = generatedClass;
+            commit();
+        }
+    }
+}
@@ -28,6 +28,8 @@ public class TSLClass implements TSLReflectElement {
     protected final Map<String, TSLMethod> methodsByName;
 
     public TSLClass(Class clazz) {
+        TSLClassEvent event = new TSLClassEvent();
+        event.begin();
         this.clazz = clazz;
         this.methods = newMethods(clazz);
         this.fields = newFields(clazz);
@@ -35,6 +37,7 @@ public class TSLClass implements TSLReflectElement {
         this.declaredMethods = newDeclaredMethods(clazz);
         this.fieldsByName = mapFieldsByName();
         this.methodsByName = mapMethodsByName();
+        event.complete(clazz, fields.size(), methods.size());
     }
 
     @SuppressWarnings("unchecked")
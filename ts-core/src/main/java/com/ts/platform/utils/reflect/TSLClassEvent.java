@@ -0,0 +1,36 @@
+package com.ts.platform.utils.reflect;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.ts.platform.utils.reflect.ClassIntrospection")
+@Label("Class Introspection")
+@Category({"TS Platform", "Reflect"})
+@Description("The construction of a TSLClass, listing the fields and methods of a type and its super types")
+@Threshold("1 ms")
+@StackTrace(true)
+public class TSLClassEvent extends Event {
+    @Label("Type")
+    public Class<?> type;
+
+    @Label("Fields")
+    public int fields;
+
+    @Label("Methods")
+    public int methods;
+
+    public void complete(Class<?> type, int fields, int methods) {
+        end();
+        if (shouldCommit()) {
+            this.type = type;
+            this.fields = fields;
+            this.methods = methods;
+            commit();
+        }
+    }
+}
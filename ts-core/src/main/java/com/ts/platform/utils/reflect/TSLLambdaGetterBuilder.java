@@ -0,0 +1,57 @@
+package com.ts.platform.utils.reflect;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.function.Function;
+
+/**
+ * builds the getter with {@link java.lang.invoke.LambdaMetafactory}, as a hidden
+ * class nested in the declaring class, rather than compiling it with javassist.
+ * falls back to {@link TSLGetterBuilder} if the declaring class can not be
+ * looked up privately, or has no getter
+ */
+@SuppressWarnings("rawtypes")
+public class TSLLambdaGetterBuilder extends TSLGetterBuilder {
+
+    @Override
+    public TSLLambdaGetterBuilder field(TSLField field) {
+        super.field(field);
+        return this;
+    }
+
+    @Override
+    public TSLLambdaGetterBuilder method(TSLMethod method) {
+        super.method(method);
+        return this;
+    }
+
+    @Override
+    protected Function doBuild() throws Exception {
+        TSLAccessorCompileEvent event = new TSLAccessorCompileEvent();
+        event.begin();
+        Function getter;
+        try {
+            MethodHandles.Lookup lookup = TSLLambdas.privateLookupIn(declaringClass);
+            getter = TSLLambdas.newGetter(lookup, findGetter(lookup));
+        } catch (Exception | LinkageError e) {
+            logger.debug("can not build lambda getter: {}, fall back to javassist", getPropertyName(), e);
+            return super.doBuild();
+        }
+        event.complete(declaringClass, getPropertyName(), "getter", "lambda", getter.getClass().getName());
+        return getter;
+    }
+
+    protected MethodHandle findGetter(
+            MethodHandles.Lookup lookup) throws ReflectiveOperationException {
+        if (field == null) {
+            return lookup.unreflect(method.getMethod());
+        }
+        String methodName = field.getGetterMethod();
+        Method getter = TSLMethods.getMethod(declaringClass, methodName);
+        if (getter == null) {
+            throw new NoSuchMethodException(declaringClass.getName() + "." + methodName + "()");
+        }
+        return lookup.unreflect(getter);
+    }
+}
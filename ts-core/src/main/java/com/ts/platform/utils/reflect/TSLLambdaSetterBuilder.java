@@ -0,0 +1,57 @@
+package com.ts.platform.utils.reflect;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+
+/**
+ * builds the setter with {@link java.lang.invoke.LambdaMetafactory}, as a hidden
+ * class nested in the declaring class, rather than compiling it with javassist.
+ * falls back to {@link TSLSetterBuilder} if the declaring class can not be
+ * looked up privately, or has no setter
+ */
+@SuppressWarnings("rawtypes")
+public class TSLLambdaSetterBuilder extends TSLSetterBuilder {
+
+    @Override
+    public TSLLambdaSetterBuilder field(TSLField field) {
+        super.field(field);
+        return this;
+    }
+
+    @Override
+    public TSLLambdaSetterBuilder method(TSLMethod method) {
+        super.method(method);
+        return this;
+    }
+
+    @Override
+    protected BiConsumer doBuild() throws Exception {
+        TSLAccessorCompileEvent event = new TSLAccessorCompileEvent();
+        event.begin();
+        BiConsumer setter;
+        try {
+            MethodHandles.Lookup lookup = TSLLambdas.privateLookupIn(declaringClass);
+            setter = TSLLambdas.newSetter(lookup, findSetter(lookup));
+        } catch (Exception | LinkageError e) {
+            logger.debug("can not build lambda setter: {}, fall back to javassist", getPropertyName(), e);
+            return super.doBuild();
+        }
+        event.complete(declaringClass, getPropertyName(), "setter", "lambda", setter.getClass().getName());
+        return setter;
+    }
+
+    protected MethodHandle findSetter(
+            MethodHandles.Lookup lookup) throws ReflectiveOperationException {
+        if (field == null) {
+            return lookup.unreflect(method.getMethod());
+        }
+        String methodName = field.getSetterMethod();
+        Method setter = TSLMethods.getMethod(declaringClass, methodName, field.getType());
+        if (setter == null) {
+            throw new NoSuchMethodException(declaringClass.getName() + "." + methodName + "(" + field.getType().getName() + ")");
+        }
+        return lookup.unreflect(setter);
+    }
+}
@@ -0,0 +1,77 @@
+package com.ts.platform.utils.reflect;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+@SuppressWarnings("unchecked")
+public final class TSLLambdas {
+
+    private static final MethodType GETTER_TYPE
+        = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE
+        = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private TSLLambdas() {}
+
+    /**
+     * a lookup with full private access to the given type, so that the lambdas
+     * are defined as hidden classes nested in the type, in its class loader.
+     * fails for a type of another module, such as the unnamed module of
+     * another class loader, as the lambdas could not be defined there
+     */
+    public static MethodHandles.Lookup privateLookupIn(
+            Class<?> type) throws IllegalAccessException {
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        if (!lookup.hasFullPrivilegeAccess()) {
+            throw new IllegalAccessException("no full privilege access to " + type.getName() + " from " + lookup);
+        }
+        return lookup;
+    }
+
+    /** a function calling the given {@code (T)R} getter handle, boxing primitive values */
+    public static Function<Object, Object> newGetter(
+            MethodHandles.Lookup lookup,
+            MethodHandle getter) throws LambdaConversionException {
+        CallSite site = LambdaMetafactory.metafactory(
+            lookup,
+            "apply",
+            MethodType.methodType(Function.class),
+            GETTER_TYPE,
+            getter,
+            getter.type().wrap()
+        );
+        return (Function<Object, Object>) newInstance(site);
+    }
+
+    /** a consumer calling the given {@code (T,V)void} setter handle, unboxing primitive values */
+    public static BiConsumer<Object, Object> newSetter(
+            MethodHandles.Lookup lookup,
+            MethodHandle setter) throws LambdaConversionException {
+        MethodType type = setter.type();
+        CallSite site = LambdaMetafactory.metafactory(
+            lookup,
+            "accept",
+            MethodType.methodType(BiConsumer.class),
+            SETTER_TYPE,
+            setter,
+            type.wrap().changeReturnType(void.class)
+        );
+        return (BiConsumer<Object, Object>) newInstance(site);
+    }
+
+    private static Object newInstance(CallSite site) {
+        try {
+            return site.getTarget().invoke();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.ts.platform.utils.reflect;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.ts.platform.utils.reflect.ObjectProxyGenerated")
+@Label("Object Proxy Generated")
+@Category({"TS Platform", "Reflect"})
+@Description("The generation of the object proxy of a type, introspection and accessors included")
+@Threshold("1 ms")
+@StackTrace(true)
+public class TSLObjectProxyEvent extends Event {
+    @Label("Object Type")
+    public Class<?> objectType;
+
+    @Label("Properties")
+    public int properties;
+
+    public void complete(Class<?> objectType, int properties) {
+        end();
+        if (shouldCommit()) {
+            this.objectType = objectType;
+            this.properties = properties;
+            commit();
+        }
+    }
+}
@@ -13,9 +13,20 @@ import java.util.function.Function;
 public class TSLObjectProxyProvider {
 
     protected final Map<Class, TSLObjectProxy> objectProxies;
+    protected final boolean lambdaAccessors;
 
     public TSLObjectProxyProvider() {
+        this(true);
+    }
+
+    /**
+     * @param lambdaAccessors true to build getters and setters with
+     *                        {@link TSLLambdaGetterBuilder} and {@link TSLLambdaSetterBuilder},
+     *                        false to compile them with javassist only
+     */
+    public TSLObjectProxyProvider(boolean lambdaAccessors) {
         this.objectProxies = new ConcurrentHashMap<>();
+        this.lambdaAccessors = lambdaAccessors;
     }
 
     public TSLObjectProxy getObjectProxy(Class<?> objectType) {
@@ -24,6 +35,8 @@ public class TSLObjectProxyProvider {
     }
 
     protected TSLObjectProxy newObjectProxy(Class<?> objectType) {
+        TSLObjectProxyEvent event = new TSLObjectProxyEvent();
+        event.begin();
         TSLClass clazz = new TSLClass(objectType);
         Collection<TSLField> fields = getFields(clazz);
         Map<String, Function> getters = new HashMap<>();
@@ -41,7 +54,9 @@ public class TSLObjectProxyProvider {
             .addGetters((Map) getters)
             .addPropertyTypes(propertyTypes);
         preBuildObjectProxy(clazz, builder);
-        return builder.build();
+        TSLObjectProxy proxy = builder.build();
+        event.complete(objectType, fields.size());
+        return proxy;
     }
 
     protected void preBuildObjectProxy(
@@ -58,13 +73,19 @@ public class TSLObjectProxyProvider {
     }
 
     protected Function newGetter(TSLField field) {
-        return new TSLGetterBuilder()
+        TSLGetterBuilder builder = lambdaAccessors
+            ? new TSLLambdaGetterBuilder()
+            : new TSLGetterBuilder();
+        return builder
             .field(field)
             .build();
     }
 
     protected BiConsumer newSetter(TSLField field) {
-        return new TSLSetterBuilder()
+        TSLSetterBuilder builder = lambdaAccessors
+            ? new TSLLambdaSetterBuilder()
+            : new TSLSetterBuilder();
+        return builder
             .field(field)
             .build();
     }
@@ -4,6 +4,7 @@ import com.ts.platform.utils.asm.TSLFunction;
 import com.ts.platform.utils.asm.TSLInstruction;
 import com.ts.platform.utils.functional.TSLBuilder;
 import com.ts.platform.utils.util.TSLLoggable;
+import javassist.ClassClassPath;
 import javassist.ClassPool;
 import javassist.CtClass;
 import javassist.CtNewMethod;
@@ -45,15 +46,18 @@ public class TSLSetterBuilder extends TSLLoggable implements TSLBuilder<BiConsum
     }
 
     protected BiConsumer doBuild() throws Exception {
+        TSLAccessorCompileEvent event = new TSLAccessorCompileEvent();
+        event.begin();
         String implClassName = getImplClassName();
-        ClassPool pool = ClassPool.getDefault();
+        ClassPool pool = newClassPool();
         CtClass implClass = pool.makeClass(implClassName);
         String acceptMethodContent = makeAcceptMethodContent();
         printMethodContent(acceptMethodContent);
         implClass.addMethod(CtNewMethod.make(acceptMethodContent, implClass));
         implClass.setInterfaces(new CtClass[]{pool.get(BiConsumer.class.getName())});
-        Class answerClass = implClass.toClass();
+        Class answerClass = implClass.toClass(declaringClass);
         implClass.detach();
+        event.complete(declaringClass, getPropertyName(), "setter", "javassist", implClassName);
         return TSLClasses.newInstance(answerClass);
     }
 
@@ -80,14 +84,28 @@ public class TSLSetterBuilder extends TSLLoggable implements TSLBuilder<BiConsum
             .toString();
     }
 
+    /**
+     * a pool finding the classes visible to the declaring class, which may be of
+     * another class loader than the ones of the default pool. the implementation
+     * is then defined next to the declaring class, in its class loader
+     */
+    protected ClassPool newClassPool() {
+        ClassPool pool = new ClassPool(ClassPool.getDefault());
+        pool.appendClassPath(new ClassClassPath(declaringClass));
+        return pool;
+    }
+
     protected TSLMethod getEntityTypeMethod() {
         Method method = TSLMethods.getMethod(BiConsumer.class, "accept", Object.class, Object.class);
         return new TSLMethod(method);
     }
 
+    protected String getPropertyName() {
+        return field != null ? field.getName() : method.getFieldName();
+    }
+
     protected String getImplClassName() {
-        String name = field != null ? field.getName() : method.getFieldName();
-        return declaringClass.getName() + "$" + name + "$EzyObjectProxy$SetterImpl$" + COUNT.incrementAndGet();
+        return declaringClass.getName() + "$" + getPropertyName() + "$EzyObjectProxy$SetterImpl$" + COUNT.incrementAndGet();
     }
 
     protected void printMethodContent(String methodContent) {
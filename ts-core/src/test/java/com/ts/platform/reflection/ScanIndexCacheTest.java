@@ -0,0 +1,118 @@
+package com.ts.platform.reflection;
+
+import com.ts.platform.reflection.scanners.MemberUsageScanner;
+import com.ts.platform.reflection.scanners.Scanner;
+import com.ts.platform.reflection.scanners.SubTypesScanner;
+import com.ts.platform.reflection.scanners.TypeAnnotationsScanner;
+import com.ts.platform.reflection.util.ConfigurationBuilder;
+import com.ts.platform.reflection.util.FilterBuilder;
+import com.ts.platform.reflection.util.Multimap;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.net.URL;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ScanIndexCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final URL jar = Test.class.getProtectionDomain().getCodeSource().getLocation();
+
+    @Test
+    public void secondScanIsCached() throws Exception {
+        ScanIndexCache cache = new ScanIndexCache(folder.getRoot());
+        Cached first = scan(cache, new FilterBuilder().includePackage("org.junit"), new SubTypesScanner(), new TypeAnnotationsScanner());
+        assertFalse(first.cached);
+        assertEquals(1, folder.getRoot().list().length);
+        String key = cache.keyOf(jar, first.reflections.getConfiguration());
+        assertNotNull(key);
+        assertNotNull(cache.load(key, first.reflections.getConfiguration()));
+
+        Cached second = scan(cache, new FilterBuilder().includePackage("org.junit"), new SubTypesScanner(), new TypeAnnotationsScanner());
+        assertTrue(second.cached);
+        assertEquals(entries(first.reflections), entries(second.reflections));
+        assertEquals(1, folder.getRoot().list().length);
+    }
+
+    @Test
+    public void unstableFilterIsNotCached() throws Exception {
+        ScanIndexCache cache = new ScanIndexCache(folder.getRoot());
+        Predicate<String> lambda = name -> name.startsWith("org/junit");
+        for (int i = 0; i < 2; i++) {
+            assertFalse(scan(cache, lambda, new SubTypesScanner()).cached);
+        }
+        assertEquals(0, folder.getRoot().list().length);
+
+        cache.setConfigurationKey("junit classes");
+        assertFalse(scan(cache, lambda, new SubTypesScanner()).cached);
+        assertTrue(scan(cache, lambda, new SubTypesScanner()).cached);
+        assertEquals(1, folder.getRoot().list().length);
+    }
+
+    @Test
+    public void scannerOptionsArePartOfTheKey() throws Exception {
+        ScanIndexCache cache = new ScanIndexCache(folder.getRoot());
+        Configuration full = new ConfigurationBuilder().setUrls(jar).setScanners(new MemberUsageScanner());
+        Configuration compact = new ConfigurationBuilder().setUrls(jar).setScanners(new MemberUsageScanner().compact());
+        assertNotEquals(cache.keyOf(jar, full), cache.keyOf(jar, compact));
+
+        Cached first = scan(cache, null, new MemberUsageScanner());
+        Cached second = scan(cache, null, new MemberUsageScanner().compact());
+        assertFalse(second.cached);
+        assertNotEquals(entries(first.reflections), entries(second.reflections));
+        assertTrue(scan(cache, null, new MemberUsageScanner().compact()).cached);
+        assertNull(new ScanIndexCache(folder.getRoot()).keyOf(new File(folder.getRoot(), "missing.jar").toURI().toURL(), full));
+    }
+
+    private Cached scan(ScanIndexCache cache, Predicate<String> inputsFilter, Scanner... scanners) {
+        final Cached result = new Cached();
+        result.reflections = new Reflections(new ConfigurationBuilder()
+                .setUrls(jar)
+                .filterInputsBy(inputsFilter)
+                .setScanners(scanners)
+                .setScanIndexCache(cache)
+                .addScanListeners(new ScanListener() {
+                    public void onScanFailure(URL url, String path, Scanner scanner, Exception e) {
+                    }
+
+                    public void onUrlScanned(ScanMetrics.UrlMetrics metrics) {
+                        result.cached = metrics.isCached();
+                    }
+
+                    public void onScanFinished(ScanMetrics metrics) {
+                    }
+                }));
+        return result;
+    }
+
+    private static Set<String> entries(Reflections reflections) {
+        Set<String> result = new TreeSet<String>();
+        Store store = reflections.getStore();
+        for (String index : store.keySet()) {
+            Multimap<String, String> multimap = store.get(index);
+            for (String key : multimap.keySet()) {
+                for (String value : multimap.get(key)) {
+                    result.add(index + " " + key + " " + value);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static class Cached {
+        Reflections reflections;
+        boolean cached;
+    }
+}
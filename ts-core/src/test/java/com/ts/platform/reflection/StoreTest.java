@@ -0,0 +1,63 @@
+package com.ts.platform.reflection;
+
+import com.ts.platform.reflection.util.Multimap;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link Store#getKeysOf(String, String)} checked against going through all the keys of the index, before and after
+ * the index changes
+ */
+public class StoreTest {
+
+    @Test
+    public void keysOf() {
+        Store store = Reflections.empty().getStore();
+        Multimap<String, String> index = store.getOrCreate("index");
+        Random random = new Random(1);
+        for (int i = 0; i < 2000; i++) {
+            index.put("key" + random.nextInt(300), "value" + random.nextInt(50));
+        }
+        check(store);
+
+        index.put("key-new", "value0");
+        index.put("key-new", "value-new");
+        store.invalidate();
+        check(store);
+        assertTrue(store.getKeysOf("index", "value0").contains("key-new"));
+        assertEquals(Collections.singleton("key-new"), store.getKeysOf("index", "value-new"));
+        assertTrue(store.getKeysOf("index", "missing").isEmpty());
+    }
+
+    @Test
+    public void mergeInvalidates() {
+        Store store = Reflections.empty().getStore();
+        store.getOrCreate("index").put("a", "v");
+        assertEquals(Collections.singleton("a"), store.getKeysOf("index", "v"));
+
+        Store other = Reflections.empty().getStore();
+        other.getOrCreate("index").put("b", "v");
+        store.merge(other);
+        assertEquals(new HashSet<String>(Arrays.asList("a", "b")), store.getKeysOf("index", "v"));
+    }
+
+    private static void check(Store store) {
+        Multimap<String, String> index = store.get("index");
+        for (int v = 0; v < 50; v++) {
+            String value = "value" + v;
+            Set<String> expected = new HashSet<String>();
+            for (String key : index.keySet()) {
+                if (index.get(key).contains(value)) expected.add(key);
+            }
+            assertEquals(value, expected, store.getKeysOf("index", value));
+        }
+    }
+}
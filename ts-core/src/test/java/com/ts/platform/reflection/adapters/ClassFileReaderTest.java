@@ -0,0 +1,290 @@
+package com.ts.platform.reflection.adapters;
+
+import com.ts.platform.reflection.adapters.ClassFileReader.MemberInfo;
+import javassist.ClassPool;
+import javassist.bytecode.AccessFlag;
+import javassist.bytecode.Bytecode;
+import javassist.bytecode.ClassFile;
+import javassist.bytecode.CodeAttribute;
+import javassist.bytecode.CodeIterator;
+import javassist.bytecode.ConstPool;
+import javassist.bytecode.Descriptor;
+import javassist.bytecode.LineNumberAttribute;
+import javassist.bytecode.MethodInfo;
+import javassist.bytecode.Opcode;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * compares what {@link BytecodeAdapter} reads from class files with what {@link JavassistAdapter} reads from the same
+ * bytes, both through the adapters and for the member references found in the code of each method
+ */
+public class ClassFileReaderTest {
+
+    @Test
+    public void fixture() throws Exception {
+        byte[] bytes = bytesOf(Fixture.class);
+        assertSame(bytes);
+
+        List<String> markers = new ArrayList<String>();
+        for (String ref : refs(new ClassFileReader(bytes), "run")) {
+            if (ref.contains(".marker")) markers.add(ref.substring(ref.indexOf(".marker") + 1, ref.indexOf('(')));
+        }
+        assertEquals(markers.toString(), 6, markers.size());
+        for (int i = 0; i < markers.size(); i++) {
+            assertEquals("marker" + i, markers.get(i));
+        }
+    }
+
+    /**
+     * local variables past 255 are addressed with {@code wide}, which javac only emits for methods this large.
+     * the low bytes of the indices are member reference opcodes, so an instruction read with the wrong length shows
+     */
+    @Test
+    public void wideLocals() throws Exception {
+        ClassFile classFile = new ClassFile(false, "com.acme.Wide", null);
+        ConstPool constPool = classFile.getConstPool();
+        MethodInfo method = new MethodInfo(constPool, "run", "()V");
+        method.setAccessFlags(AccessFlag.PUBLIC | AccessFlag.STATIC);
+        Bytecode code = new Bytecode(constPool, 2, 0x200);
+        code.addIconst(1);
+        code.addIstore(0x1b8);
+        code.addOpcode(Opcode.WIDE);
+        code.addOpcode(Opcode.IINC);
+        code.addIndex(0x1b8);
+        code.addIndex(0x1b6);
+        code.addIload(0x1b8);
+        code.addInvokestatic("com.acme.Wide", "marker", "(I)V");
+        code.addLload(0x1b4);
+        code.addOpcode(Opcode.POP2);
+        code.addGetstatic("java.lang.System", "out", "Ljava/io/PrintStream;");
+        code.addOpcode(Opcode.POP);
+        code.addOpcode(Opcode.RETURN);
+        method.setCodeAttribute(code.toCodeAttribute());
+        classFile.addMethod(method);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        classFile.write(new DataOutputStream(out));
+        byte[] bytes = out.toByteArray();
+        assertSame(bytes);
+        assertEquals(2, refs(new ClassFileReader(bytes), "run").size());
+    }
+
+    @Test
+    public void realJars() throws Exception {
+        int classes = 0;
+        for (Class<?> type : new Class<?>[] {ClassPool.class, Test.class}) {
+            File jar = new File(type.getProtectionDomain().getCodeSource().getLocation().toURI());
+            JarFile jarFile = new JarFile(jar);
+            try {
+                Enumeration<JarEntry> entries = jarFile.entries();
+                while (entries.hasMoreElements()) {
+                    JarEntry entry = entries.nextElement();
+                    if (entry.getName().endsWith(".class")) {
+                        assertSame(readFully(jarFile.getInputStream(entry)));
+                        classes++;
+                    }
+                }
+            } finally {
+                jarFile.close();
+            }
+        }
+        assertTrue(classes > 100);
+    }
+
+    private static void assertSame(byte[] bytes) throws IOException {
+        ClassFileReader reader = new ClassFileReader(bytes);
+        ClassFile classFile = new ClassFile(new DataInputStream(new ByteArrayInputStream(bytes)));
+        String name = classFile.getName();
+        assertEquals(name, describe(new JavassistAdapter(), classFile), describe(new BytecodeAdapter(), reader));
+
+        List<MemberInfo> methods = reader.getMethods();
+        List<MethodInfo> expected = classFile.getMethods();
+        assertEquals(expected.size(), methods.size());
+        for (int i = 0; i < methods.size(); i++) {
+            assertEquals(name + "." + expected.get(i).getName(), refs(expected.get(i)), refs(methods.get(i)));
+        }
+    }
+
+    private static <C, F, M> List<String> describe(MetadataAdapter<C, F, M> adapter, C cls) {
+        List<String> result = new ArrayList<String>();
+        result.add(adapter.getClassName(cls) + " extends " + adapter.getSuperclassName(cls) + " implements " + adapter.getInterfacesNames(cls));
+        result.add("public " + adapter.isPublic(cls) + " " + adapter.getClassAnnotationNames(cls));
+        for (F field : adapter.getFields(cls)) {
+            result.add(adapter.getFieldName(field) + " " + adapter.isPublic(field) + " " + adapter.getFieldAnnotationNames(field));
+        }
+        for (M method : adapter.getMethods(cls)) {
+            List<String> parameters = adapter.getParameterNames(method);
+            StringBuilder line = new StringBuilder(adapter.getMethodFullKey(cls, method));
+            line.append(' ').append(adapter.getMethodModifier(method)).append(' ').append(adapter.isPublic(method))
+                    .append(' ').append(adapter.getReturnTypeName(method)).append(' ').append(adapter.getMethodAnnotationNames(method));
+            for (int i = 0; i < parameters.size(); i++) {
+                line.append(' ').append(adapter.getParameterAnnotationNames(method, i));
+            }
+            result.add(line.toString());
+        }
+        return result;
+    }
+
+    private static List<String> refs(ClassFileReader reader, String methodName) {
+        for (MemberInfo method : reader.getMethods()) {
+            if (method.getName().equals(methodName)) return refs(method);
+        }
+        throw new AssertionError("no method " + methodName);
+    }
+
+    private static List<String> refs(MemberInfo method) {
+        final List<String> result = new ArrayList<String>();
+        method.visitCode(new ClassFileReader.CodeVisitor() {
+            public void visitMemberRef(int opcode, String owner, String name, String descriptor, int line) {
+                result.add(opcode + " " + owner + "." + name + descriptor + " " + line);
+            }
+        });
+        return result;
+    }
+
+    /** the member references of the code of a method as decoded by javassist, invokedynamic skipped */
+    private static List<String> refs(MethodInfo method) {
+        List<String> result = new ArrayList<String>();
+        CodeAttribute code = method.getCodeAttribute();
+        if (code == null) return result;
+        ConstPool constPool = method.getConstPool();
+        LineNumberAttribute lines = (LineNumberAttribute) code.getAttribute(LineNumberAttribute.tag);
+        CodeIterator iterator = code.iterator();
+        while (iterator.hasNext()) {
+            int pc;
+            try {
+                pc = iterator.next();
+            } catch (javassist.bytecode.BadBytecode e) {
+                throw new AssertionError(e);
+            }
+            int opcode = iterator.byteAt(pc);
+            if (opcode < Opcode.GETSTATIC || opcode > Opcode.INVOKEINTERFACE) continue;
+            int index = iterator.u16bitAt(pc + 1);
+            String owner, name, descriptor;
+            switch (constPool.getTag(index)) {
+                case ConstPool.CONST_Fieldref:
+                    owner = constPool.getFieldrefClassName(index);
+                    name = constPool.getFieldrefName(index);
+                    descriptor = constPool.getFieldrefType(index);
+                    break;
+                case ConstPool.CONST_InterfaceMethodref:
+                    owner = constPool.getInterfaceMethodrefClassName(index);
+                    name = constPool.getInterfaceMethodrefName(index);
+                    descriptor = constPool.getInterfaceMethodrefType(index);
+                    break;
+                default:
+                    owner = constPool.getMethodrefClassName(index);
+                    name = constPool.getMethodrefName(index);
+                    descriptor = constPool.getMethodrefType(index);
+            }
+            //array owners are named as by javassist's expr api, such as java.lang.Object[]
+            if (owner.startsWith("[")) owner = Descriptor.toClassName(owner);
+            result.add(opcode + " " + owner + "." + name + descriptor + " " + (lines != null ? lines.toLineNumber(pc) : -1));
+        }
+        return result;
+    }
+
+    private static byte[] bytesOf(Class<?> type) throws IOException {
+        String name = type.getName();
+        return readFully(type.getResourceAsStream(name.substring(name.lastIndexOf('.') + 1) + ".class"));
+    }
+
+    private static byte[] readFully(InputStream inputStream) throws IOException {
+        try {
+            return inputStream.readAllBytes();
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Visible {
+        String value() default "";
+    }
+
+    @Retention(RetentionPolicy.CLASS)
+    @interface Invisible {
+        int[] value() default {};
+    }
+
+    /**
+     * code with a member reference behind each instruction whose length depends on its operands or alignment, and
+     * constant pool entries taking two slots, so a wrong length shifts the references read after it
+     */
+    @Visible("fixture")
+    @SuppressWarnings("unused")
+    static class Fixture implements Runnable, Supplier<Object> {
+        static final long LONG = 0x123456789abcdefL;
+        static final double DOUBLE = 2.718281828459045;
+        @Invisible({1, 2}) long total;
+        @Visible double ratio;
+
+        public void run() {
+            long l = System.nanoTime() ^ 0x0fedcba987654321L;
+            double d = l * 1.4142135623730951;
+            total += l;
+            marker0();
+            switch ((int) l & 7) {
+                case 0: total++; break;
+                case 1: total += 2; break;
+                case 2: total += 3; break;
+                case 3: total += 5; break;
+                default: total = 0;
+            }
+            marker1();
+            switch ((int) l) {
+                case -100000: total++; break;
+                case 7: total += 2; break;
+                case 100000: total += 3; break;
+                default: total = 1;
+            }
+            marker2();
+            int i = (int) l;
+            i += 1000;
+            i -= 40000;
+            marker3();
+            Supplier<String> supplier = () -> String.valueOf(ratio);
+            String concat = "total " + total + " ratio " + d + supplier.get();
+            marker4();
+            ratio = concat.length() * DOUBLE + LONG + i;
+            marker5();
+        }
+
+        @Visible
+        public Object get() {
+            return new Object[] {this}.clone();
+        }
+
+        protected static int parameters(@Visible("p") int a, @Invisible long b, String... rest) {
+            return a + (int) b + rest.length;
+        }
+
+        private native void nothing();
+
+        static void marker0() {}
+        static void marker1() {}
+        static void marker2() {}
+        static void marker3() {}
+        static void marker4() {}
+        static void marker5() {}
+    }
+}
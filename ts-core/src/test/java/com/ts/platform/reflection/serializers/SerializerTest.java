@@ -0,0 +1,86 @@
+package com.ts.platform.reflection.serializers;
+
+import com.ts.platform.reflection.Reflections;
+import com.ts.platform.reflection.Store;
+import com.ts.platform.reflection.scanners.FieldAnnotationsScanner;
+import com.ts.platform.reflection.scanners.MemberUsageScanner;
+import com.ts.platform.reflection.scanners.MethodAnnotationsScanner;
+import com.ts.platform.reflection.scanners.MethodParameterScanner;
+import com.ts.platform.reflection.scanners.SubTypesScanner;
+import com.ts.platform.reflection.scanners.TypeAnnotationsScanner;
+import com.ts.platform.reflection.util.ClasspathHelper;
+import com.ts.platform.reflection.util.ConfigurationBuilder;
+import com.ts.platform.reflection.util.FilterBuilder;
+import com.ts.platform.reflection.util.Multimap;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/** saves a scan with each serializer and reads it back, expecting the same entries */
+public class SerializerTest {
+    private static Reflections reflections;
+    private static Set<String> expected;
+
+    @BeforeClass
+    public static void scan() {
+        reflections = new Reflections(new ConfigurationBuilder()
+                .setUrls(ClasspathHelper.forClass(Reflections.class))
+                .filterInputsBy(new FilterBuilder().includePackage("com.ts.platform.reflection"))
+                .setScanners(new SubTypesScanner(false), new TypeAnnotationsScanner(), new MethodAnnotationsScanner(),
+                        new FieldAnnotationsScanner(), new MethodParameterScanner(), new MemberUsageScanner()));
+        expected = entries(reflections);
+        assertTrue(expected.size() > 1000);
+    }
+
+    @Test
+    public void xml() throws Exception {
+        assertEquals(expected, entries(roundTrip(new XmlSerializer(), "xml")));
+    }
+
+    @Test
+    public void json() throws Exception {
+        assertEquals(expected, entries(roundTrip(new JsonSerializer(), "json")));
+    }
+
+    @Test
+    public void binary() throws Exception {
+        assertEquals(expected, entries(roundTrip(new BinarySerializer(), "bin")));
+    }
+
+    private static Reflections roundTrip(Serializer serializer, String extension) throws Exception {
+        File file = File.createTempFile("reflections", "." + extension);
+        try {
+            serializer.save(reflections, file.getAbsolutePath());
+            InputStream inputStream = new FileInputStream(file);
+            try {
+                return serializer.read(inputStream);
+            } finally {
+                inputStream.close();
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static Set<String> entries(Reflections reflections) {
+        Set<String> result = new TreeSet<String>();
+        Store store = reflections.getStore();
+        for (String index : store.keySet()) {
+            Multimap<String, String> multimap = store.get(index);
+            for (String key : multimap.keySet()) {
+                for (String value : multimap.get(key)) {
+                    result.add(index + " " + key + " " + value);
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,162 @@
+package com.ts.platform.reflection.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * random puts and removes on an {@link IntSetMultimap}, checked against a {@code HashMap<String, Set<String>>} oracle.
+ * small name pools make keys and values collide, wide value pools grow value sets past the linear limit into hashed
+ * sets, and removing everything exercises the backward shift deletion of both tables
+ */
+public class IntSetMultimapTest {
+
+    @Test
+    public void smallValueSets() {
+        check(1, 64, 6, 20000);
+    }
+
+    @Test
+    public void hashedValueSets() {
+        check(2, 16, 200, 40000);
+    }
+
+    @Test
+    public void manyKeys() {
+        check(3, 2000, 12, 60000);
+    }
+
+    @Test
+    public void removeAll() {
+        NameTable names = new NameTable();
+        IntSetMultimap multimap = new IntSetMultimap(names);
+        Map<String, Set<String>> oracle = new HashMap<String, Set<String>>();
+        Random random = new Random(4);
+        for (int i = 0; i < 20000; i++) {
+            String key = "k" + random.nextInt(500);
+            String value = "v" + random.nextInt(100);
+            assertEquals(oracle.computeIfAbsent(key, k -> new HashSet<String>()).add(value), multimap.put(key, value));
+        }
+        List<String[]> pairs = new ArrayList<String[]>();
+        for (Map.Entry<String, Set<String>> entry : oracle.entrySet()) {
+            for (String value : entry.getValue()) {
+                pairs.add(new String[] {entry.getKey(), value});
+            }
+        }
+        Collections.shuffle(pairs, random);
+        for (int i = 0; i < pairs.size(); i++) {
+            String[] pair = pairs.get(i);
+            assertTrue(multimap.remove(pair[0], pair[1]));
+            assertFalse(multimap.remove(pair[0], pair[1]));
+            Set<String> values = oracle.get(pair[0]);
+            values.remove(pair[1]);
+            if (values.isEmpty()) oracle.remove(pair[0]);
+            if (i % 1000 == 0) assertSame(oracle, multimap);
+        }
+        assertTrue(multimap.isEmpty());
+        assertEquals(0, multimap.keySet().size());
+        assertFalse(multimap.keySet().iterator().hasNext());
+    }
+
+    @Test
+    public void putAll() {
+        NameTable names = new NameTable();
+        IntSetMultimap first = new IntSetMultimap(names);
+        IntSetMultimap second = new IntSetMultimap(names);
+        SetMultimap<String, String> third = Multimaps.newSetMultimap(
+                new HashMap<String, Collection<String>>(), HashSet::new);
+        Map<String, Set<String>> oracle = new HashMap<String, Set<String>>();
+        Random random = new Random(5);
+        for (int i = 0; i < 5000; i++) {
+            String key = "k" + random.nextInt(100);
+            String value = "v" + random.nextInt(50);
+            (i % 2 == 0 ? second : third).put(key, value);
+            oracle.computeIfAbsent(key, k -> new HashSet<String>()).add(value);
+        }
+        assertTrue(first.putAll(second));
+        assertTrue(first.putAll(third));
+        assertFalse(first.putAll(second));
+        assertSame(oracle, first);
+    }
+
+    @Test
+    public void absentNames() {
+        IntSetMultimap multimap = new IntSetMultimap(new NameTable());
+        multimap.put("a", "b");
+        assertFalse(multimap.remove("a", "c"));
+        assertFalse(multimap.remove("c", "b"));
+        assertTrue(multimap.get("c").isEmpty());
+        assertFalse(multimap.keySet().contains("c"));
+        assertFalse(multimap.keySet().contains(1));
+        assertNull(multimap.asMap().get("c"));
+    }
+
+    private static void check(long seed, int keyPool, int valuePool, int operations) {
+        NameTable names = new NameTable();
+        IntSetMultimap multimap = new IntSetMultimap(names);
+        Map<String, Set<String>> oracle = new HashMap<String, Set<String>>();
+        Random random = new Random(seed);
+        for (int i = 0; i < operations; i++) {
+            String key = "k" + random.nextInt(keyPool);
+            String value = "v" + random.nextInt(valuePool);
+            if (random.nextInt(3) != 0) {
+                boolean added = oracle.computeIfAbsent(key, k -> new HashSet<String>()).add(value);
+                assertEquals(added, multimap.put(key, value));
+            } else {
+                Set<String> values = oracle.get(key);
+                boolean removed = values != null && values.remove(value);
+                if (values != null && values.isEmpty()) oracle.remove(key);
+                assertEquals(removed, multimap.remove(key, value));
+            }
+            if (i % 1000 == 0) assertSame(oracle, multimap);
+        }
+        assertSame(oracle, multimap);
+    }
+
+    private static void assertSame(Map<String, Set<String>> oracle, IntSetMultimap multimap) {
+        int size = 0;
+        for (Set<String> values : oracle.values()) size += values.size();
+        assertEquals(size, multimap.size());
+        assertEquals(size == 0, multimap.isEmpty());
+        assertEquals(oracle.keySet(), new HashSet<String>(multimap.keySet()));
+        assertEquals(oracle.size(), multimap.keySet().size());
+        for (Map.Entry<String, Set<String>> entry : oracle.entrySet()) {
+            Set<String> values = multimap.get(entry.getKey());
+            assertEquals(entry.getValue(), new HashSet<String>(values));
+            assertEquals(entry.getValue().size(), values.size());
+            for (String value : entry.getValue()) {
+                assertTrue(values.contains(value));
+            }
+            assertTrue(multimap.keySet().contains(entry.getKey()));
+        }
+
+        List<String> values = new ArrayList<String>(multimap.values());
+        assertEquals(size, values.size());
+        Map<String, Set<String>> entries = new HashMap<String, Set<String>>();
+        int entryCount = 0;
+        for (Map.Entry<String, String> entry : multimap.entries()) {
+            entries.computeIfAbsent(entry.getKey(), k -> new HashSet<String>()).add(entry.getValue());
+            entryCount++;
+        }
+        assertEquals(size, entryCount);
+        assertEquals(oracle, entries);
+        Map<String, Set<String>> asMap = new HashMap<String, Set<String>>();
+        for (Map.Entry<String, Collection<String>> entry : multimap.asMap().entrySet()) {
+            asMap.put(entry.getKey(), new HashSet<String>(entry.getValue()));
+        }
+        assertEquals(oracle, asMap);
+    }
+}
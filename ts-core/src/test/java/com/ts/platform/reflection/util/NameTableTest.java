@@ -0,0 +1,76 @@
+package com.ts.platform.reflection.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+
+public class NameTableTest {
+
+    @Test
+    public void internAssignsDenseIds() {
+        NameTable names = new NameTable();
+        Map<String, Integer> oracle = new HashMap<String, Integer>();
+        for (int i = 0; i < 10000; i++) {
+            String name = "com.acme.Type" + (i * 7919 % 5000);
+            Integer expected = oracle.get(name);
+            int id = names.intern(name);
+            if (expected == null) {
+                assertEquals(oracle.size(), id);
+                oracle.put(name, id);
+            } else {
+                assertEquals(expected.intValue(), id);
+            }
+            assertEquals(name, names.name(id));
+        }
+        assertEquals(oracle.size(), names.size());
+        for (Map.Entry<String, Integer> entry : oracle.entrySet()) {
+            assertEquals(entry.getValue().intValue(), names.id(entry.getKey()));
+            assertEquals(entry.getValue().intValue(), names.id(new String(entry.getKey())));
+        }
+        assertEquals(-1, names.id("com.acme.Missing"));
+        assertEquals(-1, names.id(42));
+    }
+
+    @Test
+    public void concurrentInterning() throws Exception {
+        final NameTable names = new NameTable();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<int[]>> results = new ArrayList<Future<int[]>>();
+            for (int t = 0; t < 4; t++) {
+                final int offset = t;
+                results.add(executor.submit(new Callable<int[]>() {
+                    public int[] call() {
+                        int[] ids = new int[20000];
+                        for (int i = 0; i < ids.length; i++) {
+                            ids[i] = names.intern("name" + ((i + offset * 5000) % ids.length));
+                        }
+                        return ids;
+                    }
+                }));
+            }
+            Map<String, Integer> seen = new HashMap<String, Integer>();
+            for (int t = 0; t < 4; t++) {
+                int[] ids = results.get(t).get();
+                for (int i = 0; i < ids.length; i++) {
+                    String name = "name" + ((i + t * 5000) % ids.length);
+                    assertEquals(name, names.name(ids[i]));
+                    Integer previous = seen.put(name, ids[i]);
+                    if (previous != null) assertEquals(previous.intValue(), ids[i]);
+                }
+            }
+            assertEquals(20000, names.size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.ts.platform.utils.reflect;
+
+import org.junit.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * the proxies of {@code new TSLObjectProxyProvider()}, with lambda accessors, against the ones of
+ * {@code new TSLObjectProxyProvider(false)}, compiled with javassist, on the same beans
+ */
+public class TSLObjectProxyProviderTest {
+
+    @Test
+    public void primitives() {
+        for (TSLObjectProxyProvider provider : providers()) {
+            TSLObjectProxy proxy = provider.getObjectProxy(Primitives.class);
+            Primitives bean = new Primitives();
+            proxy.setProperty(bean, "count", 42);
+            proxy.setProperty(bean, "total", 1L << 40);
+            proxy.setProperty(bean, "ratio", 0.5);
+            proxy.setProperty(bean, "active", true);
+            proxy.setProperty(bean, "grade", 'b');
+            proxy.setProperty(bean, "boxed", 7);
+            assertEquals(42, bean.getCount());
+            assertEquals(1L << 40, bean.getTotal());
+            assertEquals(0.5, bean.getRatio(), 0);
+            assertTrue(bean.isActive());
+            assertEquals('b', bean.getGrade());
+
+            assertEquals(Integer.valueOf(42), proxy.getProperty(bean, "count"));
+            assertEquals(Long.valueOf(1L << 40), proxy.getProperty(bean, "total"));
+            assertEquals(Double.valueOf(0.5), proxy.getProperty(bean, "ratio"));
+            assertEquals(Boolean.TRUE, proxy.getProperty(bean, "active"));
+            assertEquals(Character.valueOf('b'), proxy.getProperty(bean, "grade"));
+            assertEquals(Integer.valueOf(7), proxy.getProperty(bean, "boxed"));
+
+            proxy.setProperty(bean, "boxed", null);
+            assertNull(proxy.getProperty(bean, "boxed"));
+        }
+    }
+
+    @Test
+    public void fluentSetters() {
+        for (TSLObjectProxyProvider provider : providers()) {
+            TSLObjectProxy proxy = provider.getObjectProxy(Fluent.class);
+            Fluent bean = new Fluent();
+            proxy.setProperty(bean, "name", "fluent");
+            proxy.setProperty(bean, "size", 3);
+            assertEquals("fluent", bean.getName());
+            assertEquals("fluent", proxy.getProperty(bean, "name"));
+            assertEquals(Integer.valueOf(3), proxy.getProperty(bean, "size"));
+        }
+    }
+
+    @Test
+    public void inheritedGetters() {
+        for (TSLObjectProxyProvider provider : providers()) {
+            TSLObjectProxy proxy = provider.getObjectProxy(Child.class);
+            Child bean = new Child();
+            proxy.setProperty(bean, "id", 11L);
+            proxy.setProperty(bean, "name", "child");
+            assertEquals(11L, bean.getId());
+            assertEquals(Long.valueOf(11L), proxy.getProperty(bean, "id"));
+            assertEquals("child", proxy.getProperty(bean, "name"));
+        }
+    }
+
+    /** the lambdas can not be defined in a class of the unnamed module of another class loader, javassist is used instead */
+    @Test
+    public void otherClassLoader() throws Exception {
+        URL classes = Primitives.class.getProtectionDomain().getCodeSource().getLocation();
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {classes}, null)) {
+            Class<?> type = classLoader.loadClass(Primitives.class.getName());
+            assertNotSame(Primitives.class, type);
+            TSLField field = new TSLField(type.getDeclaredField("count"));
+
+            Function<?, ?> getter = new TSLLambdaGetterBuilder().field(field).build();
+            BiConsumer<?, ?> setter = new TSLLambdaSetterBuilder().field(field).build();
+            assertFalse(getter.getClass().isHidden());
+            assertFalse(setter.getClass().isHidden());
+            assertSame(classLoader, getter.getClass().getClassLoader());
+            assertSame(classLoader, setter.getClass().getClassLoader());
+
+            for (TSLObjectProxyProvider provider : providers()) {
+                TSLObjectProxy proxy = provider.getObjectProxy(type);
+                Object bean = type.getDeclaredConstructor().newInstance();
+                proxy.setProperty(bean, "count", 5);
+                proxy.setProperty(bean, "active", true);
+                assertEquals(5, type.getMethod("getCount").invoke(bean));
+                assertEquals(Integer.valueOf(5), proxy.getProperty(bean, "count"));
+                assertEquals(Boolean.TRUE, proxy.getProperty(bean, "active"));
+            }
+        }
+    }
+
+    @Test
+    public void lambdaAccessors() throws Exception {
+        TSLField field = new TSLField(Primitives.class.getDeclaredField("count"));
+        assertTrue(new TSLLambdaGetterBuilder().field(field).build().getClass().isHidden());
+        assertTrue(new TSLLambdaSetterBuilder().field(field).build().getClass().isHidden());
+    }
+
+    private static TSLObjectProxyProvider[] providers() {
+        return new TSLObjectProxyProvider[] {new TSLObjectProxyProvider(), new TSLObjectProxyProvider(false)};
+    }
+
+    public static class Primitives {
+        private int count;
+        private long total;
+        private double ratio;
+        private boolean active;
+        private char grade;
+        private Integer boxed;
+
+        public int getCount() { return count; }
+        public void setCount(int count) { this.count = count; }
+        public long getTotal() { return total; }
+        public void setTotal(long total) { this.total = total; }
+        public double getRatio() { return ratio; }
+        public void setRatio(double ratio) { this.ratio = ratio; }
+        public boolean isActive() { return active; }
+        public void setActive(boolean active) { this.active = active; }
+        public char getGrade() { return grade; }
+        public void setGrade(char grade) { this.grade = grade; }
+        public Integer getBoxed() { return boxed; }
+        public void setBoxed(Integer boxed) { this.boxed = boxed; }
+    }
+
+    public static class Fluent {
+        private String name;
+        private int size;
+
+        public String getName() { return name; }
+        public Fluent setName(String name) { this.name = name; return this; }
+        public int getSize() { return size; }
+        public Fluent setSize(int size) { this.size = size; return this; }
+    }
+
+    public static class Parent {
+        private long id;
+
+        public long getId() { return id; }
+        public void setId(long id) { this.id = id; }
+    }
+
+    public static class Child extends Parent {
+        private String name;
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+    }
+}